@@ -3,18 +3,21 @@ package com.raven.training.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * Spring configuration class for defining application-wide beans.
  * This class is responsible for setting up and configuring various components
  * that are used throughout the application, such as the RestTemplate.
+ * It also enables scheduled tasks, such as the periodic flush of the book popularity counters.
  *
  * @author Juan Esteban Camacho Barrera
  * @version 1.0
  * @since 2025-08-05
  */
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     /**
@@ -0,0 +1,169 @@
+package com.raven.training.config;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Spring configuration class for the in-process caches.
+ * Every cache is a bounded Caffeine cache with its own size and time-to-live,
+ * and records statistics so hit, miss and eviction rates can be monitored through
+ * the {@code cache.*} metrics of the actuator. Caffeine evicts with W-TinyLFU, so
+ * a burst of one-off reads cannot push the hot entries out.
+ * <p>
+ * The manager is transaction-aware: a {@code @CacheEvict} or {@code @CachePut} made inside a
+ * transaction is applied only after it commits, and dropped if it rolls back, so a concurrent
+ * read cannot cache the old row again between the eviction and the commit.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Total number of books per combination of listing filters.
+     */
+    public static final String BOOK_COUNTS = "bookCounts";
+
+    /**
+     * Total number of users.
+     */
+    public static final String USER_COUNTS = "userCounts";
+
+    /**
+     * Book details by book identifier.
+     */
+    public static final String BOOKS = "books";
+
+    /**
+     * User details by user identifier.
+     */
+    public static final String USERS = "users";
+
+    /**
+     * Book identifiers of a user's collection, by user identifier, used to answer membership checks.
+     */
+    public static final String BOOK_MEMBERSHIP = "bookMembership";
+
+    /**
+     * Decoded tokens whose signature has been verified, by digest of the token.
+     */
+    public static final String VERIFIED_TOKENS = "verifiedTokens";
+
+    /**
+     * Credentials and account flags of a user, by username, used to authenticate without reading the database.
+     */
+    public static final String USER_DETAILS = "userDetails";
+
+    /**
+     * Configures the {@link CacheManager} with the caches used by the application.
+     * Counts are evicted on every write made through the repositories; the time-to-live
+     * only bounds how stale they can get when rows are written by other instances.
+     *
+     * Details are evicted by the service methods that change them. Collections kept for
+     * membership checks are updated in place when a change commits, so their time-to-live
+     * only bounds how long books deleted from the catalog keep being reported as owned.
+     *
+     * Verified tokens have no time-to-live of their own: each one expires at the
+     * {@code exp} claim of its token, so a token is never served after it has expired.
+     *
+     * User details are evicted when the password of the user changes; their time-to-live
+     * bounds how long changes made by other instances or directly in the database go unseen.
+     *
+     * @param countsTtl How long a cached count is served before it is recomputed.
+     * @param countsMaxSize The maximum number of filter combinations whose count is kept.
+     * @param booksTtl How long a cached book is served before it is read again.
+     * @param booksMaxSize The maximum number of books kept in the cache.
+     * @param usersTtl How long a cached user is served before it is read again.
+     * @param usersMaxSize The maximum number of users kept in the cache.
+     * @param membershipTtl How long the collection of a user is kept for membership checks.
+     * @param membershipMaxSize The maximum number of collections kept for membership checks.
+     * @param tokensMaxSize The maximum number of verified tokens kept.
+     * @param userDetailsTtl How long the credentials of a user are served before they are read again.
+     * @param userDetailsMaxSize The maximum number of users whose credentials are kept.
+     * @return The configured {@link CacheManager}, wrapped in a {@link TransactionAwareCacheManagerProxy}.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.counts.ttl:60s}") Duration countsTtl,
+                                     @Value("${cache.counts.max-size:10000}") long countsMaxSize,
+                                     @Value("${cache.books.ttl:10m}") Duration booksTtl,
+                                     @Value("${cache.books.max-size:10000}") long booksMaxSize,
+                                     @Value("${cache.users.ttl:5m}") Duration usersTtl,
+                                     @Value("${cache.users.max-size:10000}") long usersMaxSize,
+                                     @Value("${cache.membership.ttl:30m}") Duration membershipTtl,
+                                     @Value("${cache.membership.max-size:10000}") long membershipMaxSize,
+                                     @Value("${cache.tokens.max-size:10000}") long tokensMaxSize,
+                                     @Value("${cache.user-details.ttl:5m}") Duration userDetailsTtl,
+                                     @Value("${cache.user-details.max-size:10000}") long userDetailsMaxSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(BOOK_COUNTS, Caffeine.newBuilder()
+                .maximumSize(countsMaxSize)
+                .expireAfterWrite(countsTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USER_COUNTS, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(countsTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(BOOKS, Caffeine.newBuilder()
+                .maximumSize(booksMaxSize)
+                .expireAfterWrite(booksTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USERS, Caffeine.newBuilder()
+                .maximumSize(usersMaxSize)
+                .expireAfterWrite(usersTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(BOOK_MEMBERSHIP, Caffeine.newBuilder()
+                .maximumSize(membershipMaxSize)
+                .expireAfterWrite(membershipTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(VERIFIED_TOKENS, Caffeine.newBuilder()
+                .maximumSize(tokensMaxSize)
+                .expireAfter(Expiry.creating((Object digest, Object token) -> untilExpiry((DecodedJWT) token)))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USER_DETAILS, Caffeine.newBuilder()
+                .maximumSize(userDetailsMaxSize)
+                .expireAfterWrite(userDetailsTtl)
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * Returns the Caffeine cache behind a cache of the manager, for components that update entries
+     * in place. Unlike the Spring cache, it is not transaction-aware: every write applies at once.
+     *
+     * @param cacheManager The manager holding the cache.
+     * @param name The name of the cache.
+     * @return The native Caffeine cache.
+     */
+    @SuppressWarnings("unchecked")
+    public static Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+        return (Cache<Object, Object>) cacheManager.getCache(name).getNativeCache();
+    }
+
+    private static Duration untilExpiry(DecodedJWT token) {
+        Instant now = Instant.now();
+        Instant expiresAt = token.getExpiresAtAsInstant();
+        return expiresAt == null || expiresAt.isBefore(now) ? Duration.ZERO : Duration.between(now, expiresAt);
+    }
+}
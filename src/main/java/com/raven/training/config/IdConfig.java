@@ -0,0 +1,39 @@
+package com.raven.training.config;
+
+import com.raven.training.util.id.EntityIds;
+import com.raven.training.util.id.IdGenerator;
+import com.raven.training.util.id.RandomUuidGenerator;
+import com.raven.training.util.id.UuidV7Generator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the generation of primary keys.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Configuration
+public class IdConfig {
+
+    /**
+     * Provides the {@link IdGenerator} selected by the {@code ids.generator} property and
+     * installs it in {@link EntityIds}, where the entities and services take their ids from.
+     * {@code v7} (the default) generates time-ordered UUIDs; {@code v4} generates random ones.
+     *
+     * @param type The generator to use: {@code v7} or {@code v4}.
+     * @return The configured {@link IdGenerator}.
+     */
+    @Bean
+    public IdGenerator idGenerator(@Value("${ids.generator:v7}") String type) {
+        IdGenerator generator = switch (type) {
+            case "v7" -> new UuidV7Generator();
+            case "v4" -> new RandomUuidGenerator();
+            default -> throw new IllegalArgumentException("Unknown id generator '" + type + "', expected v7 or v4");
+        };
+        EntityIds.use(generator);
+        return generator;
+    }
+}
@@ -0,0 +1,54 @@
+package com.raven.training.config.filter;
+
+import com.raven.training.exception.error.PasswordHashingBusyException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * Filter that answers requests whose credentials could not be checked because the password
+ * hashing pool is full, as the controllers do, with 503 (Service Unavailable) and a
+ * {@code Retry-After} header.
+ * <p>
+ * HTTP Basic authentication checks the password inside the security filter chain, before any
+ * controller runs, and a {@link PasswordHashingBusyException} is not an authentication failure,
+ * so it would otherwise escape the chain as a server error. This filter wraps the authentication
+ * filters and hands the exception to the MVC exception resolvers, which reach the
+ * {@code GlobalExceptionHandler}.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@AllArgsConstructor
+public class PasswordHashingBusyFilter extends OncePerRequestFilter {
+
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    /**
+     * Runs the rest of the chain and resolves a {@link PasswordHashingBusyException} thrown by it.
+     *
+     * @param request The servlet request.
+     * @param response The servlet response.
+     * @param filterChain The filter chain.
+     * @throws ServletException If a servlet-related error occurs.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request,
+                                    @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (PasswordHashingBusyException e) {
+            handlerExceptionResolver.resolveException(request, response, null, e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.raven.training.config.security;
+
+import com.raven.training.exception.error.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PasswordEncoder} that runs the hashing of another encoder on a dedicated pool.
+ * <p>
+ * A password hash is designed to be slow, so hashing on the request threads lets a burst of
+ * logins take every CPU and request thread and slow down every other endpoint. Here at most
+ * {@code threads} hashes run at the same time and at most {@code queueSize} more wait for a
+ * thread; any request beyond that is rejected at once with a
+ * {@link PasswordHashingBusyException} instead of waiting, so the rest of the application keeps
+ * its share of the machine while a login storm is answered with 503 (Service Unavailable).
+ * <p>
+ * The time spent waiting for a thread and the time spent hashing are recorded as the
+ * {@code password.hashing.wait} and {@code password.hashing.time} timers, tagged with the
+ * operation, rejections as the {@code password.hashing.rejected} counter, and the pool itself
+ * as the {@code executor.*} metrics named {@code passwordHashing}.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final Timer encodeWait;
+    private final Timer encodeTime;
+    private final Timer matchesWait;
+    private final Timer matchesTime;
+    private final Counter rejected;
+
+    /**
+     * Creates the encoder and starts its pool.
+     *
+     * @param delegate The encoder that does the hashing.
+     * @param threads The number of hashes that may run at the same time.
+     * @param queueSize The number of hashes that may wait for a thread.
+     * @param retryAfter How long a rejected client is told to wait before trying again.
+     * @param registry The registry the metrics are published to.
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueSize,
+                                  Duration retryAfter, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.retryAfter = retryAfter;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "passwordHashing", List.of()).bindTo(registry);
+
+        this.encodeWait = timer("password.hashing.wait", "encode", registry);
+        this.encodeTime = timer("password.hashing.time", "encode", registry);
+        this.matchesWait = timer("password.hashing.wait", "matches", registry);
+        this.matchesTime = timer("password.hashing.time", "matches", registry);
+        this.rejected = registry.counter("password.hashing.rejected");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws PasswordHashingBusyException if every hashing thread is busy and the queue is full.
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword), encodeWait, encodeTime);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws PasswordHashingBusyException if every hashing thread is busy and the queue is full.
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword), matchesWait, matchesTime);
+    }
+
+    /**
+     * {@inheritDoc}
+     * It does not hash, so it runs on the calling thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Stops the hashing threads when the application shuts down.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> hashing, Timer wait, Timer time) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                wait.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return hashing.call();
+                } finally {
+                    time.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException(retryAfter);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer timer(String name, String operation, MeterRegistry registry) {
+        return Timer.builder(name)
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    private static class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.raven.training.config.security;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link BCryptPasswordEncoder} whose cost is chosen by measuring the host, so a password hash
+ * takes about the same time on every node type instead of depending on a fixed cost.
+ * <p>
+ * Each step of BCrypt cost doubles the work, so the time of a few hashes at a cheap cost is
+ * enough to predict the cost closest to the target; that cost is then measured once and moved
+ * one step if it is off by more than a factor of {@code √2}. The result is clamped between a
+ * floor, below which hashes are too cheap to brute-force safely, and a ceiling.
+ * <p>
+ * {@link #upgradeEncoding} reports any hash whose cost differs from the chosen one, cheaper or
+ * more expensive, so stored hashes converge on the cost of the current nodes as users log in.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Slf4j
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[abyx]?\\$(\\d\\d)\\$");
+    private static final int PROBE_COST = 6;
+    private static final int PROBE_HASHES = 5;
+    private static final String PROBE_PASSWORD = "calibration-password";
+
+    /**
+     * The cost of the new hashes, as the base-2 logarithm of the number of rounds.
+     */
+    @Getter
+    private final int strength;
+
+    /**
+     * Creates an encoder with a fixed cost.
+     *
+     * @param strength The cost of the new hashes, between 4 and 31.
+     */
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Measures the host and creates an encoder with the cost whose hash time is closest to the target.
+     *
+     * @param target The time a hash should take.
+     * @param minStrength The lowest cost allowed, whatever the host.
+     * @param maxStrength The highest cost allowed, whatever the host.
+     * @return The calibrated encoder.
+     */
+    public static CalibratedBCryptPasswordEncoder calibrate(Duration target, int minStrength, int maxStrength) {
+        long probe = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_HASHES; i++) {
+            probe = Math.min(probe, timeOf(PROBE_COST));
+        }
+
+        double steps = Math.log((double) target.toNanos() / Math.max(probe, 1)) / Math.log(2);
+        int estimated = clamp((int) Math.round(PROBE_COST + steps), minStrength, maxStrength);
+
+        int strength = estimated;
+        long measured = timeOf(estimated);
+        double ratio = (double) measured / target.toNanos();
+        if (ratio > Math.sqrt(2) && strength > minStrength) {
+            strength--;
+        } else if (ratio < 1 / Math.sqrt(2) && strength < maxStrength) {
+            strength++;
+        }
+
+        log.info("Password hash cost set to {} for a target of {} ms (cost {} took {} ms)",
+                strength, target.toMillis(), estimated, measured / 1_000_000);
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Unlike {@link BCryptPasswordEncoder}, a hash more expensive than the current cost is
+     * also reported, so that nodes slower than the ones that wrote it get back to their target.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private static long timeOf(int strength) {
+        String salt = BCrypt.gensalt(strength);
+        long start = System.nanoTime();
+        BCrypt.hashpw(PROBE_PASSWORD, salt);
+        return System.nanoTime() - start;
+    }
+
+    private static int clamp(int strength, int minStrength, int maxStrength) {
+        return Math.max(minStrength, Math.min(maxStrength, strength));
+    }
+}
@@ -0,0 +1,70 @@
+package com.raven.training.config.security;
+
+import com.raven.training.exception.error.PasswordHashingBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.core.authority.mapping.NullAuthoritiesMapper;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * {@link DaoAuthenticationProvider} that leaves an outdated password hash for a later
+ * authentication when the password hashing pool is full, instead of failing a request whose
+ * password has already been verified.
+ * <p>
+ * On success, {@link DaoAuthenticationProvider} hashes the password again if its stored hash is
+ * outdated. With a {@link BoundedPasswordEncoder} that hash may be rejected with a
+ * {@link PasswordHashingBusyException}; the authentication then succeeds without it, as logins
+ * through {@code UserDetailServiceImpl} do.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Slf4j
+public class DeferredRehashAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private GrantedAuthoritiesMapper authoritiesMapper = new NullAuthoritiesMapper();
+
+    /**
+     * Creates a provider that reads users through a {@link UserDetailsService}.
+     *
+     * @param userDetailsService The service loading the users.
+     */
+    public DeferredRehashAuthenticationProvider(UserDetailsService userDetailsService) {
+        super(userDetailsService);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The mapper is also applied when the authentication is created without a new hash.
+     */
+    @Override
+    public void setAuthoritiesMapper(GrantedAuthoritiesMapper authoritiesMapper) {
+        super.setAuthoritiesMapper(authoritiesMapper);
+        this.authoritiesMapper = authoritiesMapper;
+    }
+
+    /**
+     * {@inheritDoc}
+     * If the password cannot be hashed again because the hashing pool is full, the
+     * authentication is created without replacing the stored hash, with the same
+     * mapped authorities.
+     */
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        try {
+            return super.createSuccessAuthentication(principal, authentication, user);
+        } catch (PasswordHashingBusyException e) {
+            log.debug("Password hash of {} left outdated, the hashing pool is full", user.getUsername());
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    principal, authentication.getCredentials(), authoritiesMapper.mapAuthorities(user.getAuthorities()));
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.raven.training.config.security;
 
+import com.raven.training.config.CacheConfig;
 import com.raven.training.config.filter.JwtTokenValidator;
+import com.raven.training.config.filter.PasswordHashingBusyFilter;
 import com.raven.training.service.implementation.UserDetailServiceImpl;
 import com.raven.training.util.JwtUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,10 +21,16 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.cache.SpringCacheBasedUserCache;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+import java.util.Map;
 
 /**
  * Spring Security configuration class for the application.
@@ -36,6 +48,8 @@ import org.springframework.security.web.authentication.www.BasicAuthenticationFi
 @EnableWebSecurity
 @AllArgsConstructor
 public class SecurityConfig {
+    private static final String BCRYPT = "bcrypt";
+
     private JwtUtils jwtUtils;
 
     /**
@@ -49,14 +63,18 @@ public class SecurityConfig {
      * <li>Requires authentication for all other requests.</li>
      * <li>Adds a custom {@link JwtTokenValidator} filter before the
      * {@link BasicAuthenticationFilter} to validate JWT tokens.</li>
+     * <li>Adds a {@link PasswordHashingBusyFilter} around them, so HTTP Basic requests
+     * rejected by a full password hashing pool get the same 503 as logins.</li>
      * </ul>
      *
      * @param httpSecurity The {@link HttpSecurity} object to configure.
+     * @param handlerExceptionResolver The resolver that reaches the global exception handler.
      * @return The configured {@link SecurityFilterChain}.
      * @throws Exception if an error occurs during configuration.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception{
+    public SecurityFilterChain filterChain(HttpSecurity httpSecurity,
+                                           @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) throws Exception{
         httpSecurity
                 .csrf(csrf -> csrf.disable())
                 .httpBasic(Customizer.withDefaults())
@@ -71,9 +89,11 @@ public class SecurityConfig {
 
                     //request public loggin
                     http.requestMatchers(HttpMethod.POST, "/api/v1/auth/**").permitAll();
+                    http.requestMatchers(HttpMethod.GET, "/api/v1/auth/availability").permitAll();
 
                     http.anyRequest().authenticated();
                 })
+                .addFilterBefore(new PasswordHashingBusyFilter(handlerExceptionResolver), BasicAuthenticationFilter.class)
                 .addFilterBefore(new JwtTokenValidator(jwtUtils), BasicAuthenticationFilter.class)
                 .exceptionHandling(Customizer.withDefaults());
         return httpSecurity.build();
@@ -96,26 +116,79 @@ public class SecurityConfig {
      * Provides the {@link AuthenticationProvider} bean, which uses a custom
      * {@link UserDetailServiceImpl} to retrieve user details and a
      * {@link PasswordEncoder} for password validation.
+     * <p>
+     * Users are read through the {@link UserCache}, so repeated authentications of the same
+     * user do not read the database. The principal of the authentication is the username
+     * rather than the cached {@link org.springframework.security.core.userdetails.UserDetails},
+     * so erasing the credentials after authentication does not erase the cached password.
+     * An outdated hash that cannot be replaced because the hashing pool is full is left for a
+     * later authentication, see {@link DeferredRehashAuthenticationProvider}.
      *
      * @param userDetailService The custom user details service.
-     * @return The configured {@link DaoAuthenticationProvider}.
+     * @param passwordEncoder The encoder used to check passwords.
+     * @param userCache The cache of user details.
+     * @return The configured {@link DeferredRehashAuthenticationProvider}.
      */
     @Bean
-    public AuthenticationProvider authenticationProvider(UserDetailServiceImpl userDetailService){
-        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setUserDetailsService(userDetailService);
-        provider.setPasswordEncoder(passwordEncoder());
+    public AuthenticationProvider authenticationProvider(UserDetailServiceImpl userDetailService,
+                                                         PasswordEncoder passwordEncoder,
+                                                         UserCache userCache){
+        DaoAuthenticationProvider provider = new DeferredRehashAuthenticationProvider(userDetailService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userDetailService);
+        provider.setUserCache(userCache);
+        provider.setForcePrincipalAsString(true);
         return provider;
     }
 
+    /**
+     * Provides the {@link UserCache} shared by the {@link DaoAuthenticationProvider} and
+     * {@link UserDetailServiceImpl}, backed by the {@value CacheConfig#USER_DETAILS} cache.
+     *
+     * @param cacheManager The manager holding the cache.
+     * @return A {@link SpringCacheBasedUserCache}.
+     */
+    @Bean
+    public UserCache userCache(CacheManager cacheManager) {
+        return new SpringCacheBasedUserCache(cacheManager.getCache(CacheConfig.USER_DETAILS));
+    }
+
     /**
      * Provides a {@link PasswordEncoder} bean for encoding and verifying passwords.
-     * It uses the BCrypt algorithm.
+     * It uses the BCrypt algorithm on a dedicated, bounded pool, so that a burst of
+     * logins cannot take the request threads and CPUs used by the rest of the API.
+     * <p>
+     * Hashes are stored with their algorithm, as in {@code {bcrypt}$2a$12$...}, so the
+     * algorithm or cost can change without invalidating them; hashes stored without it are
+     * read as BCrypt. Unless a cost is configured, it is calibrated on the host at startup
+     * to take about the target hash time.
      *
-     * @return A {@link BCryptPasswordEncoder} instance.
+     * @param strength The BCrypt cost; 0 calibrates it.
+     * @param targetHashTime The time a hash should take when the cost is calibrated.
+     * @param minStrength The lowest cost calibration may choose.
+     * @param maxStrength The highest cost calibration may choose.
+     * @param threads The number of passwords hashed at the same time; 0 uses half of the processors.
+     * @param queueSize The number of passwords that may wait for a hashing thread before requests are rejected.
+     * @param retryAfter How long a rejected client is told to wait before trying again.
+     * @param meterRegistry The registry the hashing metrics are published to.
+     * @return A {@link BoundedPasswordEncoder} around a {@link DelegatingPasswordEncoder}.
      */
     @Bean
-    public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.strength:0}") int strength,
+                                           @Value("${security.password.target-hash-time:250ms}") Duration targetHashTime,
+                                           @Value("${security.password.min-strength:10}") int minStrength,
+                                           @Value("${security.password.max-strength:14}") int maxStrength,
+                                           @Value("${security.password.threads:0}") int threads,
+                                           @Value("${security.password.queue-size:32}") int queueSize,
+                                           @Value("${security.password.retry-after:1s}") Duration retryAfter,
+                                           MeterRegistry meterRegistry){
+        CalibratedBCryptPasswordEncoder bcrypt = strength > 0
+                ? new CalibratedBCryptPasswordEncoder(strength)
+                : CalibratedBCryptPasswordEncoder.calibrate(targetHashTime, minStrength, maxStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(encoder, poolSize, queueSize, retryAfter, meterRegistry);
     }
 }
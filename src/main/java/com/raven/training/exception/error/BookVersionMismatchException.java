@@ -0,0 +1,20 @@
+package com.raven.training.exception.error;
+
+/**
+ * Exception thrown when a conditional write carries an {@code If-Match} tag that
+ * no longer matches the stored version of the book, meaning someone else changed
+ * it since the client last read it.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public class BookVersionMismatchException extends RuntimeException {
+
+    /**
+     * Constructs a new BookVersionMismatchException with a default message.
+     */
+    public BookVersionMismatchException() {
+        super("The book has been modified since it was last read");
+    }
+}
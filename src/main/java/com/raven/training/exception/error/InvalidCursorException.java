@@ -0,0 +1,22 @@
+package com.raven.training.exception.error;
+
+/**
+ * Exception thrown when a pagination cursor sent by the client cannot be decoded.
+ * Cursors are opaque tokens produced by the API itself, so this usually means the
+ * token was truncated, tampered with, or taken from a different endpoint.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidCursorException with the specified detail message.
+     *
+     * @param message The detail message.
+     */
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.raven.training.exception.error;
+
+/**
+ * Exception thrown when a client asks for a page size outside the bounds an endpoint allows.
+ * Pages are bounded so that every response has a predictable size, however large the
+ * underlying collection is.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public class InvalidPageSizeException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidPageSizeException with the specified detail message.
+     *
+     * @param message The detail message.
+     */
+    public InvalidPageSizeException(String message) {
+        super(message);
+    }
+}
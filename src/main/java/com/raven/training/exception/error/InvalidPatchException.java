@@ -0,0 +1,22 @@
+package com.raven.training.exception.error;
+
+/**
+ * Exception thrown when a JSON merge patch cannot be applied to a book, either
+ * because it names a field that is not patchable or because a value has the
+ * wrong type or length.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public class InvalidPatchException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidPatchException with the specified detail message.
+     *
+     * @param message The detail message.
+     */
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.raven.training.exception.error;
+
+/**
+ * Exception thrown when a client combines request parameters that an endpoint cannot
+ * honour together, such as a full-text query with a pagination cursor. Rejecting the
+ * request keeps a parameter from being silently ignored.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public class InvalidQueryException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidQueryException with the specified detail message.
+     *
+     * @param message The detail message.
+     */
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,30 @@
+package com.raven.training.exception.error;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a password cannot be hashed or checked because every
+ * hashing thread is busy and the queue in front of them is full. The client is
+ * expected to try again after {@link #getRetryAfter()}.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Getter
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a new PasswordHashingBusyException with a default message.
+     *
+     * @param retryAfter How long the client should wait before trying again.
+     */
+    public PasswordHashingBusyException(Duration retryAfter) {
+        super("Too many login and registration requests, try again later");
+        this.retryAfter = retryAfter;
+    }
+}
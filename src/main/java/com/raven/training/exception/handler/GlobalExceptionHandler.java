@@ -1,16 +1,24 @@
 package com.raven.training.exception.handler;
 
 import com.raven.training.exception.error.BookNotFoundException;
+import com.raven.training.exception.error.BookVersionMismatchException;
+import com.raven.training.exception.error.InvalidCursorException;
+import com.raven.training.exception.error.InvalidPageSizeException;
+import com.raven.training.exception.error.InvalidQueryException;
+import com.raven.training.exception.error.InvalidPatchException;
+import com.raven.training.exception.error.PasswordHashingBusyException;
 import com.raven.training.exception.error.UserNotFoundException;
 import com.raven.training.persistence.model.ApiError;
 import com.raven.training.persistence.model.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -53,6 +61,48 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles client input that is well formed JSON but cannot be used, such as a
+     * pagination cursor that cannot be decoded, a page size out of bounds, a search combined
+     * with parameters it does not support or a merge patch with unknown fields.
+     *
+     * @param exception The {@link InvalidCursorException}, {@link InvalidPageSizeException},
+     * {@link InvalidQueryException} or {@link InvalidPatchException} that occurred.
+     * @return A {@link ResponseEntity} with a {@link ErrorResponse} containing
+     * a single error and an HTTP status of 400 (Bad Request).
+     */
+    @ExceptionHandler({InvalidCursorException.class, InvalidPageSizeException.class, InvalidQueryException.class,
+            InvalidPatchException.class})
+    public ResponseEntity<ErrorResponse> invalidInputException(RuntimeException exception){
+        ApiError error = new ApiError("0100", exception.getMessage());
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .errors(Collections.singletonList(error))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles request parameters that cannot be converted to the expected type,
+     * such as an unknown count mode or a malformed identifier.
+     *
+     * @param exception The {@link MethodArgumentTypeMismatchException} that occurred.
+     * @return A {@link ResponseEntity} with a {@link ErrorResponse} containing
+     * a single error and an HTTP status of 400 (Bad Request).
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> methodArgumentTypeMismatchException(MethodArgumentTypeMismatchException exception){
+        ApiError error = new ApiError("0100",
+                String.format("Invalid value '%s' for parameter '%s'", exception.getValue(), exception.getName()));
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .errors(Collections.singletonList(error))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles exceptions for resources that are not found.
      * This method catches {@link BookNotFoundException} and {@link UserNotFoundException},
@@ -75,6 +125,48 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles conditional writes whose {@code If-Match} tag no longer matches the
+     * stored version of the resource.
+     *
+     * @param exception The {@link BookVersionMismatchException} that occurred.
+     * @return A {@link ResponseEntity} with a {@link ErrorResponse} containing
+     * a single error and an HTTP status of 412 (Precondition Failed).
+     */
+    @ExceptionHandler(BookVersionMismatchException.class)
+    public ResponseEntity<ErrorResponse> versionMismatchException(BookVersionMismatchException exception){
+        ApiError error = new ApiError("0300", exception.getMessage());
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .errors(Collections.singletonList(error))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handles logins and registrations rejected because every password hashing
+     * thread is busy and its queue is full. The {@code Retry-After} header tells the
+     * client how many seconds to wait before trying again.
+     *
+     * @param exception The {@link PasswordHashingBusyException} that occurred.
+     * @return A {@link ResponseEntity} with a {@link ErrorResponse} containing
+     * a single error and an HTTP status of 503 (Service Unavailable).
+     */
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorResponse> passwordHashingBusyException(PasswordHashingBusyException exception){
+        ApiError error = new ApiError("0400", exception.getMessage());
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .errors(Collections.singletonList(error))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        long seconds = Math.max(1, (exception.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(errorResponse);
+    }
+
     /**
      * Handles unexpected {@link NullPointerException}s.
      * This is a generic fallback handler for null pointer issues, logging the error
@@ -25,7 +25,7 @@ public interface IBookMapper {
 
     /**
      * Converts a {@link BookRequest} DTO to a {@link Book} entity.
-     * The 'id' and 'users' fields are ignored during this mapping, as they
+     * The 'id', 'users' and 'version' fields are ignored during this mapping, as they
      * are typically managed by the persistence layer.
      *
      * @param bookRequest The DTO containing the book data.
@@ -33,6 +33,7 @@ public interface IBookMapper {
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "users", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Book toEntity(BookRequest bookRequest);
 
     /**
@@ -6,6 +6,7 @@ import com.raven.training.presentation.dto.user.UserRequest;
 import com.raven.training.presentation.dto.user.UserResponse;
 import org.mapstruct.*;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -44,14 +45,42 @@ public interface IUserMapper {
 
     /**
      * Converts a {@link User} entity to a {@link UserResponse} DTO.
-     * The list of {@link Book} entities is converted to a list of book UUIDs.
+     * The set of {@link Book} entities is converted to a list of book UUIDs.
      *
      * @param user The entity to convert.
      * @return A {@link UserResponse} DTO.
      */
     @Mapping(target = "bookIds", expression = "java(mapBooksToBookIds(user.getBooks()))")
+    @Mapping(target = "bookCount", expression = "java(user.getBooks() == null ? 0 : user.getBooks().size())")
+    @Mapping(target = "booksLink", expression = "java(UserResponse.booksLink(user.getId()))")
     UserResponse toResponse(User user);
 
+    /**
+     * Converts a {@link User} entity to a {@link UserResponse} DTO with book
+     * identifiers that were read separately, so the user's books are never touched.
+     *
+     * @param user The entity to convert.
+     * @param bookIds The identifiers of the user's books.
+     * @return A {@link UserResponse} DTO.
+     */
+    @Mapping(target = "bookIds", source = "bookIds")
+    @Mapping(target = "bookCount", expression = "java(bookIds == null ? 0 : bookIds.size())")
+    @Mapping(target = "booksLink", expression = "java(UserResponse.booksLink(user.getId()))")
+    UserResponse toResponse(User user, List<UUID> bookIds);
+
+    /**
+     * Converts a {@link User} entity to a {@link UserResponse} DTO that only carries the
+     * number of the user's books, so its size does not depend on the collection.
+     *
+     * @param user The entity to convert.
+     * @param bookCount The number of books in the user's collection.
+     * @return A {@link UserResponse} DTO without book identifiers.
+     */
+    @Mapping(target = "bookIds", ignore = true)
+    @Mapping(target = "bookCount", source = "bookCount")
+    @Mapping(target = "booksLink", expression = "java(UserResponse.booksLink(user.getId()))")
+    UserResponse toResponse(User user, long bookCount);
+
     /**
      * Converts a list of {@link User} entities to a list of {@link UserResponse} DTOs.
      *
@@ -66,7 +95,7 @@ public interface IUserMapper {
      * @param books The list of book entities.
      * @return A list of book UUIDs.
      */
-    default List<UUID> mapBooksToBookIds(List<Book> books) {
+    default List<UUID> mapBooksToBookIds(Collection<Book> books) {
         if (books == null) {
             return null;
         }
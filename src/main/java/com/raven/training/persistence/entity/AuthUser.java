@@ -1,5 +1,6 @@
 package com.raven.training.persistence.entity;
 
+import com.raven.training.util.id.EntityIds;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -24,9 +25,22 @@ import java.util.UUID;
 @AllArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString
-@Table(name = "auth_user")
+@Table(name = "auth_user", uniqueConstraints = {
+        @UniqueConstraint(name = AuthUser.USERNAME_CONSTRAINT, columnNames = "username"),
+        @UniqueConstraint(name = AuthUser.EMAIL_CONSTRAINT, columnNames = "email")
+})
 public class AuthUser {
 
+    /**
+     * Name of the unique constraint on the username, reported when a username is already in use.
+     */
+    public static final String USERNAME_CONSTRAINT = "uk_auth_user_username";
+
+    /**
+     * Name of the unique constraint on the email, reported when an email is already in use.
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_auth_user_email";
+
     @Id
     @EqualsAndHashCode.Include
     private UUID id;
@@ -35,12 +49,11 @@ public class AuthUser {
 
     private LocalDate birthDate;
 
-    @Column(unique = true)
     private String username;
 
     private String password;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(name = "create_at", updatable = false)
@@ -60,13 +73,13 @@ public class AuthUser {
 
     /**
      * Callback method executed before the entity is persisted.
-     * It ensures a UUID is generated if one is not already set and
+     * It ensures a time-ordered UUID is generated through {@link EntityIds} if one is not already set and
      * sets the creation timestamp.
      */
     @PrePersist
     public void prePersist(){
         if (id == null){
-            this.id = UUID.randomUUID();
+            this.id = EntityIds.next();
         }
         this.createdAt = LocalDateTime.now();
     }
@@ -1,7 +1,9 @@
 package com.raven.training.persistence.entity;
 
+import com.raven.training.util.id.EntityIds;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.*;
 
@@ -23,6 +25,7 @@ import java.util.*;
 @AllArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString
+@DynamicUpdate
 @Table(name = "book")
 public class Book {
 
@@ -40,6 +43,13 @@ public class Book {
     private Integer pages;
     private String isbn;
 
+    /**
+     * Optimistic locking version, increased on every update.
+     * Clients send it back in {@code If-Match} to make sure they change the book they read.
+     */
+    @Version
+    private Long version;
+
     /**
      * A list of users who have this book in their collection.
      * This is a many-to-many relationship mapped by the "books" field in the User entity.
@@ -50,12 +60,12 @@ public class Book {
 
     /**
      * Callback method executed before the entity is persisted.
-     * It ensures a UUID is generated if one is not already set.
+     * It ensures a time-ordered UUID is generated through {@link EntityIds} if one is not already set.
      */
     @PrePersist
     public void prePersist() {
         if (id == null) {
-            id = UUID.randomUUID();
+            id = EntityIds.next();
         }
     }
 }
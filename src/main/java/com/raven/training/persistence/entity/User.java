@@ -1,5 +1,6 @@
 package com.raven.training.persistence.entity;
 
+import com.raven.training.util.id.EntityIds;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -37,27 +38,29 @@ public class User {
     private LocalDate birthDate;
 
     /**
-     * A list of books associated with the user.
+     * The set of books associated with the user.
      * This is a many-to-many relationship, and the relationship is managed
-     * by the join table "user_books".
+     * by the join table "user_books". Being a set, the join table has a primary
+     * key on both columns, so a book can only be in a collection once.
+     * It is loaded lazily; each use case picks its own fetch plan in {@code IUserRepository}.
      */
-    @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
             name = "user_books",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "book_id")
     )
     @Builder.Default
-    private List<Book> books = new ArrayList<>();
+    private Set<Book> books = new HashSet<>();
 
     /**
      * Callback method executed before the entity is persisted.
-     * It ensures a UUID is generated for the user if one is not already set.
+     * It ensures a time-ordered UUID is generated for the user through {@link EntityIds} if one is not already set.
      */
     @PrePersist
     public void prePersist() {
         if (id == null) {
-            id = UUID.randomUUID();
+            id = EntityIds.next();
         }
     }
 }
\ No newline at end of file
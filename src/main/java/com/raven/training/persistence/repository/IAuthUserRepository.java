@@ -2,7 +2,10 @@ package com.raven.training.persistence.repository;
 
 import com.raven.training.persistence.entity.AuthUser;
 import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -11,13 +14,14 @@ import java.util.UUID;
  * Repository interface for managing persistence operations for the {@link AuthUser} entity.
  * This interface extends {@link ListCrudRepository}, providing standard CRUD functionality
  * and additional custom query methods for authentication-related data.
+ * Registration is implemented with JDBC in {@link IAuthUserRepositoryCustomImpl}.
  *
  * @author Juan Esteban Camacho Barrera
  * @version 1.0
  * @since 2025-08-05
  */
 @Repository
-public interface IAuthUserRepository extends ListCrudRepository<AuthUser, UUID> {
+public interface IAuthUserRepository extends ListCrudRepository<AuthUser, UUID>, IAuthUserRepositoryCustom {
 
     /**
      * Finds an authentication user by their username.
@@ -43,4 +47,18 @@ public interface IAuthUserRepository extends ListCrudRepository<AuthUser, UUID>
      * @return {@code true} if a user with the email exists, {@code false} otherwise.
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Replaces the password hash of a user, only if it is still the one that was read,
+     * so a password changed in the meantime is never overwritten.
+     *
+     * @param username The username of the user.
+     * @param previous The password hash that was read.
+     * @param password The new password hash.
+     * @return The number of users updated: 1 if the hash was replaced, 0 otherwise.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AuthUser a SET a.password = :password WHERE a.username = :username AND a.password = :previous")
+    int updatePassword(String username, String previous, String password);
 }
@@ -0,0 +1,43 @@
+package com.raven.training.persistence.repository;
+
+import com.raven.training.config.CacheConfig;
+import com.raven.training.persistence.entity.AuthUser;
+import com.raven.training.persistence.entity.User;
+import org.springframework.cache.annotation.CacheEvict;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Custom persistence operations for the {@link AuthUser} entity that are written
+ * directly against JDBC instead of going through the persistence context.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public interface IAuthUserRepositoryCustom {
+
+    /**
+     * Inserts the credentials and the profile of a new user with a single statement, in one
+     * round trip to the database. Nothing is checked beforehand: a username or an email already
+     * in use is reported by the unique constraints of {@code auth_user}, so concurrent
+     * registrations of the same username or email resolve in the database and only one of them
+     * succeeds. The cached total of users is evicted, as by {@link IUserRepository#save}.
+     *
+     * @param authUser The credentials of the user, with its identifier already assigned.
+     * @param user The profile of the user, with the same identifier.
+     * @throws org.springframework.dao.DataIntegrityViolationException if a unique constraint is
+     * violated; its message names the constraint, such as {@link AuthUser#USERNAME_CONSTRAINT}.
+     */
+    @CacheEvict(cacheNames = CacheConfig.USER_COUNTS, allEntries = true)
+    void register(AuthUser authUser, User user);
+
+    /**
+     * Reads the username and email of every user through a database cursor, in no particular
+     * order, so the memory needed does not depend on the number of users.
+     * It must run inside a transaction for the rows to be fetched in batches.
+     *
+     * @param action The action called with the username and the email of each user.
+     */
+    void scanIdentities(BiConsumer<String, String> action);
+}
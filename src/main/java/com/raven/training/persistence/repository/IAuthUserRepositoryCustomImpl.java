@@ -0,0 +1,81 @@
+package com.raven.training.persistence.repository;
+
+import com.raven.training.persistence.entity.AuthUser;
+import com.raven.training.persistence.entity.User;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.BiConsumer;
+
+/**
+ * JDBC implementation of {@link IAuthUserRepositoryCustom}.
+ * Spring Data picks it up as a fragment of {@link IAuthUserRepository}, so it runs in
+ * the same transaction as the rest of the repository methods.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@AllArgsConstructor
+public class IAuthUserRepositoryCustomImpl implements IAuthUserRepositoryCustom {
+
+    private static final int SCAN_FETCH_SIZE = 10_000;
+
+    private static final String INSERT_USER = """
+        WITH auth AS (
+            INSERT INTO auth_user (id, name, birth_date, username, password, email, create_at,
+                                   is_enable, account_no_expired, account_no_locked, credential_no_expired)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            RETURNING id
+        )
+        INSERT INTO users (id, user_name, name, birth_date) SELECT id, ?, ?, ? FROM auth
+    """;
+
+    private static final String SCAN_IDENTITIES = "SELECT username, email FROM auth_user";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * {@inheritDoc}
+     * The profile is inserted from the row returned by the first insert, so both rows are
+     * written by one statement, and the profile is not written if the credentials are not.
+     */
+    @Override
+    public void register(AuthUser authUser, User user) {
+        LocalDateTime createdAt = authUser.getCreatedAt() != null ? authUser.getCreatedAt() : LocalDateTime.now();
+        jdbcTemplate.update(INSERT_USER,
+                authUser.getId(),
+                authUser.getName(),
+                authUser.getBirthDate(),
+                authUser.getUsername(),
+                authUser.getPassword(),
+                authUser.getEmail(),
+                Timestamp.valueOf(createdAt),
+                authUser.isEnabled(),
+                authUser.isAccountNoExpired(),
+                authUser.isAccountNoLocked(),
+                authUser.isCredentialNoExpired(),
+                user.getUserName(),
+                user.getName(),
+                user.getBirthDate());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Rows are fetched {@value #SCAN_FETCH_SIZE} at a time and no sort is requested, so
+     * the table is read with a sequential scan.
+     */
+    @Override
+    public void scanIdentities(BiConsumer<String, String> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SCAN_IDENTITIES);
+            ps.setFetchSize(SCAN_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            action.accept(rs.getString(1), rs.getString(2));
+        });
+    }
+}
@@ -1,15 +1,27 @@
 package com.raven.training.persistence.repository;
 
+import com.raven.training.config.CacheConfig;
 import com.raven.training.persistence.entity.Book;
+import com.raven.training.presentation.dto.book.BookResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing persistence operations for the {@link Book} entity.
@@ -21,27 +33,246 @@ import java.util.UUID;
  * @since 2025-08-05
  */
 @Repository
-public interface IBookRepository extends JpaRepository<Book, UUID> {
+public interface IBookRepository extends JpaRepository<Book, UUID>, IBookRepositoryCustom {
+
+    /**
+     * The number of rows fetched per round trip when streaming the catalog.
+     */
+    int EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * Finds a paginated list of all books, projected straight into {@link BookResponse} records.
+     * No entity is hydrated, so the persistence context holds no snapshots for dirty checking.
+     *
+     * @param pageable Pagination and sorting information.
+     * @return A {@link Page} of {@link BookResponse} objects.
+     */
+    @Query(value = """
+        SELECT new com.raven.training.presentation.dto.book.BookResponse(
+            b.id, b.gender, b.author, b.image, b.title, b.subtitle, b.publisher, b.year, b.pages, b.isbn, b.version)
+        FROM Book b
+    """,
+            countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<BookResponse> findAllResponses(Pageable pageable);
 
     /**
      * Finds a paginated list of books with optional filters.
-     * The search is case-insensitive for all fields.
+     * The search is case-insensitive for all fields. Rows are projected straight
+     * into {@link BookResponse} records instead of managed entities.
      *
      * @param title An optional title to filter books by (partial match).
      * @param author An optional author's name to filter books by (partial match).
      * @param gender An optional genre to filter books by (exact match).
      * @param pageable Pagination and sorting information.
-     * @return A {@link Page} of {@link Book} objects that match the criteria.
+     * @return A {@link Page} of {@link BookResponse} objects that match the criteria.
+     */
+    @Query(value = """
+        SELECT new com.raven.training.presentation.dto.book.BookResponse(
+            b.id, b.gender, b.author, b.image, b.title, b.subtitle, b.publisher, b.year, b.pages, b.isbn, b.version)
+        FROM Book b
+        WHERE (COALESCE(:title, '') = '' OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%')))
+        AND (COALESCE(:author, '') = '' OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')))
+        AND (COALESCE(:gender, '') = '' OR LOWER(b.gender) = LOWER(:gender))
+    """,
+            countQuery = """
+        SELECT COUNT(b) FROM Book b
+        WHERE (COALESCE(:title, '') = '' OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%')))
+        AND (COALESCE(:author, '') = '' OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')))
+        AND (COALESCE(:gender, '') = '' OR LOWER(b.gender) = LOWER(:gender))
+    """)
+    Page<BookResponse> findAllWithFilters(
+            @Param("title") String title,
+            @Param("author") String author,
+            @Param("gender") String gender,
+            Pageable pageable
+    );
+
+    /**
+     * Finds a page of books with optional filters without counting the total.
+     * Spring Data fetches one extra row to tell whether a next page exists.
+     *
+     * @param title An optional title to filter books by (partial match).
+     * @param author An optional author's name to filter books by (partial match).
+     * @param gender An optional genre to filter books by (exact match).
+     * @param pageable Pagination and sorting information.
+     * @return A {@link Slice} of {@link BookResponse} objects that match the criteria.
+     */
+    @Query("""
+        SELECT new com.raven.training.presentation.dto.book.BookResponse(
+            b.id, b.gender, b.author, b.image, b.title, b.subtitle, b.publisher, b.year, b.pages, b.isbn, b.version)
+        FROM Book b
+        WHERE (COALESCE(:title, '') = '' OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%')))
+        AND (COALESCE(:author, '') = '' OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')))
+        AND (COALESCE(:gender, '') = '' OR LOWER(b.gender) = LOWER(:gender))
+    """)
+    Slice<BookResponse> findSliceWithFilters(
+            @Param("title") String title,
+            @Param("author") String author,
+            @Param("gender") String gender,
+            Pageable pageable
+    );
+
+    /**
+     * Streams every book in identifier order, projected straight into {@link BookResponse} records.
+     * Rows are fetched from a database cursor in batches of {@value #EXPORT_FETCH_SIZE}, so the
+     * memory needed does not depend on the size of the catalog. The stream must be consumed and
+     * closed inside a transaction.
+     *
+     * @return A {@link Stream} of {@link BookResponse} objects.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("""
+        SELECT new com.raven.training.presentation.dto.book.BookResponse(
+            b.id, b.gender, b.author, b.image, b.title, b.subtitle, b.publisher, b.year, b.pages, b.isbn, b.version)
+        FROM Book b
+        ORDER BY b.id
+    """)
+    Stream<BookResponse> streamAllResponses();
+
+    /**
+     * Finds the books with the given identifiers, projected straight into {@link BookResponse} records.
+     * The rows come back in no particular order.
+     *
+     * @param ids The identifiers of the books.
+     * @return The {@link BookResponse} objects of the books that exist.
+     */
+    @Query("""
+        SELECT new com.raven.training.presentation.dto.book.BookResponse(
+            b.id, b.gender, b.author, b.image, b.title, b.subtitle, b.publisher, b.year, b.pages, b.isbn, b.version)
+        FROM Book b
+        WHERE b.id IN :ids
+    """)
+    List<BookResponse> findResponsesByIdIn(Collection<UUID> ids);
+
+    /**
+     * Counts the books that match the optional filters.
+     * The result is cached per combination of filters and evicted on every write.
+     *
+     * @param title An optional title to filter books by (partial match).
+     * @param author An optional author's name to filter books by (partial match).
+     * @param gender An optional genre to filter books by (exact match).
+     * @return The number of books that match the criteria.
      */
+    @Cacheable(cacheNames = CacheConfig.BOOK_COUNTS)
     @Query("""
-        SELECT b FROM Book b 
-        WHERE (COALESCE(:title, '') = '' OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) 
-        AND (COALESCE(:author, '') = '' OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%'))) 
+        SELECT COUNT(b) FROM Book b
+        WHERE (COALESCE(:title, '') = '' OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%')))
+        AND (COALESCE(:author, '') = '' OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')))
         AND (COALESCE(:gender, '') = '' OR LOWER(b.gender) = LOWER(:gender))
     """)
-    Page<Book> findAllWithFilters(
+    long countWithFilters(
             @Param("title") String title,
             @Param("author") String author,
+            @Param("gender") String gender
+    );
+
+    /**
+     * Estimates the number of books from the planner statistics, without scanning the table.
+     *
+     * @return The estimated number of rows, or a negative value if the table was never analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('book' AS regclass)",
+            nativeQuery = true)
+    long estimateCount();
+
+    /**
+     * Saves a book, evicting the cached counts.
+     *
+     * @param book The book to save.
+     * @return The saved book.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOK_COUNTS, allEntries = true)
+    <S extends Book> S save(S book);
+
+    /**
+     * Saves several books, evicting the cached counts.
+     *
+     * @param books The books to save.
+     * @return The saved books.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOK_COUNTS, allEntries = true)
+    <S extends Book> List<S> saveAll(Iterable<S> books);
+
+    /**
+     * Deletes a book, evicting the cached counts.
+     *
+     * @param book The book to delete.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOK_COUNTS, allEntries = true)
+    void delete(Book book);
+
+    /**
+     * Patches a book, evicting the cached counts since the filtered columns may change.
+     *
+     * @param id The identifier of the book to update.
+     * @param columns The new column values.
+     * @param expectedVersion The version the book must still have, or {@code null}.
+     * @return The book as stored after the update, or empty if no row matched.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOK_COUNTS, allEntries = true)
+    Optional<BookResponse> patch(UUID id, Map<String, Object> columns, Long expectedVersion);
+
+    /**
+     * Finds the books that come after a given identifier, in identifier order, with optional filters.
+     * This is the keyset (cursor) counterpart of {@link #findAllWithFilters}: the database seeks
+     * straight to {@code after} through the primary key index, so deep pages cost the same as the
+     * first one and rows inserted concurrently do not shift the pages that follow.
+     *
+     * @param title An optional title to filter books by (partial match).
+     * @param author An optional author's name to filter books by (partial match).
+     * @param gender An optional genre to filter books by (exact match).
+     * @param after The identifier of the last book already seen.
+     * @param pageable The page size; the page number must be 0.
+     * @return A {@link Slice} of {@link BookResponse} objects that match the criteria.
+     */
+    @Query("""
+        SELECT new com.raven.training.presentation.dto.book.BookResponse(
+            b.id, b.gender, b.author, b.image, b.title, b.subtitle, b.publisher, b.year, b.pages, b.isbn, b.version)
+        FROM Book b
+        WHERE b.id > :after
+        AND (COALESCE(:title, '') = '' OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%')))
+        AND (COALESCE(:author, '') = '' OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')))
+        AND (COALESCE(:gender, '') = '' OR LOWER(b.gender) = LOWER(:gender))
+        ORDER BY b.id
+    """)
+    Slice<BookResponse> findAllWithFiltersAfter(
+            @Param("title") String title,
+            @Param("author") String author,
+            @Param("gender") String gender,
+            @Param("after") UUID after,
+            Pageable pageable
+    );
+
+    /**
+     * Runs a relevance-ranked full-text search over title, subtitle, author and publisher.
+     * The query is matched against the {@code search_vector} column, which Postgres keeps
+     * up to date on every insert and update and which is backed by a GIN index
+     * (see {@code import.sql}). Results are ordered by rank, title matches weighing most.
+     *
+     * @param query The search terms, in web search syntax (quoted phrases, {@code or}, {@code -}).
+     * @param gender An optional genre to filter books by (exact match).
+     * @param pageable Pagination information. Any sort it carries is ignored in favor of the rank.
+     * @return A {@link Page} of {@link BookResponse} objects that match the search terms.
+     */
+    @Query(value = """
+        SELECT b.id, b.gender, b.author, b.image, b.title, b.subtitle, b.publisher, b.year, b.pages, b.isbn, b.version
+        FROM book b
+        WHERE b.search_vector @@ websearch_to_tsquery('simple', :query)
+        AND (COALESCE(:gender, '') = '' OR LOWER(b.gender) = LOWER(:gender))
+        ORDER BY ts_rank(b.search_vector, websearch_to_tsquery('simple', :query)) DESC, b.id
+    """,
+            countQuery = """
+        SELECT COUNT(*) FROM book b
+        WHERE b.search_vector @@ websearch_to_tsquery('simple', :query)
+        AND (COALESCE(:gender, '') = '' OR LOWER(b.gender) = LOWER(:gender))
+    """,
+            nativeQuery = true)
+    Page<BookResponse> searchFullText(
+            @Param("query") String query,
             @Param("gender") String gender,
             Pageable pageable
     );
@@ -55,6 +286,14 @@ public interface IBookRepository extends JpaRepository<Book, UUID> {
      */
     Optional<Book> findByIsbn(String isbn);
 
+    /**
+     * Finds the books with any of the given ISBNs in a single query.
+     *
+     * @param isbns The ISBNs to search for.
+     * @return The {@link Book} objects whose ISBN is one of the given ones.
+     */
+    List<Book> findByIsbnIn(Collection<String> isbns);
+
     /**
      * Checks if a book with the specified ISBN exists in the repository.
      *
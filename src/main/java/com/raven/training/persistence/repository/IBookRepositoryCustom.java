@@ -0,0 +1,87 @@
+package com.raven.training.persistence.repository;
+
+import com.raven.training.persistence.entity.Book;
+import com.raven.training.presentation.dto.book.BookResponse;
+import com.raven.training.presentation.dto.book.PopularBookResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Custom persistence operations for the {@link Book} entity that are written
+ * directly against JDBC instead of going through the persistence context.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public interface IBookRepositoryCustom {
+
+    /**
+     * Columns of the {@code book} table that {@link #patch} may write. They match the
+     * field names of {@link Book}, so a merge patch can be applied to them as is.
+     */
+    Set<String> PATCHABLE_COLUMNS = Set.of(
+            "gender", "author", "image", "title", "subtitle", "publisher", "year", "pages", "isbn");
+
+    /**
+     * Inserts the given books with a single JDBC batch.
+     * The books must already carry their identifiers; they are not attached to the
+     * persistence context and no lifecycle callback runs for them.
+     *
+     * @param books The books to insert.
+     * @return The number of rows inserted by each statement of the batch.
+     */
+    int[] insertAll(List<Book> books);
+
+    /**
+     * Updates only the given columns of a book with a single statement, without
+     * reading it first, and bumps its version.
+     *
+     * @param id The identifier of the book to update.
+     * @param columns The new column values, keyed by a name from {@link #PATCHABLE_COLUMNS}; must not be empty.
+     * @param expectedVersion The version the book must still have, or {@code null} to update it unconditionally.
+     * @return The book as stored after the update, or empty if no row matched the id and version.
+     */
+    Optional<BookResponse> patch(UUID id, Map<String, Object> columns, Long expectedVersion);
+
+    /**
+     * Finds which of the given identifiers belong to existing books, in a single query
+     * that reads only the primary key.
+     *
+     * @param ids The identifiers to check.
+     * @return The identifiers that exist.
+     */
+    List<UUID> findExistingIds(Collection<UUID> ids);
+
+    /**
+     * Adds the given changes to the number of owners of each book with a single statement
+     * on the {@code book_popularity} table. Books that no longer exist are skipped.
+     *
+     * @param deltas The change in the number of owners, by book identifier.
+     * @return The number of owners of each changed book after the update.
+     */
+    List<PopularBookResponse> addOwners(Map<UUID, Long> deltas);
+
+    /**
+     * Retrieves the books with the most owners from the {@code book_popularity} table.
+     * Only the first rows of its owners index are read.
+     *
+     * @param limit The maximum number of books to return.
+     * @return The books with at least one owner, most owned first.
+     */
+    List<PopularBookResponse> findMostOwned(int limit);
+
+    /**
+     * Fills the {@code book_popularity} table from the collections when it is empty,
+     * for example the first time the application starts on an existing database.
+     * This is the only statement that aggregates the whole join table.
+     *
+     * @return The number of books whose owners were counted, or 0 if the table was not empty.
+     */
+    int seedOwners();
+}
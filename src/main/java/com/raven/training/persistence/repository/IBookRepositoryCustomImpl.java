@@ -0,0 +1,199 @@
+package com.raven.training.persistence.repository;
+
+import com.raven.training.persistence.entity.Book;
+import com.raven.training.presentation.dto.book.BookResponse;
+import com.raven.training.presentation.dto.book.PopularBookResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link IBookRepositoryCustom}.
+ * Spring Data picks it up as a fragment of {@link IBookRepository}, so it runs in
+ * the same transaction as the rest of the repository methods.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@AllArgsConstructor
+public class IBookRepositoryCustomImpl implements IBookRepositoryCustom {
+
+    private static final String INSERT_BOOK = """
+        INSERT INTO book (id, gender, author, image, title, subtitle, publisher, year, pages, isbn, version)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+    """;
+
+    private static final String PATCH_RETURNING =
+            " RETURNING id, gender, author, image, title, subtitle, publisher, year, pages, isbn, version";
+
+    private static final RowMapper<BookResponse> BOOK_RESPONSE = (rs, rowNum) -> new BookResponse(
+            rs.getObject("id", UUID.class),
+            rs.getString("gender"),
+            rs.getString("author"),
+            rs.getString("image"),
+            rs.getString("title"),
+            rs.getString("subtitle"),
+            rs.getString("publisher"),
+            rs.getString("year"),
+            rs.getObject("pages", Integer.class),
+            rs.getString("isbn"),
+            rs.getLong("version"));
+
+    private static final String SELECT_EXISTING_IDS = "SELECT id FROM book WHERE id = ANY (?)";
+
+    private static final String ADD_OWNERS = """
+        INSERT INTO book_popularity (book_id, owners)
+        SELECT d.book_id, d.delta FROM unnest(?, ?) AS d (book_id, delta) JOIN book b ON b.id = d.book_id
+        ON CONFLICT (book_id) DO UPDATE SET owners = book_popularity.owners + EXCLUDED.owners
+        RETURNING book_id, owners
+    """;
+
+    private static final String SELECT_MOST_OWNED = """
+        SELECT book_id, owners FROM book_popularity WHERE owners > 0
+        ORDER BY owners DESC, book_id LIMIT ?
+    """;
+
+    private static final String SEED_OWNERS = """
+        INSERT INTO book_popularity (book_id, owners)
+        SELECT book_id, COUNT(*) FROM user_books WHERE NOT EXISTS (SELECT 1 FROM book_popularity) GROUP BY book_id
+        ON CONFLICT (book_id) DO NOTHING
+    """;
+
+    private static final RowMapper<PopularBookResponse> POPULAR_BOOK = (rs, rowNum) -> new PopularBookResponse(
+            rs.getObject("book_id", UUID.class),
+            rs.getLong("owners"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] insertAll(List<Book> books) {
+        return jdbcTemplate.batchUpdate(INSERT_BOOK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Book book = books.get(i);
+                ps.setObject(1, book.getId());
+                ps.setString(2, book.getGender());
+                ps.setString(3, book.getAuthor());
+                ps.setString(4, book.getImage());
+                ps.setString(5, book.getTitle());
+                ps.setString(6, book.getSubtitle());
+                ps.setString(7, book.getPublisher());
+                ps.setString(8, book.getYear());
+                ps.setObject(9, book.getPages(), Types.INTEGER);
+                ps.setString(10, book.getIsbn());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return books.size();
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * Column names are checked against {@link #PATCHABLE_COLUMNS} before they are
+     * written into the statement; only the values travel as parameters.
+     */
+    @Override
+    public Optional<BookResponse> patch(UUID id, Map<String, Object> columns, Long expectedVersion) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("At least one column must be updated");
+        }
+
+        StringBuilder sql = new StringBuilder("UPDATE book SET ");
+        List<Object> args = new ArrayList<>(columns.size() + 2);
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            if (!PATCHABLE_COLUMNS.contains(column.getKey())) {
+                throw new IllegalArgumentException("Column '" + column.getKey() + "' cannot be patched");
+            }
+            sql.append(column.getKey()).append(" = ?, ");
+            args.add(column.getValue());
+        }
+        sql.append("version = version + 1 WHERE id = ?");
+        args.add(id);
+        if (expectedVersion != null) {
+            sql.append(" AND version = ?");
+            args.add(expectedVersion);
+        }
+        sql.append(PATCH_RETURNING);
+
+        return jdbcTemplate.query(sql.toString(), BOOK_RESPONSE, args.toArray()).stream().findFirst();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The identifiers are sent as a single array parameter, so the statement is the
+     * same whatever their number.
+     */
+    @Override
+    public List<UUID> findExistingIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_EXISTING_IDS);
+            ps.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The books and their changes are sent as two array parameters, so the statement is
+     * one round trip whatever their number.
+     */
+    @Override
+    public List<PopularBookResponse> addOwners(Map<UUID, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return List.of();
+        }
+
+        UUID[] bookIds = new UUID[deltas.size()];
+        Long[] changes = new Long[deltas.size()];
+        int i = 0;
+        for (Map.Entry<UUID, Long> delta : deltas.entrySet()) {
+            bookIds[i] = delta.getKey();
+            changes[i++] = delta.getValue();
+        }
+
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(ADD_OWNERS);
+            ps.setArray(1, connection.createArrayOf("uuid", bookIds));
+            ps.setArray(2, connection.createArrayOf("bigint", changes));
+            return ps;
+        }, POPULAR_BOOK);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<PopularBookResponse> findMostOwned(int limit) {
+        return jdbcTemplate.query(SELECT_MOST_OWNED, POPULAR_BOOK, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int seedOwners() {
+        return jdbcTemplate.update(SEED_OWNERS);
+    }
+}
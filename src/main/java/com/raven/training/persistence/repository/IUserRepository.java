@@ -1,11 +1,17 @@
 package com.raven.training.persistence.repository;
 
+import com.raven.training.config.CacheConfig;
 import com.raven.training.persistence.entity.User;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,13 +19,20 @@ import java.util.UUID;
  * Repository interface for managing persistence operations for the {@link User} entity.
  * This interface extends {@link JpaRepository}, providing standard CRUD functionality
  * and additional custom query methods for user-related data.
+ * <p>
+ * The books of a user are lazy, so every use case states how it needs them:
+ * detail views only count them with {@link #countBooksByUserId}, pages count them
+ * or read their identifiers for all their users at once with {@link #countBooksByUserIds}
+ * and {@link #findBookIdsByUserIds}, the collection itself is listed page by page with
+ * {@link #findBooksByUserId}, and writes go straight to the join table through the
+ * methods of {@link IUserRepositoryCustom}.
  *
  * @author Juan Esteban Camacho Barrera
  * @version 1.0
  * @since 2025-08-05
  */
 @Repository
-public interface IUserRepository extends JpaRepository<User, UUID> {
+public interface IUserRepository extends JpaRepository<User, UUID>, IUserRepositoryCustom {
 
     /**
      * Retrieves a paginated list of all users.
@@ -29,6 +42,62 @@ public interface IUserRepository extends JpaRepository<User, UUID> {
      */
     Page<User> findAll(Pageable pageable);
 
+    /**
+     * Retrieves a page of users without counting the total.
+     * Spring Data fetches one extra row to tell whether a next page exists.
+     *
+     * @param pageable Pagination and sorting information.
+     * @return A {@link Slice} of {@link User} objects.
+     */
+    Slice<User> findSliceBy(Pageable pageable);
+
+    /**
+     * Counts all users. The result is cached and evicted on every write.
+     *
+     * @return The number of users.
+     */
+    @Cacheable(cacheNames = CacheConfig.USER_COUNTS)
+    @Query("SELECT COUNT(u) FROM User u")
+    long countAllUsers();
+
+    /**
+     * Estimates the number of users from the planner statistics, without scanning the table.
+     *
+     * @return The estimated number of rows, or a negative value if the table was never analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('users' AS regclass)",
+            nativeQuery = true)
+    long estimateCount();
+
+    /**
+     * Saves a user, evicting the cached count.
+     *
+     * @param user The user to save.
+     * @return The saved user.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_COUNTS, allEntries = true)
+    <S extends User> S save(S user);
+
+    /**
+     * Deletes a user, evicting the cached count.
+     *
+     * @param user The user to delete.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_COUNTS, allEntries = true)
+    void delete(User user);
+
+    /**
+     * Retrieves the users that come after a given identifier, in identifier order.
+     * This is the keyset (cursor) counterpart of {@link #findAll(Pageable)}.
+     *
+     * @param after The identifier of the last user already seen.
+     * @param pageable The page size; the page number must be 0.
+     * @return A {@link Slice} of {@link User} objects.
+     */
+    Slice<User> findByIdGreaterThanOrderByIdAsc(UUID after, Pageable pageable);
+
     /**
      * Finds a user by their username.
      *
@@ -37,4 +106,22 @@ public interface IUserRepository extends JpaRepository<User, UUID> {
      * or an empty Optional otherwise.
      */
     Optional<User> findUserByUserName(String username);
+
+    /**
+     * Retrieves the identifiers of the books in a user's collection without loading the books.
+     *
+     * @param userId The identifier of the user.
+     * @return The identifiers of the user's books.
+     */
+    @Query("SELECT b.id FROM User u JOIN u.books b WHERE u.id = :userId")
+    List<UUID> findBookIdsByUserId(UUID userId);
+
+    /**
+     * Counts the books in a user's collection from the join table alone.
+     *
+     * @param userId The identifier of the user.
+     * @return The number of books in the user's collection.
+     */
+    @Query(value = "SELECT COUNT(*) FROM user_books WHERE user_id = :userId", nativeQuery = true)
+    long countBooksByUserId(UUID userId);
 }
@@ -0,0 +1,102 @@
+package com.raven.training.persistence.repository;
+
+import com.raven.training.persistence.entity.User;
+import com.raven.training.presentation.dto.user.UserBookResponse;
+import com.raven.training.util.pagination.CursorCodec;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Custom persistence operations for the {@link User} entity that are written
+ * directly against JDBC instead of going through the persistence context.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public interface IUserRepositoryCustom {
+
+    /**
+     * Retrieves the identifiers of the books of several users with one query on the
+     * {@code user_books} join table; the {@code book} table is not read.
+     *
+     * @param userIds The identifiers of the users.
+     * @return The book identifiers of each user. Users without books are absent from the map.
+     */
+    Map<UUID, List<UUID>> findBookIdsByUserIds(Collection<UUID> userIds);
+
+    /**
+     * Counts the books of several users with one query on the {@code user_books} join table.
+     *
+     * @param userIds The identifiers of the users.
+     * @return The number of books of each user. Users without books are absent from the map.
+     */
+    Map<UUID, Long> countBooksByUserIds(Collection<UUID> userIds);
+
+    /**
+     * Reads every row of the {@code user_books} join table through a database cursor, in no
+     * particular order, so the memory needed does not depend on the size of the table.
+     * It must run inside a transaction for the rows to be fetched in batches.
+     *
+     * @param action The action called with the user and the book identifiers of each row.
+     */
+    void scanCollections(BiConsumer<UUID, UUID> action);
+
+    /**
+     * Retrieves a page of a user's collection ordered by the time each book was added,
+     * seeking past the last entry already seen. The {@code book} table is not read.
+     *
+     * @param userId The identifier of the user.
+     * @param after The sort key of the last entry already seen, or null for the first page.
+     * @param direction Whether the oldest or the newest books come first.
+     * @param size The maximum number of entries to return.
+     * @return A {@link Slice} of {@link UserBookResponse} objects without the full books.
+     */
+    Slice<UserBookResponse> findBooksByUserId(UUID userId, CursorCodec.TimedKey after, Sort.Direction direction, int size);
+
+    /**
+     * Adds a book to a user's collection with a single statement, whatever the size of
+     * the collection. Concurrent additions of the same book resolve on the primary key
+     * of {@code user_books}, so exactly one of them reports the book as added.
+     *
+     * @param userId The identifier of the user.
+     * @param bookId The identifier of the book.
+     * @return {@code true} if the book was added, {@code false} if it was already in the collection.
+     */
+    boolean addBook(UUID userId, UUID bookId);
+
+    /**
+     * Removes a book from a user's collection with a single statement.
+     *
+     * @param userId The identifier of the user.
+     * @param bookId The identifier of the book.
+     * @return {@code true} if the book was removed, {@code false} if it was not in the collection.
+     */
+    boolean removeBook(UUID userId, UUID bookId);
+
+    /**
+     * Adds several books to a user's collection with a single statement.
+     * Books already in the collection are skipped.
+     *
+     * @param userId The identifier of the user.
+     * @param bookIds The identifiers of the books to add.
+     * @return The identifiers of the books that were actually added.
+     */
+    List<UUID> addBooks(UUID userId, Collection<UUID> bookIds);
+
+    /**
+     * Removes several books from a user's collection with a single statement.
+     * Books that are not in the collection are skipped.
+     *
+     * @param userId The identifier of the user.
+     * @param bookIds The identifiers of the books to remove.
+     * @return The identifiers of the books that were actually removed.
+     */
+    List<UUID> removeBooks(UUID userId, Collection<UUID> bookIds);
+}
@@ -0,0 +1,199 @@
+package com.raven.training.persistence.repository;
+
+import com.raven.training.presentation.dto.user.UserBookResponse;
+import com.raven.training.util.id.PackedUuidList;
+import com.raven.training.util.pagination.CursorCodec;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * JDBC implementation of {@link IUserRepositoryCustom}.
+ * Spring Data picks it up as a fragment of {@link IUserRepository}, so it runs in
+ * the same transaction as the rest of the repository methods.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@AllArgsConstructor
+public class IUserRepositoryCustomImpl implements IUserRepositoryCustom {
+
+    private static final int SCAN_FETCH_SIZE = 10_000;
+
+    private static final String SELECT_BOOK_IDS = "SELECT user_id, book_id FROM user_books WHERE user_id = ANY (?)";
+    private static final String COUNT_BOOKS = "SELECT user_id, COUNT(*) FROM user_books WHERE user_id = ANY (?) GROUP BY user_id";
+    private static final String SCAN_COLLECTIONS = "SELECT user_id, book_id FROM user_books";
+    private static final String SELECT_BOOKS_PAGE = """
+        SELECT book_id, added_at FROM user_books WHERE user_id = ? %s
+        ORDER BY added_at %s, book_id %s LIMIT ?
+    """;
+    private static final String INSERT_BOOK = "INSERT INTO user_books (user_id, book_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String DELETE_BOOK = "DELETE FROM user_books WHERE user_id = ? AND book_id = ?";
+    private static final String INSERT_BOOKS = """
+        INSERT INTO user_books (user_id, book_id) SELECT ?, unnest(?)
+        ON CONFLICT DO NOTHING RETURNING book_id
+    """;
+    private static final String DELETE_BOOKS = "DELETE FROM user_books WHERE user_id = ? AND book_id = ANY (?) RETURNING book_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * {@inheritDoc}
+     * The users are sent as a single array parameter, so the statement is the same
+     * whatever the page size, and the identifiers of each user are packed into a
+     * {@link PackedUuidList} as the rows are read.
+     */
+    @Override
+    public Map<UUID, List<UUID>> findBookIdsByUserIds(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<UUID, PackedUuidList.Builder> builders = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_BOOK_IDS);
+            ps.setArray(1, connection.createArrayOf("uuid", userIds.toArray()));
+            return ps;
+        }, rs -> {
+            builders.computeIfAbsent(rs.getObject(1, UUID.class), userId -> PackedUuidList.builder())
+                    .add(rs.getObject(2, UUID.class));
+        });
+
+        Map<UUID, List<UUID>> bookIds = new HashMap<>(builders.size() * 2);
+        builders.forEach((userId, builder) -> bookIds.put(userId, builder.build()));
+        return bookIds;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<UUID, Long> countBooksByUserIds(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<UUID, Long> counts = new HashMap<>(userIds.size() * 2);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(COUNT_BOOKS);
+            ps.setArray(1, connection.createArrayOf("uuid", userIds.toArray()));
+            return ps;
+        }, rs -> {
+            counts.put(rs.getObject(1, UUID.class), rs.getLong(2));
+        });
+        return counts;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Rows are fetched {@value #SCAN_FETCH_SIZE} at a time and no sort is requested, so
+     * the table is read with a sequential scan.
+     */
+    @Override
+    public void scanCollections(BiConsumer<UUID, UUID> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SCAN_COLLECTIONS);
+            ps.setFetchSize(SCAN_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            action.accept(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class));
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * The seek compares {@code (added_at, book_id)} as a row value, so it walks the
+     * {@code (user_id, added_at, book_id)} index from the cursor on and reads one
+     * extra row to tell whether a next page exists.
+     */
+    @Override
+    public Slice<UserBookResponse> findBooksByUserId(UUID userId, CursorCodec.TimedKey after,
+                                                     Sort.Direction direction, int size) {
+        String order = direction.isAscending() ? "ASC" : "DESC";
+        String seek = after == null ? "" : "AND (added_at, book_id) " + (direction.isAscending() ? ">" : "<") + " (?, ?)";
+        String sql = SELECT_BOOKS_PAGE.formatted(seek, order, order);
+
+        List<UserBookResponse> rows = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            int index = 1;
+            ps.setObject(index++, userId);
+            if (after != null) {
+                ps.setObject(index++, OffsetDateTime.ofInstant(after.at(), ZoneOffset.UTC));
+                ps.setObject(index++, after.id());
+            }
+            ps.setInt(index, size + 1);
+            return ps;
+        }, (rs, rowNum) -> new UserBookResponse(
+                rs.getObject(1, UUID.class),
+                rs.getObject(2, OffsetDateTime.class).toInstant(),
+                null));
+
+        boolean hasNext = rows.size() > size;
+        List<UserBookResponse> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addBook(UUID userId, UUID bookId) {
+        return jdbcTemplate.update(INSERT_BOOK, userId, bookId) == 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeBook(UUID userId, UUID bookId) {
+        return jdbcTemplate.update(DELETE_BOOK, userId, bookId) == 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The books are sent as a single array parameter, so the statement is one round
+     * trip whatever their number.
+     */
+    @Override
+    public List<UUID> addBooks(UUID userId, Collection<UUID> bookIds) {
+        return updateBooks(INSERT_BOOKS, userId, bookIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The books are sent as a single array parameter, so the statement is one round
+     * trip whatever their number.
+     */
+    @Override
+    public List<UUID> removeBooks(UUID userId, Collection<UUID> bookIds) {
+        return updateBooks(DELETE_BOOKS, userId, bookIds);
+    }
+
+    private List<UUID> updateBooks(String sql, UUID userId, Collection<UUID> bookIds) {
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setObject(1, userId);
+            ps.setArray(2, connection.createArrayOf("uuid", bookIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+}
@@ -4,14 +4,17 @@ import com.raven.training.presentation.dto.login.AuthLoginRequest;
 import com.raven.training.presentation.dto.login.AuthLoginResponse;
 import com.raven.training.presentation.dto.register.AuthRegisterRequest;
 import com.raven.training.presentation.dto.register.AuthRegisterResponse;
+import com.raven.training.presentation.dto.register.AvailabilityResponse;
 import com.raven.training.service.implementation.UserDetailServiceImpl;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -56,4 +59,18 @@ public class AuthUserController {
         AuthRegisterResponse authRegisterResponse = userDetailService.registerUser(authRegisterRequest);
         return ResponseEntity.status(HttpStatus.CREATED).body(authRegisterResponse);
     }
+
+    /**
+     * Endpoint for checking, before registering, whether a username and an email are still free.
+     * It is meant to be called as the user types, so most checks are answered from memory.
+     *
+     * @param username The username to check, if any.
+     * @param email The email to check, if any.
+     * @return A {@link ResponseEntity} with an {@link AvailabilityResponse} and an HTTP status of 200 (OK).
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> availability(@RequestParam(required = false) String username,
+                                                             @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(userDetailService.checkAvailability(username, email));
+    }
 }
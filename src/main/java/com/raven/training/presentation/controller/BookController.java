@@ -1,22 +1,44 @@
 package com.raven.training.presentation.controller;
 
+import com.raven.training.exception.error.BookVersionMismatchException;
+import com.raven.training.exception.error.InvalidQueryException;
 import com.raven.training.persistence.repository.IBookRepository;
 import com.raven.training.presentation.dto.book.BookRequest;
 import com.raven.training.presentation.dto.book.BookResponse;
+import com.raven.training.presentation.dto.book.PopularBookResponse;
+import com.raven.training.presentation.dto.book.RelatedBookResponse;
+import com.raven.training.presentation.dto.book.bulk.BookImportReport;
+import com.raven.training.presentation.dto.pagination.CountMode;
+import com.raven.training.presentation.dto.pagination.CountedSlice;
 import com.raven.training.presentation.dto.pagination.CustomPageableResponse;
 import com.raven.training.service.implementation.OpenLibraryService;
 import com.raven.training.presentation.dto.book.bookexternal.BookResponseDTO;
+import com.raven.training.presentation.dto.book.bookexternal.IsbnBatchRequest;
+import com.raven.training.presentation.dto.book.bookexternal.IsbnBatchResponse;
+import com.raven.training.service.interfaces.IBookExportService;
+import com.raven.training.service.interfaces.IBookImportService;
 import com.raven.training.service.interfaces.IBookService;
+import com.raven.training.util.pagination.CursorCodec;
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for managing book-related operations.
@@ -32,21 +54,38 @@ import java.util.UUID;
 @AllArgsConstructor
 public class BookController {
 
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final IBookService bookService;
     private final OpenLibraryService openLibraryService;
     private final IBookRepository bookRepository;
+    private final IBookImportService bookImportService;
+    private final IBookExportService bookExportService;
 
     /**
      * Retrieves a paginated list of books with optional filtering.
-     * The results can be filtered by title, author, and gender.
+     * The results can be filtered by title, author, and gender. When a full-text
+     * query is given, the books are searched by relevance instead, as an offset page
+     * with an exact count and no cursor, so it can only be combined with the gender
+     * filter: a query sent with a title, an author, a cursor or a count mode other than
+     * EXACT is rejected.
+     * When a cursor is given, the page is fetched with a keyset seek after the last
+     * book the client has seen and {@code page} is ignored. Every id-ordered response
+     * carries the cursor for the next page, so a crawl can start from a regular page.
      *
      * @param page The page number to retrieve (default is 0).
      * @param size The number of items per page (default is 10).
      * @param title An optional title to filter the books.
      * @param author An optional author to filter the books.
      * @param gender An optional gender to filter the books.
+     * @param q An optional full-text query over title, subtitle, author and publisher;
+     * it cannot be combined with {@code title}, {@code author}, {@code after} or a {@code count} other than EXACT.
+     * @param after An optional cursor taken from a previous response's {@code next_cursor}.
+     * @param count How to compute the totals: EXACT (default), CACHED, ESTIMATED or NONE.
      * @return A {@link ResponseEntity} containing a custom paginated
      * response of {@link BookResponse} and an HTTP status of 200 (OK).
+     * @throws InvalidQueryException if {@code q} is combined with a parameter the search does not support.
      */
     @GetMapping("/findAll")
     public ResponseEntity<CustomPageableResponse<BookResponse>> findAll(
@@ -54,28 +93,73 @@ public class BookController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
-            @RequestParam(required = false) String gender) {
+            @RequestParam(required = false) String gender,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "EXACT") CountMode count) {
+
+        if (q != null && !q.isBlank()) {
+            if (title != null || author != null || after != null || count != CountMode.EXACT) {
+                throw new InvalidQueryException(
+                        "The full-text query q cannot be combined with title, author, after or a count other than EXACT");
+            }
+            Page<BookResponse> booksPage = bookService.search(q, gender, PageRequest.of(page, size));
+            return new ResponseEntity<>(CustomPageableResponse.fromPage(booksPage, null), HttpStatus.OK);
+        }
+
+        if (after != null) {
+            Slice<BookResponse> booksSlice = bookService.findAllAfter(
+                    title, author, gender, CursorCodec.decode(after), size);
+            return new ResponseEntity<>(
+                    CustomPageableResponse.fromCursor(booksSlice, nextCursor(booksSlice)), HttpStatus.OK);
+        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
+        if (count != CountMode.EXACT) {
+            CountedSlice<BookResponse> books = bookService.findAll(title, author, gender, pageable, count);
+            return new ResponseEntity<>(
+                    CustomPageableResponse.fromCounted(books, nextCursor(books.slice())), HttpStatus.OK);
+        }
+
         Page<BookResponse> booksPage = bookService.findAll(title, author, gender, pageable);
 
-        CustomPageableResponse<BookResponse> response = new CustomPageableResponse<>(
-          booksPage.getContent(),
-          booksPage.getNumberOfElements(),
-          booksPage.getSize(),
-          booksPage.getNumber() * booksPage.getSize(),
-          booksPage.getTotalPages(),
-          booksPage.getTotalElements(),
-          booksPage.hasPrevious() ? booksPage.getNumber() : null,
-          booksPage.getNumber() + 1,
-          booksPage.hasNext() ? booksPage.getNumber() + 2 : null
-        );
+        return new ResponseEntity<>(CustomPageableResponse.fromPage(booksPage, nextCursor(booksPage)), HttpStatus.OK);
+    }
 
-        return new ResponseEntity<>(response, HttpStatus.OK);
+    /**
+     * Exports the whole catalog as newline-delimited JSON, one {@link BookResponse} per line,
+     * in identifier order. Rows are written to the response as they are read from the database,
+     * so memory use is constant whatever the size of the catalog and no count query runs.
+     *
+     * @param gzip Whether to compress the export with gzip (default is false).
+     * @return A {@link ResponseEntity} streaming the export as an attachment
+     * with an HTTP status of 200 (OK).
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, EXPORT_BUFFER_SIZE)) {
+                    bookExportService.exportNdjson(compressed);
+                }
+            } else {
+                bookExportService.exportNdjson(out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(gzip ? "books.ndjson.gz" : "books.ndjson")
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     /**
      * Retrieves a book by its unique identifier.
+     * The version of the book is sent as its {@code ETag}, ready to be echoed back in
+     * the {@code If-Match} header of a {@link #patch patch}.
      *
      * @param id The UUID of the book to retrieve.
      * @return A {@link ResponseEntity} with the found {@link BookResponse}
@@ -83,7 +167,35 @@ public class BookController {
      */
     @GetMapping("/findById/{id}")
     public ResponseEntity<BookResponse> findById(@PathVariable UUID id) {
-        return new ResponseEntity<>(bookService.findById(id), HttpStatus.OK);
+        return withETag(bookService.findById(id));
+    }
+
+    /**
+     * Retrieves the books owned by the most users.
+     * The list is kept in memory and updated as collections change, so no query runs.
+     *
+     * @param limit The number of books to return (default is 10, at most 100 by default).
+     * @return A {@link ResponseEntity} with the list of {@link PopularBookResponse},
+     * most owned first, and an HTTP status of 200 (OK).
+     */
+    @GetMapping("/popular")
+    public ResponseEntity<List<PopularBookResponse>> findPopular(@RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(bookService.findPopular(limit), HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the books most often owned by the users who own a book.
+     * The pairs of books owned together are kept in memory and updated as collections change.
+     *
+     * @param id The UUID of the book.
+     * @param limit The number of books to return (default is 10).
+     * @return A {@link ResponseEntity} with the list of {@link RelatedBookResponse},
+     * most shared owners first, and an HTTP status of 200 (OK).
+     */
+    @GetMapping("/{id}/also-owned")
+    public ResponseEntity<List<RelatedBookResponse>> findAlsoOwned(@PathVariable UUID id,
+                                                                   @RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(bookService.findAlsoOwned(id, limit), HttpStatus.OK);
     }
 
     /**
@@ -111,6 +223,21 @@ public class BookController {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Resolves a batch of ISBNs in one call.
+     * Books already stored are read with a single query; the others are looked up in
+     * OpenLibrary with multi-key requests in parallel and stored with a single batch insert.
+     *
+     * @param request The {@link IsbnBatchRequest} with up to {@link IsbnBatchRequest#MAX_ISBNS} ISBNs.
+     * @return A {@link ResponseEntity} with the {@link IsbnBatchResponse} holding the outcome
+     * of every ISBN and an HTTP status of 200 (OK).
+     */
+    @PostMapping("/isbn/batch")
+    public ResponseEntity<IsbnBatchResponse> getBooksByIsbn(@RequestBody @Valid IsbnBatchRequest request) {
+        return new ResponseEntity<>(
+                openLibraryService.findBooksByIsbnWithExternalSearch(request.isbns()), HttpStatus.OK);
+    }
+
     /**
      * Creates a new book.
      *
@@ -123,6 +250,32 @@ public class BookController {
         return new ResponseEntity<>(bookService.save(bookRequest), HttpStatus.CREATED);
     }
 
+    /**
+     * Imports books in bulk from newline-delimited JSON, one {@link BookRequest} per line.
+     * The body is streamed, so imports of any size run in constant memory.
+     *
+     * @param body The request body.
+     * @return A {@link ResponseEntity} with the {@link BookImportReport} of every chunk
+     * and an HTTP status of 200 (OK), even when some rows were rejected.
+     */
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<BookImportReport> importNdjson(InputStream body) {
+        return new ResponseEntity<>(bookImportService.importNdjson(body), HttpStatus.OK);
+    }
+
+    /**
+     * Imports books in bulk from CSV with a header row naming the {@link BookRequest} fields.
+     * The body is streamed, so imports of any size run in constant memory.
+     *
+     * @param body The request body.
+     * @return A {@link ResponseEntity} with the {@link BookImportReport} of every chunk
+     * and an HTTP status of 200 (OK), even when some rows were rejected.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<BookImportReport> importCsv(InputStream body) {
+        return new ResponseEntity<>(bookImportService.importCsv(body), HttpStatus.OK);
+    }
+
     /**
      * Updates an existing book.
      *
@@ -136,6 +289,27 @@ public class BookController {
         return new ResponseEntity<>(bookService.update(id, bookRequest), HttpStatus.OK);
     }
 
+    /**
+     * Applies a JSON merge patch (RFC 7396) to a book.
+     * Only the fields present in the body are written; {@code null} clears a field.
+     * When an {@code If-Match} header carries the {@code ETag} of a previous read, the
+     * patch only applies if nobody changed the book since, otherwise the request fails
+     * with 412 (Precondition Failed). Without it, or with {@code *}, the patch is applied
+     * blindly, without reading the book first.
+     *
+     * @param id The UUID of the book to patch.
+     * @param patch The merge patch, keyed by book field name.
+     * @param ifMatch The optional {@code If-Match} header.
+     * @return A {@link ResponseEntity} with the patched {@link BookResponse}, its new
+     * {@code ETag} and an HTTP status of 200 (OK).
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BookResponse> patch(@PathVariable UUID id,
+                                              @RequestBody Map<String, Object> patch,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(bookService.patch(id, patch, expectedVersion(ifMatch)));
+    }
+
     /**
      * Deletes a book by its unique identifier.
      *
@@ -145,6 +319,41 @@ public class BookController {
     public void delete(@PathVariable UUID id){
         bookService.delete(id);
     }
+
+    private static ResponseEntity<BookResponse> withETag(BookResponse book) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (book.version() != null) {
+            response.eTag(String.valueOf(book.version()));
+        }
+        return response.body(book);
+    }
+
+    /**
+     * Reads the version a conditional request expects from its {@code If-Match} header.
+     * Only a single strong tag can match a version; weak tags, lists and anything the
+     * API did not issue can never match, so they fail the precondition.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new BookVersionMismatchException();
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new BookVersionMismatchException();
+        }
+    }
+
+    private static String nextCursor(Slice<BookResponse> books) {
+        if (!books.hasNext() || !books.hasContent()) {
+            return null;
+        }
+        return CursorCodec.encode(books.getContent().get(books.getNumberOfElements() - 1).id());
+    }
 }
 
 
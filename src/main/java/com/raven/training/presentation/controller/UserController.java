@@ -1,18 +1,28 @@
 package com.raven.training.presentation.controller;
 
+import com.raven.training.presentation.dto.pagination.CountMode;
+import com.raven.training.presentation.dto.pagination.CountedSlice;
 import com.raven.training.presentation.dto.pagination.CustomPageableResponse;
+import com.raven.training.presentation.dto.user.UserBookMembershipResponse;
+import com.raven.training.presentation.dto.user.UserBookResponse;
+import com.raven.training.presentation.dto.user.UserBooksBatchRequest;
+import com.raven.training.presentation.dto.user.UserBooksBatchResponse;
 import com.raven.training.presentation.dto.user.UserRequest;
 import com.raven.training.presentation.dto.user.UserResponse;
 import com.raven.training.service.interfaces.IUserService;
+import com.raven.training.util.pagination.CursorCodec;
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -34,32 +44,40 @@ public class UserController {
 
     /**
      * Retrieves a paginated list of all users.
+     * When a cursor is given, the page is fetched with a keyset seek after the last
+     * user the client has seen and {@code page} is ignored.
      *
      * @param page The page number to retrieve (default is 0).
      * @param size The number of items per page (default is 10).
+     * @param after An optional cursor taken from a previous response's {@code next_cursor}.
+     * @param count How to compute the totals: EXACT (default), CACHED, ESTIMATED or NONE.
+     * @param bookIds Whether each user carries the identifiers of their books; by default only their count.
      * @return A {@link ResponseEntity} containing a custom paginated
      * response of {@link UserResponse} and an HTTP status of 200 (OK).
      */
     @GetMapping("/findAll")
     public ResponseEntity<CustomPageableResponse<UserResponse>> findAll(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "EXACT") CountMode count,
+            @RequestParam(defaultValue = "false") boolean bookIds) {
+        if (after != null) {
+            Slice<UserResponse> usersSlice = userService.findAllAfter(CursorCodec.decode(after), size, bookIds);
+            return new ResponseEntity<>(
+                    CustomPageableResponse.fromCursor(usersSlice, nextCursor(usersSlice)), HttpStatus.OK);
+        }
+
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
-        Page<UserResponse> usersPage = userService.findAll(pageable);
-
-        CustomPageableResponse<UserResponse> response = new CustomPageableResponse<>(
-                usersPage.getContent(),
-                usersPage.getNumberOfElements(),
-                usersPage.getSize(),
-                usersPage.getNumber() * usersPage.getSize(),
-                usersPage.getTotalPages(),
-                usersPage.getTotalElements(),
-                usersPage.hasPrevious() ? usersPage.getNumber() : null,
-                usersPage.getNumber() + 1,
-                usersPage.hasNext() ? usersPage.getNumber() + 2 : null
-        );
-
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        if (count != CountMode.EXACT) {
+            CountedSlice<UserResponse> users = userService.findAll(pageable, count, bookIds);
+            return new ResponseEntity<>(
+                    CustomPageableResponse.fromCounted(users, nextCursor(users.slice())), HttpStatus.OK);
+        }
+
+        Page<UserResponse> usersPage = userService.findAll(pageable, bookIds);
+
+        return new ResponseEntity<>(CustomPageableResponse.fromPage(usersPage, nextCursor(usersPage)), HttpStatus.OK);
     }
 
     /**
@@ -123,6 +141,70 @@ public class UserController {
         return new ResponseEntity<>(userService.removeBookFromUser(userId, bookId), HttpStatus.OK);
     }
 
+    /**
+     * Adds and removes several books of a user's collection in one call.
+     * Missing books and books that are already in, or not in, the collection are
+     * reported per book instead of failing the whole batch.
+     *
+     * @param userId The UUID of the user.
+     * @param request The {@link UserBooksBatchRequest} with up to {@link UserBooksBatchRequest#MAX_BOOKS}
+     * books to add and as many to remove.
+     * @return A {@link ResponseEntity} with the {@link UserBooksBatchResponse} holding the outcome
+     * of every book and an HTTP status of 200 (OK).
+     */
+    @PostMapping("/{userId}/books/batch")
+    public ResponseEntity<UserBooksBatchResponse> updateBooks(@PathVariable UUID userId,
+                                                              @RequestBody @Valid UserBooksBatchRequest request) {
+        return new ResponseEntity<>(userService.updateBooks(userId, request), HttpStatus.OK);
+    }
+
+    /**
+     * Tells which of the given books are in a user's collection, for example to mark the
+     * books of a page of search results that the user already owns. The answer is served
+     * from memory once the collection of the user has been read.
+     *
+     * @param userId The UUID of the user.
+     * @param ids The UUIDs of the books to check.
+     * @return A {@link ResponseEntity} with the {@link UserBookMembershipResponse}
+     * and an HTTP status of 200 (OK).
+     */
+    @GetMapping("/{userId}/books/contains")
+    public ResponseEntity<UserBookMembershipResponse> checkBooks(@PathVariable UUID userId,
+                                                                 @RequestParam List<UUID> ids) {
+        return new ResponseEntity<>(userService.checkBooks(userId, ids), HttpStatus.OK);
+    }
+
+    /**
+     * Lists the books of a user's collection page by page, in the order they were added.
+     * Pages are fetched with a cursor, so every page costs the same however deep it is.
+     *
+     * @param userId The UUID of the user.
+     * @param after An optional cursor taken from a previous response's {@code next_cursor}.
+     * @param size The number of items per page, between 1 and 100 (default is 20).
+     * @param direction DESC (default) to list the newest books first, ASC for the oldest first.
+     * @param expand Whether each item carries the full book (default is false).
+     * @return A {@link ResponseEntity} containing a custom paginated
+     * response of {@link UserBookResponse} and an HTTP status of 200 (OK).
+     */
+    @GetMapping("/{userId}/books")
+    public ResponseEntity<CustomPageableResponse<UserBookResponse>> findBooks(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(defaultValue = "false") boolean expand) {
+        CursorCodec.TimedKey lastSeen = after == null ? null : CursorCodec.decodeTimed(after);
+        Slice<UserBookResponse> books = userService.findBooks(userId, lastSeen, size, direction, expand);
+
+        String nextCursor = null;
+        if (books.hasNext() && books.hasContent()) {
+            UserBookResponse last = books.getContent().get(books.getNumberOfElements() - 1);
+            nextCursor = CursorCodec.encode(new CursorCodec.TimedKey(last.addedAt(), last.bookId()));
+        }
+
+        return new ResponseEntity<>(CustomPageableResponse.fromCursor(books, nextCursor), HttpStatus.OK);
+    }
+
     /**
      * Retrieves the details of the currently authenticated user.
      *
@@ -133,4 +215,11 @@ public class UserController {
     public ResponseEntity<UserResponse> getCurrentUser() {
         return new ResponseEntity<>(userService.getCurrentUser(), HttpStatus.OK);
     }
+
+    private static String nextCursor(Slice<UserResponse> users) {
+        if (!users.hasNext() || !users.hasContent()) {
+            return null;
+        }
+        return CursorCodec.encode(users.getContent().get(users.getNumberOfElements() - 1).id());
+    }
 }
@@ -17,6 +17,7 @@ import java.util.UUID;
  * @param year The publication year of the book.
  * @param pages The number of pages in the book.
  * @param isbn The International Standard Book Number (ISBN) for the book.
+ * @param version The version of the book, increased on every change. It is sent as the ETag of the book.
  */
 public record BookResponse(
         UUID id,
@@ -28,6 +29,7 @@ public record BookResponse(
         String publisher,
         String year,
         Integer pages,
-        String isbn
+        String isbn,
+        Long version
 ) {
 }
@@ -0,0 +1,16 @@
+package com.raven.training.presentation.dto.book;
+
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) representing an entry of the most owned books.
+ * All its components are immutable and directly accessible.
+ *
+ * @param bookId The unique identifier of the book.
+ * @param owners The number of users that have the book in their collection.
+ */
+public record PopularBookResponse(
+        UUID bookId,
+        long owners
+) {
+}
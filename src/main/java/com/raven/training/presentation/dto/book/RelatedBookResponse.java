@@ -0,0 +1,16 @@
+package com.raven.training.presentation.dto.book;
+
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) representing a book owned by users who also own another book.
+ * All its components are immutable and directly accessible.
+ *
+ * @param bookId The unique identifier of the related book.
+ * @param sharedOwners The number of users that have both books in their collection.
+ */
+public record RelatedBookResponse(
+        UUID bookId,
+        int sharedOwners
+) {
+}
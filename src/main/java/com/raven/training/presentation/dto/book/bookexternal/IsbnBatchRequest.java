@@ -0,0 +1,24 @@
+package com.raven.training.presentation.dto.book.bookexternal;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) carrying the ISBNs to resolve in a single batch.
+ *
+ * @param isbns The ISBNs to resolve. Duplicates are resolved once.
+ */
+public record IsbnBatchRequest(
+        @NotEmpty(message = "At least one ISBN is required")
+        @Size(max = IsbnBatchRequest.MAX_ISBNS, message = "At most " + IsbnBatchRequest.MAX_ISBNS + " ISBNs can be resolved at once")
+        List<@NotBlank(message = "The ISBN must not be blank") String> isbns
+) {
+
+    /**
+     * The maximum number of ISBNs accepted by a single batch.
+     */
+    public static final int MAX_ISBNS = 10_000;
+}
@@ -0,0 +1,21 @@
+package com.raven.training.presentation.dto.book.bookexternal;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) summarizing the resolution of a batch of ISBNs.
+ *
+ * @param found The number of ISBNs that were already in the local database.
+ * @param created The number of ISBNs found in OpenLibrary and stored.
+ * @param notFound The number of ISBNs that are unknown.
+ * @param failed The number of ISBNs whose OpenLibrary lookup failed.
+ * @param results The outcome of every distinct ISBN, in request order.
+ */
+public record IsbnBatchResponse(
+        int found,
+        int created,
+        int notFound,
+        int failed,
+        List<IsbnBatchResult> results
+) {
+}
@@ -0,0 +1,15 @@
+package com.raven.training.presentation.dto.book.bookexternal;
+
+/**
+ * Data Transfer Object (DTO) with the outcome of resolving one ISBN of a batch.
+ *
+ * @param isbn The requested ISBN.
+ * @param status How the ISBN was resolved.
+ * @param book The book details, or null when the book was not found or the lookup failed.
+ */
+public record IsbnBatchResult(
+        String isbn,
+        IsbnLookupStatus status,
+        BookResponseDTO book
+) {
+}
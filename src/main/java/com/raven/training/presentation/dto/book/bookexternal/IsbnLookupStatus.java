@@ -0,0 +1,27 @@
+package com.raven.training.presentation.dto.book.bookexternal;
+
+/**
+ * The outcome of resolving one ISBN of a batch.
+ */
+public enum IsbnLookupStatus {
+
+    /**
+     * The book was already in the local database.
+     */
+    FOUND,
+
+    /**
+     * The book was found in OpenLibrary and stored in the local database.
+     */
+    CREATED,
+
+    /**
+     * Neither the local database nor OpenLibrary know the ISBN.
+     */
+    NOT_FOUND,
+
+    /**
+     * OpenLibrary could not be queried; the ISBN can be retried later.
+     */
+    FAILED
+}
@@ -9,6 +9,7 @@ import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -30,14 +31,18 @@ public class OpenLibraryBookDTO {
     /**
      * Custom setter method to handle the dynamic key for the book data.
      * This method is called by Jackson when a field not explicitly mapped
-     * is found in the JSON.
+     * is found in the JSON. A response to several bibkeys holds one entry per
+     * book found, so every entry is kept.
      *
      * @param key The ISBN of the book.
      * @param value The {@link BookData} object containing the book's details.
      */
     @JsonAnySetter
     public void setBook(String key, BookData value) {
-        this.books = Map.of(key, value);
+        if (this.books == null) {
+            this.books = new LinkedHashMap<>();
+        }
+        this.books.put(key, value);
     }
 
     /**
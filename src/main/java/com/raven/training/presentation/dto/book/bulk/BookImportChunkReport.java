@@ -0,0 +1,24 @@
+package com.raven.training.presentation.dto.book.bulk;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) reporting the outcome of one chunk of a bulk import.
+ * Every chunk covers a fixed number of consecutive rows and is written in its own transaction.
+ *
+ * @param chunk The position of the chunk in the import, starting at 0.
+ * @param firstLine The line where the first row of the chunk starts.
+ * @param lastLine The line where the last row of the chunk starts.
+ * @param accepted The number of rows of the chunk that were stored.
+ * @param rejected The number of rows of the chunk that were not stored.
+ * @param rejections The rejected rows with their reasons.
+ */
+public record BookImportChunkReport(
+        int chunk,
+        long firstLine,
+        long lastLine,
+        int accepted,
+        int rejected,
+        List<BookImportRejection> rejections
+) {
+}
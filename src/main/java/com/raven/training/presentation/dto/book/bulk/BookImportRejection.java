@@ -0,0 +1,13 @@
+package com.raven.training.presentation.dto.book.bulk;
+
+/**
+ * Data Transfer Object (DTO) describing a row of a bulk import that was not stored.
+ *
+ * @param line The line of the request body where the row starts.
+ * @param reason Why the row was rejected.
+ */
+public record BookImportRejection(
+        long line,
+        String reason
+) {
+}
@@ -0,0 +1,17 @@
+package com.raven.training.presentation.dto.book.bulk;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) summarizing a bulk book import.
+ *
+ * @param accepted The total number of rows that were stored.
+ * @param rejected The total number of rows that were not stored.
+ * @param chunks The outcome of every chunk, in input order.
+ */
+public record BookImportReport(
+        long accepted,
+        long rejected,
+        List<BookImportChunkReport> chunks
+) {
+}
@@ -0,0 +1,33 @@
+package com.raven.training.presentation.dto.pagination;
+
+/**
+ * Strategy used to fill the totals of a paginated response.
+ * Counting every row that matches a filter can cost more than fetching the page itself,
+ * so clients that only need next/previous links can ask for a cheaper mode.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public enum CountMode {
+
+    /**
+     * The totals come from a {@code COUNT(*)} query run with the page.
+     */
+    EXACT,
+
+    /**
+     * The totals come from a per-filter count cache that is cleared on every write.
+     */
+    CACHED,
+
+    /**
+     * The totals come from the planner statistics of the table. Only available without filters.
+     */
+    ESTIMATED,
+
+    /**
+     * No totals are computed; only whether a next page exists is reported.
+     */
+    NONE
+}
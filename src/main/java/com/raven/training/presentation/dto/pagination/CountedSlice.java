@@ -0,0 +1,20 @@
+package com.raven.training.presentation.dto.pagination;
+
+import org.springframework.data.domain.Slice;
+
+/**
+ * A page of results together with the total count that was computed for it, if any.
+ * The count mode reports which strategy actually produced the total, which may be a
+ * fallback of the one requested.
+ *
+ * @param <T> The type of the content in the page.
+ * @param slice The page of results.
+ * @param totalCount The total number of matching items, or null when it was not computed.
+ * @param countMode The strategy that produced the total.
+ */
+public record CountedSlice<T>(
+        Slice<T> slice,
+        Long totalCount,
+        CountMode countMode
+) {
+}
@@ -1,31 +1,109 @@
 package com.raven.training.presentation.dto.pagination;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
 import java.util.List;
 
 /**
  * Data Transfer Object (DTO) representing a custom paginated response.
  * This record is used to provide detailed pagination information to the client,
  * including the content of the current page and metadata about the entire dataset.
+ * In cursor mode the offset-based fields are null and {@code next_cursor} is the
+ * only way to move forward. The totals are null when the count was skipped.
  *
  * @param <T> The type of the content in the page.
  * @param page The list of items on the current page.
  * @param count The number of items on the current page.
  * @param limit The maximum number of items per page.
- * @param offset The starting position (index) of the first item on the current page.
- * @param total_pages The total number of pages available.
- * @param total_count The total number of items across all pages.
+ * @param offset The starting position (index) of the first item on the current page, or null in cursor mode.
+ * @param total_pages The total number of pages available, or null if it was not computed.
+ * @param total_count The total number of items across all pages, or null if it was not computed.
  * @param previous_page The number of the previous page, or null if there is no previous page.
- * @param current_page The number of the current page.
+ * @param current_page The number of the current page, or null in cursor mode.
  * @param next_page The number of the next page, or null if there is no next page.
+ * @param next_cursor An opaque token to fetch the rows after this page, or null if there are none.
+ * @param count_mode The strategy used to compute the totals.
  */
 public record CustomPageableResponse<T>(
         List<T> page,
         int count,
         int limit,
-        int offset,
-        int total_pages,
-        long total_count,
+        Integer offset,
+        Integer total_pages,
+        Long total_count,
         Integer previous_page,
-        int current_page,
-        Integer next_page
-) {}
+        Integer current_page,
+        Integer next_page,
+        String next_cursor,
+        CountMode count_mode
+) {
+
+    /**
+     * Builds the response for an offset-based page with an exact count.
+     *
+     * @param page The page returned by the service layer.
+     * @param nextCursor The cursor pointing after the last row of the page, or null.
+     * @param <T> The type of the content in the page.
+     * @return The paginated response.
+     */
+    public static <T> CustomPageableResponse<T> fromPage(Page<T> page, String nextCursor) {
+        return fromCounted(new CountedSlice<>(page, page.getTotalElements(), CountMode.EXACT), nextCursor);
+    }
+
+    /**
+     * Builds the response for an offset-based page whose total may be cached, estimated or skipped.
+     * Whether a next page exists always comes from the page itself, never from the total.
+     *
+     * @param counted The page and total returned by the service layer.
+     * @param nextCursor The cursor pointing after the last row of the page, or null.
+     * @param <T> The type of the content in the page.
+     * @return The paginated response.
+     */
+    public static <T> CustomPageableResponse<T> fromCounted(CountedSlice<T> counted, String nextCursor) {
+        Slice<T> slice = counted.slice();
+        Long totalCount = counted.totalCount();
+        Integer totalPages = null;
+        if (totalCount != null) {
+            totalPages = slice.getSize() == 0 ? 1 : (int) Math.ceil((double) totalCount / slice.getSize());
+        }
+
+        return new CustomPageableResponse<>(
+                slice.getContent(),
+                slice.getNumberOfElements(),
+                slice.getSize(),
+                slice.getNumber() * slice.getSize(),
+                totalPages,
+                totalCount,
+                slice.hasPrevious() ? slice.getNumber() : null,
+                slice.getNumber() + 1,
+                slice.hasNext() ? slice.getNumber() + 2 : null,
+                nextCursor,
+                counted.countMode()
+        );
+    }
+
+    /**
+     * Builds the response for a page fetched with a cursor.
+     *
+     * @param slice The slice returned by the service layer.
+     * @param nextCursor The cursor pointing after the last row of the slice, or null.
+     * @param <T> The type of the content in the page.
+     * @return The paginated response.
+     */
+    public static <T> CustomPageableResponse<T> fromCursor(Slice<T> slice, String nextCursor) {
+        return new CustomPageableResponse<>(
+                slice.getContent(),
+                slice.getNumberOfElements(),
+                slice.getSize(),
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                nextCursor,
+                CountMode.NONE
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package com.raven.training.presentation.dto.register;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Data Transfer Object (DTO) telling whether a username and an email are still free to register.
+ * Only the fields that were asked about are present.
+ *
+ * @param usernameAvailable Whether no user has the username, or null if it was not asked about.
+ * @param emailAvailable Whether no user has the email, or null if it was not asked about.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"usernameAvailable", "emailAvailable"})
+public record AvailabilityResponse(
+        Boolean usernameAvailable, Boolean emailAvailable
+) {
+}
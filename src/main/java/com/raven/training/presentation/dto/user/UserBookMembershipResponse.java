@@ -0,0 +1,14 @@
+package com.raven.training.presentation.dto.user;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) telling which of the requested books are in a user's collection.
+ *
+ * @param owned Whether each distinct requested book is in the collection, in request order.
+ */
+public record UserBookMembershipResponse(
+        Map<UUID, Boolean> owned
+) {
+}
@@ -0,0 +1,34 @@
+package com.raven.training.presentation.dto.user;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.raven.training.presentation.dto.book.BookResponse;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) representing a book in a user's collection.
+ * This record is used to list a collection page by page, in the order the books were added.
+ * All its components are immutable and directly accessible.
+ *
+ * @param bookId The unique identifier of the book.
+ * @param addedAt The moment the book was added to the collection.
+ * @param book The full book, or null unless the client asked to expand it.
+ */
+public record UserBookResponse(
+        UUID bookId,
+        Instant addedAt,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        BookResponse book
+) {
+
+    /**
+     * Returns a copy of this entry with the full book attached.
+     *
+     * @param book The full book.
+     * @return The expanded entry.
+     */
+    public UserBookResponse withBook(BookResponse book) {
+        return new UserBookResponse(bookId, addedAt, book);
+    }
+}
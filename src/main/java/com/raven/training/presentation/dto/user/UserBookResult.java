@@ -0,0 +1,15 @@
+package com.raven.training.presentation.dto.user;
+
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) with the outcome of adding or removing one book of a batch.
+ *
+ * @param bookId The requested book identifier.
+ * @param status What happened to the book.
+ */
+public record UserBookResult(
+        UUID bookId,
+        UserBookStatus status
+) {
+}
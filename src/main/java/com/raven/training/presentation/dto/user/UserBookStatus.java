@@ -0,0 +1,32 @@
+package com.raven.training.presentation.dto.user;
+
+/**
+ * The outcome of adding or removing one book of a batch.
+ */
+public enum UserBookStatus {
+
+    /**
+     * The book was added to the collection.
+     */
+    ADDED,
+
+    /**
+     * The book was already in the collection, so it was not added again.
+     */
+    ALREADY_PRESENT,
+
+    /**
+     * The book was removed from the collection.
+     */
+    REMOVED,
+
+    /**
+     * The book was not in the collection, so there was nothing to remove.
+     */
+    NOT_PRESENT,
+
+    /**
+     * The book does not exist.
+     */
+    NOT_FOUND
+}
@@ -0,0 +1,27 @@
+package com.raven.training.presentation.dto.user;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) carrying the books to add to and remove from a user's collection in a single batch.
+ * Removals are applied before additions, so a book listed in both ends up in the collection.
+ *
+ * @param add The identifiers of the books to add, or null. Duplicates are applied once.
+ * @param remove The identifiers of the books to remove, or null. Duplicates are applied once.
+ */
+public record UserBooksBatchRequest(
+        @Size(max = UserBooksBatchRequest.MAX_BOOKS, message = "At most " + UserBooksBatchRequest.MAX_BOOKS + " books can be added at once")
+        List<@NotNull(message = "The book ID must not be null") UUID> add,
+        @Size(max = UserBooksBatchRequest.MAX_BOOKS, message = "At most " + UserBooksBatchRequest.MAX_BOOKS + " books can be removed at once")
+        List<@NotNull(message = "The book ID must not be null") UUID> remove
+) {
+
+    /**
+     * The maximum number of books accepted by each list of a single batch.
+     */
+    public static final int MAX_BOOKS = 10_000;
+}
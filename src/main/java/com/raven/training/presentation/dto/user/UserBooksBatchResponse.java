@@ -0,0 +1,25 @@
+package com.raven.training.presentation.dto.user;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) summarizing a batch of changes to a user's collection.
+ *
+ * @param added The number of books that were added.
+ * @param alreadyPresent The number of books to add that were already in the collection.
+ * @param removed The number of books that were removed.
+ * @param notPresent The number of books to remove that were not in the collection.
+ * @param notFound The number of books that do not exist.
+ * @param bookCount The number of books in the collection after the batch.
+ * @param results The outcome of every distinct removal, then of every distinct addition, in request order.
+ */
+public record UserBooksBatchResponse(
+        int added,
+        int alreadyPresent,
+        int removed,
+        int notPresent,
+        int notFound,
+        long bookCount,
+        List<UserBookResult> results
+) {
+}
@@ -1,5 +1,7 @@
 package com.raven.training.presentation.dto.user;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -8,18 +10,51 @@ import java.util.UUID;
  * Data Transfer Object (DTO) representing the response for a user.
  * This record is used to carry user-related data from the service layer to the client.
  * All its components are immutable and directly accessible.
+ * <p>
+ * The books of the user are summarized by their count and a link to
+ * {@code GET /api/v1/users/{id}/books}, so the size of the response does not depend
+ * on the size of the collection. The identifiers are only included when a page of
+ * users explicitly asks for them.
  *
  * @param id The unique identifier of the user.
  * @param userName The username for the user's account.
  * @param name The full name of the user.
  * @param birthDate The date of birth of the user.
- * @param bookIds A list of UUIDs representing the books associated with the user.
+ * @param bookIds A list of UUIDs representing the books associated with the user, or null if not requested.
+ * @param bookCount The number of books in the user's collection.
+ * @param booksLink The path that lists the user's books page by page.
  */
 public record UserResponse(
         UUID id,
         String userName,
         String name,
         LocalDate birthDate,
-        List<UUID> bookIds
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        List<UUID> bookIds,
+        long bookCount,
+        String booksLink
 ) {
+
+    /**
+     * Builds a response that includes the identifiers of the user's books.
+     *
+     * @param id The unique identifier of the user.
+     * @param userName The username for the user's account.
+     * @param name The full name of the user.
+     * @param birthDate The date of birth of the user.
+     * @param bookIds A list of UUIDs representing the books associated with the user.
+     */
+    public UserResponse(UUID id, String userName, String name, LocalDate birthDate, List<UUID> bookIds) {
+        this(id, userName, name, birthDate, bookIds, bookIds == null ? 0 : bookIds.size(), booksLink(id));
+    }
+
+    /**
+     * Builds the path that lists the books of a user.
+     *
+     * @param id The unique identifier of the user.
+     * @return The path of the user's books.
+     */
+    public static String booksLink(UUID id) {
+        return "/api/v1/users/" + id + "/books";
+    }
 }
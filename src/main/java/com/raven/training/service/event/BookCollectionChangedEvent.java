@@ -0,0 +1,50 @@
+package com.raven.training.service.event;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when the books of a user's collection change.
+ * Listeners that keep copies of collections apply it once the transaction that
+ * published it commits, so they never see changes that are rolled back.
+ *
+ * @param userId The identifier of the user.
+ * @param added The identifiers of the books that were added.
+ * @param removed The identifiers of the books that were removed.
+ * @param deleted Whether the whole collection is gone because its user was deleted.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public record BookCollectionChangedEvent(
+        UUID userId,
+        Collection<UUID> added,
+        Collection<UUID> removed,
+        boolean deleted
+) {
+
+    /**
+     * Builds the event for books added to and removed from a collection.
+     *
+     * @param userId The identifier of the user.
+     * @param added The identifiers of the books that were added.
+     * @param removed The identifiers of the books that were removed.
+     * @return The event.
+     */
+    public static BookCollectionChangedEvent of(UUID userId, Collection<UUID> added, Collection<UUID> removed) {
+        return new BookCollectionChangedEvent(userId, List.copyOf(added), List.copyOf(removed), false);
+    }
+
+    /**
+     * Builds the event for the collection of a user that was deleted.
+     *
+     * @param userId The identifier of the user.
+     * @param removed The identifiers of the books the collection held.
+     * @return The event.
+     */
+    public static BookCollectionChangedEvent deleted(UUID userId, Collection<UUID> removed) {
+        return new BookCollectionChangedEvent(userId, List.of(), List.copyOf(removed), true);
+    }
+}
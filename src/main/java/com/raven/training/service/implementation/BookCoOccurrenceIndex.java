@@ -0,0 +1,322 @@
+package com.raven.training.service.implementation;
+
+import com.raven.training.persistence.repository.IUserRepository;
+import com.raven.training.presentation.dto.book.RelatedBookResponse;
+import com.raven.training.service.event.BookCollectionChangedEvent;
+import com.raven.training.util.id.UuidDictionary;
+import com.raven.training.util.primitive.IntCounterMap;
+import com.raven.training.util.primitive.SortedIntSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of how many users own each pair of books, used to answer "users who own
+ * this also own" without reading the database.
+ * <p>
+ * Users and books are mapped to dense {@code int} indexes by a {@link UuidDictionary}. Each
+ * collection is a {@link SortedIntSet} of book indexes, and each book keeps an
+ * {@link IntCounterMap} from the books it shares owners with to the number of shared owners, so
+ * a pair takes 8 bytes in each direction and no object is created per pair. The index is built
+ * once from a cursor over the join table when the application is ready, and every committed
+ * change to a collection updates only the pairs of the books added or removed. A user whose
+ * collection is emptied or deleted releases its index for the next user, so the users held
+ * follow the users owning books rather than every user ever seen.
+ * <p>
+ * The number of pairs grows with the square of the size of a collection, so the heap is bounded
+ * in two ways. Collections larger than {@code recommendations.max-collection-size} do not count:
+ * their pairs are withdrawn when they grow past it and counted again when they shrink back.
+ * Once {@code recommendations.max-pairs} pairs are held, pairs not seen yet are skipped until
+ * others drop to zero. From then on the counts are lower bounds rather than exact: removing a book
+ * ignores the pairs that were skipped when it was added, but a skipped pair that is counted later,
+ * for another collection, is lowered by the removal of the first one, and never recovers.
+ * <p>
+ * Reads share a lock and changes take it exclusively. Changes that commit while the index is
+ * being built are queued and applied on top of it, which is safe because adding a book that is
+ * already in a collection, or removing one that is not, changes nothing. If the build fails, the
+ * queue is dropped and later changes are ignored, so the index stays empty instead of queuing
+ * every change until the application stops.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Slf4j
+@Component
+public class BookCoOccurrenceIndex {
+
+    private final IUserRepository userRepository;
+    private final int maxCollectionSize;
+    private final long maxPairs;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<BookCollectionChangedEvent> early = new ArrayList<>();
+    private boolean ready;
+    private boolean failed;
+    private Graph graph;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param userRepository The repository holding the collections.
+     * @param maxCollectionSize The largest collection whose pairs are counted.
+     * @param maxPairs The maximum number of pairs held, counting each direction.
+     */
+    public BookCoOccurrenceIndex(IUserRepository userRepository,
+                                 @Value("${recommendations.max-collection-size:500}") int maxCollectionSize,
+                                 @Value("${recommendations.max-pairs:10000000}") long maxPairs) {
+        this.userRepository = userRepository;
+        this.maxCollectionSize = maxCollectionSize;
+        this.maxPairs = maxPairs;
+        this.graph = new Graph(maxCollectionSize, maxPairs);
+    }
+
+    /**
+     * Builds the index from the join table once the application is ready.
+     * The read-only transaction keeps the cursor open while the rows are read.
+     * If the rows cannot be read, no book has related books until the application restarts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.nanoTime();
+        Graph loaded = new Graph(maxCollectionSize, maxPairs);
+        try {
+            userRepository.scanCollections(loaded::add);
+        } catch (RuntimeException e) {
+            synchronized (early) {
+                failed = true;
+                early.clear();
+            }
+            log.error("Could not build the index of books owned together, no related books will be served", e);
+            return;
+        }
+
+        synchronized (early) {
+            early.forEach(loaded::apply);
+            early.clear();
+            lock.writeLock().lock();
+            try {
+                graph = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+        }
+        log.info("Indexed {} pairs of books owned together in {} ms",
+                loaded.pairs, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies a committed collection change to the pairs of the books added and removed.
+     *
+     * @param event The change to apply.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCollectionChanged(BookCollectionChangedEvent event) {
+        synchronized (early) {
+            if (failed) {
+                return;
+            }
+            if (!ready) {
+                early.add(event);
+                return;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            graph.apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the books most often owned by the owners of a book.
+     *
+     * @param bookId The identifier of the book.
+     * @param limit The maximum number of books to return.
+     * @return The related books, most shared owners first; empty if no owner of the book owns another one.
+     */
+    public List<RelatedBookResponse> alsoOwned(UUID bookId, int limit) {
+        lock.readLock().lock();
+        try {
+            return graph.related(bookId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The collections and pair counts, guarded by the lock of the index once published.
+     */
+    private static final class Graph {
+
+        private final int maxCollectionSize;
+        private final long maxPairs;
+        private final UuidDictionary users = new UuidDictionary();
+        private final UuidDictionary books = new UuidDictionary();
+        private SortedIntSet[] collections = new SortedIntSet[16];
+        private IntCounterMap[] neighbors = new IntCounterMap[16];
+        private long pairs;
+        private boolean saturated;
+
+        private Graph(int maxCollectionSize, long maxPairs) {
+            this.maxCollectionSize = maxCollectionSize;
+            this.maxPairs = maxPairs;
+        }
+
+        private void add(UUID userId, UUID bookId) {
+            add(users.intern(userId), books.intern(bookId));
+        }
+
+        private void apply(BookCollectionChangedEvent event) {
+            int user = event.added().isEmpty() ? users.find(event.userId()) : users.intern(event.userId());
+            if (user < 0) {
+                return;
+            }
+            for (UUID bookId : event.removed()) {
+                int book = books.find(bookId);
+                if (book >= 0) {
+                    remove(user, book);
+                }
+            }
+            for (UUID bookId : event.added()) {
+                add(user, books.intern(bookId));
+            }
+
+            SortedIntSet owned = user < collections.length ? collections[user] : null;
+            if (event.deleted()) {
+                while (owned != null && owned.size() > 0) {
+                    remove(user, owned.get(owned.size() - 1));
+                }
+            }
+            if (owned == null || owned.size() == 0) {
+                release(user, event.userId());
+            }
+        }
+
+        /**
+         * Drops the empty collection of a user and releases its index for the next user.
+         */
+        private void release(int user, UUID userId) {
+            if (user < collections.length) {
+                collections[user] = null;
+            }
+            users.remove(userId);
+        }
+
+        private List<RelatedBookResponse> related(UUID bookId, int limit) {
+            int book = books.find(bookId);
+            IntCounterMap counts = book >= 0 && book < neighbors.length ? neighbors[book] : null;
+            if (counts == null) {
+                return List.of();
+            }
+
+            int[] top = counts.topKeys(limit);
+            List<RelatedBookResponse> related = new ArrayList<>(top.length);
+            for (int other : top) {
+                related.add(new RelatedBookResponse(books.get(other), counts.get(other)));
+            }
+            return related;
+        }
+
+        private void add(int user, int book) {
+            if (user >= collections.length) {
+                collections = Arrays.copyOf(collections, Math.max(user + 1, collections.length * 2));
+            }
+            if (collections[user] == null) {
+                collections[user] = new SortedIntSet();
+            }
+
+            SortedIntSet owned = collections[user];
+            if (!owned.add(book)) {
+                return;
+            }
+            if (owned.size() <= maxCollectionSize) {
+                pairWithAll(book, owned, 1);
+            } else if (owned.size() == maxCollectionSize + 1) {
+                pairAll(owned, book, -1);
+            }
+        }
+
+        private void remove(int user, int book) {
+            SortedIntSet owned = user < collections.length ? collections[user] : null;
+            if (owned == null || !owned.remove(book)) {
+                return;
+            }
+            if (owned.size() < maxCollectionSize) {
+                pairWithAll(book, owned, -1);
+            } else if (owned.size() == maxCollectionSize) {
+                pairAll(owned, -1, 1);
+            }
+        }
+
+        /**
+         * Changes the pairs of one book with every other book of a collection.
+         */
+        private void pairWithAll(int book, SortedIntSet owned, int delta) {
+            for (int i = 0; i < owned.size(); i++) {
+                int other = owned.get(i);
+                if (other != book) {
+                    pair(book, other, delta);
+                }
+            }
+        }
+
+        /**
+         * Changes every pair of a collection, leaving out one book, or none if {@code skipped} is -1.
+         */
+        private void pairAll(SortedIntSet owned, int skipped, int delta) {
+            for (int i = 0; i < owned.size(); i++) {
+                int first = owned.get(i);
+                for (int j = i + 1; j < owned.size() && first != skipped; j++) {
+                    int second = owned.get(j);
+                    if (second != skipped) {
+                        pair(first, second, delta);
+                    }
+                }
+            }
+        }
+
+        private void pair(int first, int second, int delta) {
+            IntCounterMap forward = neighborsOf(first);
+            if (delta > 0 && pairs >= maxPairs && !forward.containsKey(second)) {
+                if (!saturated) {
+                    saturated = true;
+                    log.warn("Holding {} pairs of books, new pairs are skipped until some are released", pairs);
+                }
+                return;
+            }
+            pairs += change(forward, second, delta) + change(neighborsOf(second), first, delta);
+        }
+
+        private IntCounterMap neighborsOf(int book) {
+            if (book >= neighbors.length) {
+                neighbors = Arrays.copyOf(neighbors, Math.max(book + 1, neighbors.length * 2));
+            }
+            if (neighbors[book] == null) {
+                neighbors[book] = new IntCounterMap();
+            }
+            return neighbors[book];
+        }
+
+        private static int change(IntCounterMap counts, int key, int delta) {
+            int size = counts.size();
+            counts.add(key, delta);
+            return counts.size() - size;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.raven.training.service.implementation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.raven.training.persistence.repository.IBookRepository;
+import com.raven.training.presentation.dto.book.BookResponse;
+import com.raven.training.service.interfaces.IBookExportService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service implementation for exporting the book catalog.
+ * Books are read through a database cursor as {@link BookResponse} projections and
+ * written to the output as they arrive, so neither the persistence context nor the
+ * response buffer grows with the size of the catalog.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Service
+public class BookExportServiceImpl implements IBookExportService {
+
+    private final IBookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+
+    public BookExportServiceImpl(IBookRepository bookRepository, ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writerFor(BookResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The read-only transaction keeps the cursor open while the rows are written.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<BookResponse> books = bookRepository.streamAllResponses();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<BookResponse> rows = books.iterator();
+            while (rows.hasNext()) {
+                rowWriter.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
@@ -0,0 +1,233 @@
+package com.raven.training.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.raven.training.config.CacheConfig;
+import com.raven.training.mapper.IBookMapper;
+import com.raven.training.persistence.entity.Book;
+import com.raven.training.persistence.repository.IBookRepository;
+import com.raven.training.presentation.dto.book.BookRequest;
+import com.raven.training.presentation.dto.book.bulk.BookImportChunkReport;
+import com.raven.training.presentation.dto.book.bulk.BookImportRejection;
+import com.raven.training.presentation.dto.book.bulk.BookImportReport;
+import com.raven.training.service.interfaces.IBookImportService;
+import com.raven.training.util.id.EntityIds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service implementation for importing books in bulk.
+ * The body is parsed one row at a time and the accepted rows are written in chunks,
+ * each with a single JDBC batch inside its own transaction, so memory use does not
+ * grow with the size of the import and a failing chunk does not undo the others.
+ * Identifiers are assigned before the insert, which lets the batch skip any
+ * round trip to the database per row.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Service
+public class BookImportServiceImpl implements IBookImportService {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final IBookRepository bookRepository;
+    private final IBookMapper bookMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+    private final int chunkSize;
+
+    public BookImportServiceImpl(IBookRepository bookRepository,
+                                 IBookMapper bookMapper,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${books.import.chunk-size:1000}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.jsonReader = objectMapper.readerFor(BookRequest.class);
+        this.csvReader = new CsvMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readerFor(BookRequest.class)
+                .with(CsvSchema.emptySchema().withHeader());
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Blank lines are skipped. A line that is not a valid book request is rejected
+     * without affecting the lines around it.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOK_COUNTS, allEntries = true)
+    public BookImportReport importNdjson(InputStream body) {
+        ChunkWriter writer = new ChunkWriter();
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    writer.add(lineNumber, jsonReader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    writer.reject(lineNumber, "Malformed row: " + e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.finish();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Columns that are not book request fields are ignored. A row whose values cannot
+     * be converted is rejected and parsing resumes on the next row.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOK_COUNTS, allEntries = true)
+    public BookImportReport importCsv(InputStream body) {
+        ChunkWriter writer = new ChunkWriter();
+        try (MappingIterator<BookRequest> rows = csvReader.readValues(body)) {
+            while (true) {
+                long lineNumber = rows.getCurrentLocation().getLineNr();
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    lineNumber = rows.getCurrentLocation().getLineNr();
+                    writer.add(lineNumber, rows.nextValue());
+                } catch (JsonProcessingException e) {
+                    writer.reject(lineNumber, "Malformed row: " + e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.finish();
+    }
+
+    private static String validate(BookRequest request) {
+        if (request == null) {
+            return "Empty row";
+        }
+        if (request.title() == null || request.title().isBlank()) {
+            return "The title is obligatory";
+        }
+        if (request.pages() != null && request.pages() < 0) {
+            return "The pages must not be negative";
+        }
+        String[][] texts = {
+                {"gender", request.gender()}, {"author", request.author()}, {"image", request.image()},
+                {"title", request.title()}, {"subtitle", request.subtitle()}, {"publisher", request.publisher()},
+                {"year", request.year()}, {"isbn", request.isbn()}
+        };
+        for (String[] text : texts) {
+            if (text[1] != null && text[1].length() > MAX_TEXT_LENGTH) {
+                return "The " + text[0] + " must not exceed " + MAX_TEXT_LENGTH + " characters";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Collects rows into chunks of {@code chunkSize} and writes each full chunk.
+     */
+    private class ChunkWriter {
+
+        private final List<BookImportChunkReport> reports = new ArrayList<>();
+        private final List<Book> books = new ArrayList<>(chunkSize);
+        private final List<Long> bookLines = new ArrayList<>(chunkSize);
+        private final List<BookImportRejection> rejections = new ArrayList<>();
+        private long firstLine;
+        private long lastLine;
+        private long accepted;
+        private long rejected;
+
+        void add(long line, BookRequest request) {
+            String reason = validate(request);
+            if (reason != null) {
+                reject(line, reason);
+                return;
+            }
+            Book book = bookMapper.toEntity(request);
+            book.setId(EntityIds.next());
+            track(line);
+            books.add(book);
+            bookLines.add(line);
+            flushIfFull();
+        }
+
+        void reject(long line, String reason) {
+            track(line);
+            rejections.add(new BookImportRejection(line, reason));
+            flushIfFull();
+        }
+
+        BookImportReport finish() {
+            if (!books.isEmpty() || !rejections.isEmpty()) {
+                flush();
+            }
+            return new BookImportReport(accepted, rejected, reports);
+        }
+
+        private void track(long line) {
+            if (books.isEmpty() && rejections.isEmpty()) {
+                firstLine = line;
+            }
+            lastLine = line;
+        }
+
+        private void flushIfFull() {
+            if (books.size() + rejections.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            int stored = books.size();
+            if (!books.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> bookRepository.insertAll(books));
+                } catch (DataAccessException e) {
+                    String reason = "Chunk could not be stored: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                    bookLines.forEach(line -> rejections.add(new BookImportRejection(line, reason)));
+                    rejections.sort(Comparator.comparingLong(BookImportRejection::line));
+                    stored = 0;
+                }
+            }
+            List<BookImportRejection> chunkRejections = List.copyOf(rejections);
+            reports.add(new BookImportChunkReport(
+                    reports.size(), firstLine, lastLine, stored, chunkRejections.size(), chunkRejections));
+            accepted += stored;
+            rejected += chunkRejections.size();
+            books.clear();
+            bookLines.clear();
+            rejections.clear();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.raven.training.service.implementation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.raven.training.config.CacheConfig;
+import com.raven.training.exception.error.UserNotFoundException;
+import com.raven.training.persistence.repository.IUserRepository;
+import com.raven.training.service.event.BookCollectionChangedEvent;
+import com.raven.training.util.id.PackedUuidSet;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory index of the books in each user's collection, used to answer membership checks
+ * without reading the database.
+ * The collection of a user is read from the join table the first time it is needed and kept
+ * as a {@link PackedUuidSet} in the {@link CacheConfig#BOOK_MEMBERSHIP} cache. Every change
+ * to a collection is applied to the cached copy once its transaction commits, so the index
+ * does not go stale while the entry lives.
+ * <p>
+ * Loading an entry and applying a change to it are atomic per user: a change that commits
+ * while the collection is being read waits for the read and is applied on top of it.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Component
+public class BookMembershipIndex {
+
+    private final Cache<Object, Object> collections;
+    private final IUserRepository userRepository;
+
+    /**
+     * Creates the index on top of the membership cache.
+     *
+     * @param cacheManager The cache manager holding the {@link CacheConfig#BOOK_MEMBERSHIP} cache.
+     * @param userRepository The repository used to read a collection on a cache miss.
+     */
+    public BookMembershipIndex(CacheManager cacheManager, IUserRepository userRepository) {
+        this.collections = CacheConfig.nativeCache(cacheManager, CacheConfig.BOOK_MEMBERSHIP);
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Returns the books in a user's collection, reading them only if they are not cached.
+     *
+     * @param userId The identifier of the user.
+     * @return The identifiers of the user's books.
+     * @throws UserNotFoundException if the user is not found.
+     */
+    public PackedUuidSet booksOf(UUID userId) {
+        return (PackedUuidSet) collections.get(userId, key -> load(userId));
+    }
+
+    /**
+     * Applies a change to the cached collection of a user, if it is cached, once the
+     * transaction that made it has committed.
+     *
+     * @param event The change to apply.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCollectionChanged(BookCollectionChangedEvent event) {
+        if (event.deleted()) {
+            collections.invalidate(event.userId());
+            return;
+        }
+
+        collections.asMap().computeIfPresent(event.userId(),
+                (userId, books) -> ((PackedUuidSet) books).with(event.added(), event.removed()));
+    }
+
+    private PackedUuidSet load(UUID userId) {
+        List<UUID> bookIds = userRepository.findBookIdsByUserIds(List.of(userId)).get(userId);
+        if (bookIds == null) {
+            if (!userRepository.existsById(userId)) {
+                throw new UserNotFoundException("User with ID not found: " + userId);
+            }
+            return PackedUuidSet.copyOf(List.of());
+        }
+        return PackedUuidSet.copyOf(bookIds);
+    }
+}
@@ -0,0 +1,164 @@
+package com.raven.training.service.implementation;
+
+import com.raven.training.persistence.repository.IBookRepository;
+import com.raven.training.presentation.dto.book.PopularBookResponse;
+import com.raven.training.service.event.BookCollectionChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the number of owners of every book and the list of the most owned books.
+ * <p>
+ * Committed collection changes are added to in-memory counters, one per book, held in a
+ * {@link ConcurrentHashMap} whose bins stripe the contention between writers. The counters
+ * are flushed to the {@code book_popularity} table on a fixed delay with a single upsert,
+ * so a burst of changes costs one statement instead of one per change.
+ * <p>
+ * The leaderboard is an immutable snapshot of the most owned books, sorted once and read
+ * without locks. Every flush merges the new counts it returns into the snapshot; only when a
+ * book of a full leaderboard loses owners, and the next one may be outside of it, is the
+ * snapshot read again from the first rows of the owners index. The join table is never
+ * scanned, except once to fill an empty counter table at startup.
+ * <p>
+ * Each instance only merges its own flushes, so with several instances the leaderboard of
+ * one may lag the others' changes until its next reload.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Slf4j
+@Component
+public class BookPopularityTracker {
+
+    private static final Comparator<PopularBookResponse> MOST_OWNED_FIRST = Comparator
+            .comparingLong(PopularBookResponse::owners).reversed()
+            .thenComparing(PopularBookResponse::bookId);
+
+    private final IBookRepository bookRepository;
+    private final int leaderboardSize;
+    private final ConcurrentHashMap<UUID, Long> pending = new ConcurrentHashMap<>();
+    private volatile List<PopularBookResponse> leaders = List.of();
+
+    /**
+     * Creates the tracker.
+     *
+     * @param bookRepository The repository holding the counter table.
+     * @param leaderboardSize The number of most owned books kept in memory.
+     */
+    public BookPopularityTracker(IBookRepository bookRepository,
+                                 @Value("${popularity.leaderboard-size:100}") int leaderboardSize) {
+        this.bookRepository = bookRepository;
+        this.leaderboardSize = leaderboardSize;
+    }
+
+    /**
+     * Fills the counter table if it is empty and loads the leaderboard once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        int seeded = bookRepository.seedOwners();
+        if (seeded > 0) {
+            log.info("Counted the owners of {} books", seeded);
+        }
+        leaders = bookRepository.findMostOwned(leaderboardSize);
+    }
+
+    /**
+     * Adds a committed collection change to the pending counters.
+     *
+     * @param event The change to count.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCollectionChanged(BookCollectionChangedEvent event) {
+        count(event.added(), 1);
+        count(event.removed(), -1);
+    }
+
+    /**
+     * Writes the pending counters to the counter table and merges the new counts into the leaderboard.
+     * If the write fails the counters are put back and written on the next flush.
+     */
+    @Scheduled(fixedDelayString = "${popularity.flush-interval:5s}")
+    public void flush() {
+        Map<UUID, Long> deltas = new HashMap<>();
+        for (UUID bookId : pending.keySet()) {
+            Long delta = pending.remove(bookId);
+            if (delta != null) {
+                deltas.put(bookId, delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<PopularBookResponse> counts;
+        try {
+            counts = bookRepository.addOwners(deltas);
+        } catch (DataAccessException e) {
+            log.error("Could not write the owners of {} books, retrying on the next flush", deltas.size(), e);
+            deltas.forEach((bookId, delta) -> pending.merge(bookId, delta, BookPopularityTracker::sum));
+            return;
+        }
+        merge(counts);
+    }
+
+    /**
+     * Returns the most owned books.
+     *
+     * @param limit The maximum number of books to return; at most the size of the leaderboard.
+     * @return The books with at least one owner, most owned first.
+     */
+    public List<PopularBookResponse> mostOwned(int limit) {
+        List<PopularBookResponse> current = leaders;
+        return current.subList(0, Math.min(Math.max(limit, 0), current.size()));
+    }
+
+    private void count(Collection<UUID> bookIds, long delta) {
+        bookIds.forEach(bookId -> pending.merge(bookId, delta, BookPopularityTracker::sum));
+    }
+
+    private synchronized void merge(List<PopularBookResponse> counts) {
+        Map<UUID, Long> owners = new HashMap<>();
+        leaders.forEach(leader -> owners.put(leader.bookId(), leader.owners()));
+
+        boolean full = leaders.size() == leaderboardSize;
+        for (PopularBookResponse count : counts) {
+            Long previous = owners.put(count.bookId(), count.owners());
+            if (full && previous != null && count.owners() < previous) {
+                leaders = bookRepository.findMostOwned(leaderboardSize);
+                return;
+            }
+        }
+
+        leaders = owners.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(entry -> new PopularBookResponse(entry.getKey(), entry.getValue()))
+                .sorted(MOST_OWNED_FIRST)
+                .limit(leaderboardSize)
+                .toList();
+    }
+
+    /**
+     * Adds two pending changes, dropping the counter when they cancel out.
+     */
+    private static Long sum(Long a, Long b) {
+        long total = a + b;
+        return total == 0 ? null : total;
+    }
+}
@@ -1,18 +1,32 @@
 package com.raven.training.service.implementation;
 
+import com.raven.training.config.CacheConfig;
 import com.raven.training.exception.error.BookNotFoundException;
+import com.raven.training.exception.error.BookVersionMismatchException;
+import com.raven.training.exception.error.InvalidPatchException;
 import com.raven.training.mapper.IBookMapper;
 import com.raven.training.persistence.entity.Book;
 import com.raven.training.persistence.repository.IBookRepository;
+import com.raven.training.persistence.repository.IBookRepositoryCustom;
 import com.raven.training.presentation.dto.book.BookRequest;
 import com.raven.training.presentation.dto.book.BookResponse;
+import com.raven.training.presentation.dto.book.PopularBookResponse;
+import com.raven.training.presentation.dto.book.RelatedBookResponse;
+import com.raven.training.presentation.dto.pagination.CountMode;
+import com.raven.training.presentation.dto.pagination.CountedSlice;
 import com.raven.training.service.interfaces.IBookService;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -28,13 +42,19 @@ import java.util.UUID;
 @AllArgsConstructor
 public class BookServiceImpl implements IBookService {
 
+    private static final int MAX_TEXT_LENGTH = 255;
+
     private IBookRepository bookRepository;
     private IBookMapper bookMapper;
+    private BookPopularityTracker popularityTracker;
+    private BookCoOccurrenceIndex coOccurrenceIndex;
 
 
     /**
      * Retrieves a paginated list of books, with optional filters for title, author, and gender.
      * If no filters are provided, it returns all books in a paginated format.
+     * Rows are projected straight into {@link BookResponse} records inside a read-only
+     * transaction, so no entity is hydrated or checked for changes on flush.
      *
      * @param title The title of the book to filter by (optional).
      * @param author The author of the book to filter by (optional).
@@ -43,12 +63,13 @@ public class BookServiceImpl implements IBookService {
      * @return A {@link Page} of {@link BookResponse} objects.
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<BookResponse> findAll(String title, String author, String gender, Pageable pageable) {
 
         if ((title == null || title.isEmpty()) &&
                 (author == null || author.isEmpty()) &&
                 (gender == null || gender.isEmpty())) {
-            return bookRepository.findAll(pageable).map(bookMapper::toResponse);
+            return bookRepository.findAllResponses(pageable);
         }
 
         return bookRepository.findAllWithFilters(
@@ -56,17 +77,106 @@ public class BookServiceImpl implements IBookService {
                 author != null ? author : "",
                 gender != null ? gender : "",
                 pageable
-        ).map(bookMapper::toResponse);
+        );
+    }
+
+    /**
+     * Retrieves a paginated list of books, computing the total with the requested strategy.
+     * Except for {@link CountMode#EXACT}, the page is fetched as a slice without a count
+     * query. An estimate is only available without filters; otherwise the cached count is
+     * used instead and reported as such.
+     *
+     * @param title The title of the book to filter by (optional).
+     * @param author The author of the book to filter by (optional).
+     * @param gender The gender of the book to filter by (optional).
+     * @param pageable Pagination and sorting information.
+     * @param countMode The strategy used to compute the total number of books.
+     * @return A {@link CountedSlice} of {@link BookResponse} objects with the total and the strategy used.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CountedSlice<BookResponse> findAll(String title, String author, String gender,
+                                              Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            Page<BookResponse> page = findAll(title, author, gender, pageable);
+            return new CountedSlice<>(page, page.getTotalElements(), CountMode.EXACT);
+        }
+
+        String titleFilter = title != null ? title : "";
+        String authorFilter = author != null ? author : "";
+        String genderFilter = gender != null ? gender : "";
+
+        Slice<BookResponse> slice = bookRepository.findSliceWithFilters(
+                titleFilter, authorFilter, genderFilter, pageable
+        );
+
+        if (countMode == CountMode.NONE) {
+            return new CountedSlice<>(slice, null, CountMode.NONE);
+        }
+
+        if (countMode == CountMode.ESTIMATED && titleFilter.isEmpty() && authorFilter.isEmpty() && genderFilter.isEmpty()) {
+            long estimate = bookRepository.estimateCount();
+            if (estimate >= 0) {
+                return new CountedSlice<>(slice, estimate, CountMode.ESTIMATED);
+            }
+        }
+
+        long count = bookRepository.countWithFilters(titleFilter, authorFilter, genderFilter);
+        return new CountedSlice<>(slice, count, CountMode.CACHED);
+    }
+
+    /**
+     * Retrieves the books that come after a given identifier using a keyset seek,
+     * so the cost of a page does not depend on how deep into the catalog it is.
+     *
+     * @param title The title of the book to filter by (optional).
+     * @param author The author of the book to filter by (optional).
+     * @param gender The gender of the book to filter by (optional).
+     * @param after The identifier of the last book already seen.
+     * @param size The maximum number of books to return.
+     * @return A {@link Slice} of {@link BookResponse} objects.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookResponse> findAllAfter(String title, String author, String gender, UUID after, int size) {
+        return bookRepository.findAllWithFiltersAfter(
+                title != null ? title : "",
+                author != null ? author : "",
+                gender != null ? gender : "",
+                after,
+                PageRequest.of(0, size)
+        );
+    }
+
+    /**
+     * Searches books through the full-text index instead of scanning the table with
+     * {@code LIKE}, returning the best matches first.
+     *
+     * @param query The search terms.
+     * @param gender The gender of the book to filter by (optional).
+     * @param pageable Pagination information.
+     * @return A {@link Page} of {@link BookResponse} objects ordered by relevance.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookResponse> search(String query, String gender, Pageable pageable) {
+        return bookRepository.searchFullText(
+                query.trim(),
+                gender != null ? gender : "",
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+        );
     }
 
     /**
      * Finds a book by its unique identifier.
+     * The response is served from the book cache when present.
      *
      * @param id The UUID of the book to find.
      * @return The found {@link BookResponse} object.
      * @throws BookNotFoundException if a book with the given ID is not found.
      */
     @Override
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#id")
     @Transactional(readOnly = true)
     public BookResponse findById(UUID id) {
         Book book = bookRepository.findById(id)
@@ -100,6 +210,7 @@ public class BookServiceImpl implements IBookService {
      * @throws BookNotFoundException if a book with the given ID is not found.
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#id")
     @Transactional
     public BookResponse update(UUID id, BookRequest bookRequest) {
         return bookRepository.findById(id)
@@ -139,6 +250,104 @@ public class BookServiceImpl implements IBookService {
                 .orElseThrow(BookNotFoundException::new);
     }
 
+    /**
+     * Applies a JSON merge patch to an existing book.
+     * The patch is turned into a single {@code UPDATE} of the columns it names, so the
+     * book is not read beforehand; the version check travels in the same statement.
+     * Only when no row matched is the book looked up again, to tell a missing book
+     * from a stale version. An empty patch just reads the book back.
+     *
+     * @param id The UUID of the book to patch.
+     * @param patch The merge patch, keyed by book field name.
+     * @param expectedVersion The version the client last read, or {@code null} to patch unconditionally.
+     * @return The patched {@link BookResponse} object.
+     * @throws InvalidPatchException if the patch names an unknown field or carries an invalid value.
+     * @throws BookNotFoundException if a book with the given ID is not found.
+     * @throws BookVersionMismatchException if the book no longer has the expected version.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#id")
+    @Transactional
+    public BookResponse patch(UUID id, Map<String, Object> patch, Long expectedVersion) {
+        validatePatch(patch);
+
+        if (patch.isEmpty()) {
+            Book book = bookRepository.findById(id)
+                    .orElseThrow(BookNotFoundException::new);
+            if (expectedVersion != null && !expectedVersion.equals(book.getVersion())) {
+                throw new BookVersionMismatchException();
+            }
+            return bookMapper.toResponse(book);
+        }
+
+        return bookRepository.patch(id, patch, expectedVersion)
+                .orElseThrow(() -> expectedVersion != null && bookRepository.existsById(id)
+                        ? new BookVersionMismatchException()
+                        : new BookNotFoundException());
+    }
+
+    /**
+     * Checks that every field of a merge patch is patchable and that its value fits the column.
+     *
+     * @param patch The merge patch to check.
+     * @throws InvalidPatchException if a field is unknown or a value has the wrong type or length.
+     */
+    private void validatePatch(Map<String, Object> patch) {
+        for (Map.Entry<String, Object> field : patch.entrySet()) {
+            String name = field.getKey();
+            Object value = field.getValue();
+            if (!IBookRepositoryCustom.PATCHABLE_COLUMNS.contains(name)) {
+                throw new InvalidPatchException("Field '" + name + "' cannot be patched");
+            }
+            if (value == null) {
+                if ("title".equals(name)) {
+                    throw new InvalidPatchException("Field 'title' cannot be removed");
+                }
+                continue;
+            }
+            if ("pages".equals(name)) {
+                if (!(value instanceof Integer pages) || pages < 0) {
+                    throw new InvalidPatchException("Field 'pages' must be a non-negative integer or null");
+                }
+            } else if (!(value instanceof String text) || text.length() > MAX_TEXT_LENGTH) {
+                throw new InvalidPatchException(
+                        "Field '" + name + "' must be a string of at most " + MAX_TEXT_LENGTH + " characters or null");
+            }
+        }
+    }
+
+    /**
+     * Retrieves the books with the most owners.
+     * The list is served from the leaderboard kept in memory by the {@link BookPopularityTracker},
+     * so no query runs.
+     *
+     * @param limit The maximum number of books to return.
+     * @return The most owned books, most owned first.
+     */
+    @Override
+    public List<PopularBookResponse> findPopular(int limit) {
+        return popularityTracker.mostOwned(limit);
+    }
+
+    /**
+     * Retrieves the books most often owned by the users who own a book.
+     * The pairs are counted in memory by the {@link BookCoOccurrenceIndex}; the database is
+     * only read to tell an unknown book from one whose owners own nothing else.
+     *
+     * @param id The UUID of the book.
+     * @param limit The maximum number of books to return.
+     * @return The related books, most shared owners first.
+     * @throws BookNotFoundException if the book is not found.
+     */
+    @Override
+    public List<RelatedBookResponse> findAlsoOwned(UUID id, int limit) {
+        List<RelatedBookResponse> related = coOccurrenceIndex.alsoOwned(id, limit);
+        if (related.isEmpty() && !bookRepository.existsById(id)) {
+            throw new BookNotFoundException();
+        }
+        return related;
+    }
+
     /**
      * Deletes a book from the repository by its ID.
      *
@@ -146,6 +355,7 @@ public class BookServiceImpl implements IBookService {
      * @throws BookNotFoundException if a book with the given ID is not found.
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#id")
     @Transactional
     public void delete(UUID id) {
         Book book = bookRepository.findById(id)
@@ -1,18 +1,42 @@
 package com.raven.training.service.implementation;
 
+import com.raven.training.config.CacheConfig;
 import com.raven.training.persistence.entity.Book;
 import com.raven.training.persistence.repository.IBookRepository;
 import com.raven.training.presentation.dto.book.bookexternal.BookResponseDTO;
+import com.raven.training.presentation.dto.book.bookexternal.IsbnBatchResponse;
+import com.raven.training.presentation.dto.book.bookexternal.IsbnBatchResult;
+import com.raven.training.presentation.dto.book.bookexternal.IsbnLookupStatus;
 import com.raven.training.presentation.dto.book.bookexternal.OpenLibraryBookDTO;
+import com.raven.training.util.id.EntityIds;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.UUID;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -31,9 +55,28 @@ import java.util.stream.Collectors;
 public class OpenLibraryService {
 
     private static final String OPEN_LIBRARY_URL = "https://openlibrary.org/api/books";
-    
+    private static final String BIBKEY_PREFIX = "ISBN:";
+
+    /**
+     * How many ISBNs are sent in a single OpenLibrary request.
+     */
+    private static final int ISBNS_PER_REQUEST = 50;
+
+    /**
+     * How many OpenLibrary requests of a batch run at the same time.
+     */
+    private static final int PARALLEL_REQUESTS = 8;
+
+    /**
+     * Length of the text columns of {@code book}; longer OpenLibrary values are truncated to it.
+     */
+    private static final int MAX_TEXT_LENGTH = 255;
+
     private final RestTemplate restTemplate;
     private final IBookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService lookupExecutor = Executors.newFixedThreadPool(PARALLEL_REQUESTS, new LookupThreadFactory());
 
     /**
      * Get information about a book by its ISBN from the OpenLibrary API
@@ -41,16 +84,9 @@ public class OpenLibraryService {
      * @return DTO with the book information or null if not found
      */
     public BookResponseDTO getBookInfo(String isbn) {
-        String url = UriComponentsBuilder.fromUriString(OPEN_LIBRARY_URL)
-                .queryParam("bibkeys", "ISBN:" + isbn)
-                .queryParam("format", "json")
-                .queryParam("jscmd", "data")
-                .build()
-                .toUriString();
-
         try {
             ResponseEntity<OpenLibraryBookDTO> response = restTemplate.getForEntity(
-                    url, 
+                    buildUrl(List.of(isbn)),
                     OpenLibraryBookDTO.class
             );
 
@@ -64,6 +100,135 @@ public class OpenLibraryService {
         return null;
     }
 
+    /**
+     * Resolves a batch of ISBNs. The ones already stored are read with a single query;
+     * the rest are grouped into multi-key OpenLibrary requests that run in parallel on a
+     * bounded pool, and the books found are stored with a single batch insert.
+     * The HTTP calls run outside of any transaction. If the insert fails, the books
+     * found externally are reported as failed and the other results are kept.
+     * @param isbns ISBNs to resolve; duplicates are resolved once
+     * @return the outcome of every distinct ISBN, in request order
+     */
+    @CacheEvict(cacheNames = CacheConfig.BOOK_COUNTS, allEntries = true)
+    public IsbnBatchResponse findBooksByIsbnWithExternalSearch(Collection<String> isbns) {
+        Set<String> requested = new LinkedHashSet<>();
+        isbns.forEach(isbn -> requested.add(isbn.trim()));
+
+        Map<String, BookResponseDTO> local = new HashMap<>();
+        for (Book book : bookRepository.findByIsbnIn(requested)) {
+            local.putIfAbsent(book.getIsbn(), mapToBookResponseDTO(book));
+        }
+
+        List<String> misses = requested.stream()
+                .filter(isbn -> !local.containsKey(isbn))
+                .toList();
+
+        List<List<String>> chunks = new ArrayList<>();
+        List<CompletableFuture<Map<String, BookResponseDTO>>> lookups = new ArrayList<>();
+        for (int from = 0; from < misses.size(); from += ISBNS_PER_REQUEST) {
+            List<String> chunk = misses.subList(from, Math.min(from + ISBNS_PER_REQUEST, misses.size()));
+            chunks.add(chunk);
+            lookups.add(CompletableFuture.supplyAsync(() -> getBooksInfo(chunk), lookupExecutor));
+        }
+
+        Map<String, BookResponseDTO> external = new HashMap<>();
+        Set<String> failed = new HashSet<>();
+        for (int i = 0; i < lookups.size(); i++) {
+            try {
+                external.putAll(lookups.get(i).join());
+            } catch (CompletionException e) {
+                log.error("Error al consultar la API de OpenLibrary para " + chunks.get(i).size() + " ISBN", e.getCause());
+                failed.addAll(chunks.get(i));
+            }
+        }
+
+        if (!external.isEmpty()) {
+            List<Book> newBooks = external.values().stream()
+                    .map(this::mapToBookEntity)
+                    .toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> bookRepository.insertAll(newBooks));
+            } catch (DataAccessException e) {
+                log.error("Error al guardar " + newBooks.size() + " libros de OpenLibrary", e);
+                failed.addAll(external.keySet());
+                external.clear();
+            }
+        }
+
+        Map<IsbnLookupStatus, Integer> totals = new EnumMap<>(IsbnLookupStatus.class);
+        List<IsbnBatchResult> results = new ArrayList<>(requested.size());
+        for (String isbn : requested) {
+            IsbnBatchResult result;
+            if (local.containsKey(isbn)) {
+                result = new IsbnBatchResult(isbn, IsbnLookupStatus.FOUND, local.get(isbn));
+            } else if (external.containsKey(isbn)) {
+                result = new IsbnBatchResult(isbn, IsbnLookupStatus.CREATED, external.get(isbn));
+            } else if (failed.contains(isbn)) {
+                result = new IsbnBatchResult(isbn, IsbnLookupStatus.FAILED, null);
+            } else {
+                result = new IsbnBatchResult(isbn, IsbnLookupStatus.NOT_FOUND, null);
+            }
+            totals.merge(result.status(), 1, Integer::sum);
+            results.add(result);
+        }
+
+        return new IsbnBatchResponse(
+                totals.getOrDefault(IsbnLookupStatus.FOUND, 0),
+                totals.getOrDefault(IsbnLookupStatus.CREATED, 0),
+                totals.getOrDefault(IsbnLookupStatus.NOT_FOUND, 0),
+                totals.getOrDefault(IsbnLookupStatus.FAILED, 0),
+                results
+        );
+    }
+
+    /**
+     * Get information about several books with a single request to the OpenLibrary API
+     * @param isbns ISBNs of the books to search for
+     * @return DTOs with the book information keyed by ISBN; ISBNs not found are absent
+     * @throws RestClientException if the API cannot be queried
+     */
+    private Map<String, BookResponseDTO> getBooksInfo(List<String> isbns) {
+        ResponseEntity<OpenLibraryBookDTO> response = restTemplate.getForEntity(
+                buildUrl(isbns),
+                OpenLibraryBookDTO.class
+        );
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new RestClientException("OpenLibrary answered " + response.getStatusCode());
+        }
+        if (response.getBody() == null || response.getBody().getBooks() == null) {
+            return Map.of();
+        }
+
+        Map<String, BookResponseDTO> books = new HashMap<>();
+        response.getBody().getBooks().forEach((key, bookData) -> {
+            if (bookData != null && key.startsWith(BIBKEY_PREFIX)) {
+                String isbn = key.substring(BIBKEY_PREFIX.length());
+                books.put(isbn, mapToBookResponseDTO(isbn, bookData));
+            }
+        });
+        return books;
+    }
+
+    private String buildUrl(List<String> isbns) {
+        return UriComponentsBuilder.fromUriString(OPEN_LIBRARY_URL)
+                .queryParam("bibkeys", isbns.stream()
+                        .map(isbn -> BIBKEY_PREFIX + isbn)
+                        .collect(Collectors.joining(",")))
+                .queryParam("format", "json")
+                .queryParam("jscmd", "data")
+                .build()
+                .toUriString();
+    }
+
+    /**
+     * Stops the OpenLibrary lookup threads when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        lookupExecutor.shutdownNow();
+    }
+
     /**
      * Search for a book by ISBN, first in the local database
      * @param isbn Change access modifier
@@ -124,28 +289,45 @@ public class OpenLibraryService {
             return null;
         }
 
+        return mapToBookResponseDTO(isbn, bookData);
+    }
+
+    private BookResponseDTO mapToBookResponseDTO(String isbn, OpenLibraryBookDTO.BookData bookData) {
         return BookResponseDTO.builder()
                 .isbn(isbn)
-                .title(bookData.getTitle())
-                .subtitle(bookData.getSubtitle())
+                .title(truncate(bookData.getTitle()))
+                .subtitle(truncate(bookData.getSubtitle()))
                 .publishers(bookData.getPublishers() != null ?
                         bookData.getPublishers().stream()
                                 .map(OpenLibraryBookDTO.Publisher::getName)
+                                .map(OpenLibraryService::truncate)
                                 .collect(Collectors.toList()) :
                         Collections.emptyList())
-                .publishDate(bookData.getPublishDate())
+                .publishDate(truncate(bookData.getPublishDate()))
                 .numberOfPages(bookData.getNumberOfPages())
                 .authors(bookData.getAuthors() != null ?
                         bookData.getAuthors().stream()
                                 .map(OpenLibraryBookDTO.Author::getName)
+                                .map(OpenLibraryService::truncate)
                                 .collect(Collectors.toList()) :
                         Collections.emptyList())
                 .build();
     }
 
+    /**
+     * Cuts an OpenLibrary value to the length of the text columns, without splitting a surrogate pair.
+     */
+    private static String truncate(String value) {
+        if (value == null || value.length() <= MAX_TEXT_LENGTH) {
+            return value;
+        }
+        int end = Character.isHighSurrogate(value.charAt(MAX_TEXT_LENGTH - 1)) ? MAX_TEXT_LENGTH - 1 : MAX_TEXT_LENGTH;
+        return value.substring(0, end);
+    }
+
     private Book mapToBookEntity(BookResponseDTO dto) {
         return Book.builder()
-                .id(UUID.randomUUID())
+                .id(EntityIds.next())
                 .isbn(dto.getIsbn())
                 .title(dto.getTitle())
                 .subtitle(dto.getSubtitle())
@@ -157,4 +339,19 @@ public class OpenLibraryService {
                         dto.getAuthors().get(0) : null)
                 .build();
     }
+
+    /**
+     * Names the lookup threads and keeps them from holding the JVM open.
+     */
+    private static class LookupThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "openlibrary-lookup-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,146 @@
+package com.raven.training.service.implementation;
+
+import com.raven.training.persistence.repository.IAuthUserRepository;
+import com.raven.training.util.primitive.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Predicate;
+
+/**
+ * In-memory {@link BloomFilter}s over the usernames and emails in use, so that checking whether
+ * one is still available rarely needs the database.
+ * <p>
+ * A filter never misses a value it holds, so a value it does not hold is certainly free and is
+ * answered without a query; only the values it may hold, the ones in use and a small share of
+ * false positives, are checked against {@code auth_user}. The filters are built from a cursor over
+ * the table when the application is ready, and each registration adds its values before they are
+ * inserted, so a value inserted by this instance is never reported free. Until they are built,
+ * every check reads the database.
+ * <p>
+ * The answer is advisory: a value registered by another instance, or in the meantime, may still
+ * be reported free, and registration relies on the unique constraints of {@code auth_user}.
+ * Answers are counted by the {@code availability.checks} counter, tagged with the field and
+ * whether the filter or the database gave the answer.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@Slf4j
+@Component
+public class UserAvailabilityIndex {
+
+    private final IAuthUserRepository authUserRepository;
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+    private final Check usernameCheck;
+    private final Check emailCheck;
+    private volatile boolean ready;
+
+    /**
+     * Creates empty filters.
+     *
+     * @param authUserRepository The repository holding the users.
+     * @param expectedUsers The number of users the filters are sized for.
+     * @param falsePositiveRate The share of free values that still need a query once that many users are held.
+     * @param meterRegistry The registry the counters are published to.
+     */
+    public UserAvailabilityIndex(IAuthUserRepository authUserRepository,
+                                 @Value("${availability.expected-users:1000000}") long expectedUsers,
+                                 @Value("${availability.false-positive-rate:0.01}") double falsePositiveRate,
+                                 MeterRegistry meterRegistry) {
+        this.authUserRepository = authUserRepository;
+        this.usernames = BloomFilter.create(expectedUsers, falsePositiveRate);
+        this.emails = BloomFilter.create(expectedUsers, falsePositiveRate);
+        this.usernameCheck = new Check(usernames, authUserRepository::existsByUsername, "username", meterRegistry);
+        this.emailCheck = new Check(emails, authUserRepository::existsByEmail, "email", meterRegistry);
+    }
+
+    /**
+     * Adds the usernames and emails in use once the application is ready.
+     * The read-only transaction keeps the cursor open while the rows are read.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.nanoTime();
+        long[] users = new long[1];
+        authUserRepository.scanIdentities((username, email) -> {
+            add(username, email);
+            users[0]++;
+        });
+        ready = true;
+        log.info("Indexed the usernames and emails of {} users in {} ms ({} bits and {} hashes per filter)",
+                users[0], (System.nanoTime() - start) / 1_000_000, usernames.bitSize(), usernames.hashCount());
+    }
+
+    /**
+     * Marks a username and an email as in use. It is called before they are inserted, so
+     * a registration that fails leaves a value that only costs a query when checked.
+     *
+     * @param username The username, or null.
+     * @param email The email, or null.
+     */
+    public void add(String username, String email) {
+        if (username != null) {
+            usernames.put(username);
+        }
+        if (email != null) {
+            emails.put(email);
+        }
+    }
+
+    /**
+     * Tells whether no user has a username.
+     *
+     * @param username The username to check.
+     * @return {@code true} if the username is free.
+     */
+    public boolean isUsernameAvailable(String username) {
+        return usernameCheck.isAvailable(username, ready);
+    }
+
+    /**
+     * Tells whether no user has an email.
+     *
+     * @param email The email to check.
+     * @return {@code true} if the email is free.
+     */
+    public boolean isEmailAvailable(String email) {
+        return emailCheck.isAvailable(email, ready);
+    }
+
+    /**
+     * The filter of one field, the query used when it may hold a value, and their counters.
+     */
+    private static final class Check {
+
+        private final BloomFilter filter;
+        private final Predicate<String> exists;
+        private final Counter filtered;
+        private final Counter queried;
+
+        Check(BloomFilter filter, Predicate<String> exists, String field, MeterRegistry registry) {
+            this.filter = filter;
+            this.exists = exists;
+            this.filtered = registry.counter("availability.checks", "field", field, "answer", "filter");
+            this.queried = registry.counter("availability.checks", "field", field, "answer", "database");
+        }
+
+        boolean isAvailable(String value, boolean ready) {
+            if (ready && !filter.mightContain(value)) {
+                filtered.increment();
+                return true;
+            }
+            queried.increment();
+            return !exists.test(value);
+        }
+    }
+}
@@ -1,29 +1,36 @@
 package com.raven.training.service.implementation;
 
 import com.raven.training.exception.error.EmailAlreadyExistsException;
+import com.raven.training.exception.error.PasswordHashingBusyException;
 import com.raven.training.exception.error.UsernameAlreadyExistsException;
 import com.raven.training.mapper.IUserMapper;
 import com.raven.training.persistence.entity.AuthUser;
 import com.raven.training.persistence.entity.User;
 import com.raven.training.persistence.repository.IAuthUserRepository;
-import com.raven.training.persistence.repository.IUserRepository;
 import com.raven.training.presentation.dto.login.AuthLoginRequest;
 import com.raven.training.presentation.dto.login.AuthLoginResponse;
 import com.raven.training.presentation.dto.register.AuthRegisterRequest;
 import com.raven.training.presentation.dto.register.AuthRegisterResponse;
+import com.raven.training.presentation.dto.register.AvailabilityResponse;
 import com.raven.training.util.JwtUtils;
+import com.raven.training.util.id.EntityIds;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.UUID;
 
@@ -35,15 +42,17 @@ import java.util.UUID;
  * @version 1.0
  * @since 2025-08-05
  */
+@Slf4j
 @Service
 @AllArgsConstructor
-public class UserDetailServiceImpl implements UserDetailsService {
+public class UserDetailServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
-    private IUserRepository userRepository;
     private IUserMapper userMapper;
     private IAuthUserRepository authUserRepository;
     private PasswordEncoder passwordEncoder;
     private JwtUtils jwtUtils;
+    private UserAvailabilityIndex availabilityIndex;
+    private UserCache userCache;
 
     /**
      * Locates the user based on the username. In the actual implementation, the search
@@ -73,8 +82,11 @@ public class UserDetailServiceImpl implements UserDetailsService {
 
     /**
      * Authenticates a user with a given username and password.
-     * It uses the <code>loadUserByUsername</code> method to retrieve user details and then
-     * verifies the provided password.
+     * It reads the user details from the {@link UserCache}, or with <code>loadUserByUsername</code>
+     * when they are not cached, and then verifies the provided password. A cached password that
+     * does not match is read again, in case it changed since it was cached; it is only checked
+     * again if it did. If the stored hash was written with another algorithm or cost than the
+     * current one, the password is hashed again and stored.
      *
      * @param username The username of the user.
      * @param password The raw password submitted by the user.
@@ -82,11 +94,21 @@ public class UserDetailServiceImpl implements UserDetailsService {
      * @throws BadCredentialsException if the password does not match the stored password.
      */
     public Authentication authenticate(String username, String password) {
-        UserDetails userDetails = this.loadUserByUsername(username);
+        UserDetails cached = userCache.getUserFromCache(username);
+        UserDetails userDetails = cached != null ? cached : this.loadUserByUsername(username);
 
         if (!passwordEncoder.matches(password, userDetails.getPassword())) {
-            throw new BadCredentialsException("Invalid password");
+            if (cached == null) {
+                throw new BadCredentialsException("Invalid password");
+            }
+            userDetails = this.loadUserByUsername(username);
+            if (userDetails.getPassword().equals(cached.getPassword())
+                    || !passwordEncoder.matches(password, userDetails.getPassword())) {
+                throw new BadCredentialsException("Invalid password");
+            }
         }
+        userDetails = rehashIfOutdated(userDetails, password);
+        userCache.putUserInCache(userDetails);
 
         return new UsernamePasswordAuthenticationToken(
                 userDetails.getUsername(),
@@ -94,6 +116,42 @@ public class UserDetailServiceImpl implements UserDetailsService {
                 userDetails.getAuthorities());
     }
 
+    /**
+     * Stores a new password hash for a user, unless the stored one has changed since it was read,
+     * and evicts the user from the {@link UserCache}.
+     *
+     * @param user The user, with the password hash that was read.
+     * @param newPassword The new password hash.
+     * @return The user with the new password hash.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        int updated = authUserRepository.updatePassword(user.getUsername(), user.getPassword(), newPassword);
+        userCache.removeUserFromCache(user.getUsername());
+        if (updated == 0) {
+            return user;
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    /**
+     * Hashes a verified password again if its stored hash is outdated. The login does not
+     * fail if the hashing pool is full: the hash is simply left for the next login.
+     */
+    private UserDetails rehashIfOutdated(UserDetails userDetails, String password) {
+        if (!passwordEncoder.upgradeEncoding(userDetails.getPassword())) {
+            return userDetails;
+        }
+        try {
+            return updatePassword(userDetails, passwordEncoder.encode(password));
+        } catch (PasswordHashingBusyException e) {
+            log.debug("Password hash of {} left outdated, the hashing pool is full", userDetails.getUsername());
+            return userDetails;
+        }
+    }
+
     /**
      * Handles the user login process by authenticating the user and generating a JWT access token.
      *
@@ -114,15 +172,17 @@ public class UserDetailServiceImpl implements UserDetailsService {
 
     /**
      * Registers a new user, saving the authentication details and the user profile.
-     * This method is transactional, ensuring that both records (AuthUser and User) are
-     * created atomically.
+     * Both records (AuthUser and User) are created atomically by a single statement, and a
+     * username or email already in use is detected by the unique constraints of the database
+     * rather than by queries beforehand, so concurrent registrations cannot both succeed.
+     * It runs without a transaction, since the statement is atomic on its own, so no database
+     * connection is held while the password waits for a hashing thread or is hashed.
      *
      * @param authRegisterRequest The {@link AuthRegisterRequest} with the user registration data.
      * @return An {@link AuthRegisterResponse} with a confirmation message.
      * @throws UsernameAlreadyExistsException if the username is already in use.
      * @throws EmailAlreadyExistsException if the email is already in use.
      */
-    @Transactional
     public AuthRegisterResponse registerUser(AuthRegisterRequest authRegisterRequest) {
         String username = authRegisterRequest.username();
         String password = authRegisterRequest.password();
@@ -130,45 +190,69 @@ public class UserDetailServiceImpl implements UserDetailsService {
         String name = authRegisterRequest.name();
         LocalDate birthDate = authRegisterRequest.birthDate();
 
-        if (authUserRepository.existsByUsername(username)) {
-            throw new UsernameAlreadyExistsException("The username is already in use");
-        }
-
-        if (authUserRepository.existsByEmail(email)) {
-            throw new EmailAlreadyExistsException("Email is already in use");
-        }
-
         String encodedPassword = passwordEncoder.encode(password);
-        UUID userId = UUID.randomUUID();
+        UUID userId = EntityIds.next();
 
         AuthUser authUser = AuthUser.builder()
                 .id(userId)
                 .username(username)
                 .password(encodedPassword)
                 .email(email)
+                .createdAt(LocalDateTime.now())
                 .isEnabled(true)
                 .accountNoExpired(true)
                 .accountNoLocked(true)
                 .credentialNoExpired(true)
                 .build();
 
-        AuthUser savedAuthUser = authUserRepository.save(authUser);
-
         User user = User.builder()
                 .id(userId)
                 .userName(username)
                 .name(name)
                 .birthDate(birthDate)
-                .books(new ArrayList<>())
                 .build();
 
-        userRepository.save(user);
+        availabilityIndex.add(username, email);
+        try {
+            authUserRepository.register(authUser, user);
+        } catch (DataIntegrityViolationException e) {
+            throw registrationConflict(e);
+        }
 
         return new AuthRegisterResponse(
-                savedAuthUser.getUsername(),
-                savedAuthUser.getEmail(),
+                username,
+                email,
                 "User successfully registered",
                 true
         );
     }
+
+    /**
+     * Tells whether a username and an email are still free to register, usually without reading
+     * the database. The answer is advisory: registration still reports a value taken in the meantime.
+     *
+     * @param username The username to check, or null.
+     * @param email The email to check, or null.
+     * @return An {@link AvailabilityResponse} with an answer for each value given.
+     */
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        return new AvailabilityResponse(
+                username != null ? availabilityIndex.isUsernameAvailable(username) : null,
+                email != null ? availabilityIndex.isEmailAvailable(email) : null
+        );
+    }
+
+    /**
+     * Maps the unique constraint violated by a registration to the exception of the field in use.
+     */
+    private RuntimeException registrationConflict(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (message.contains(AuthUser.USERNAME_CONSTRAINT)) {
+            return new UsernameAlreadyExistsException("The username is already in use");
+        }
+        if (message.contains(AuthUser.EMAIL_CONSTRAINT)) {
+            return new EmailAlreadyExistsException("Email is already in use");
+        }
+        return e;
+    }
 }
@@ -1,27 +1,57 @@
 package com.raven.training.service.implementation;
 
+import com.raven.training.config.CacheConfig;
 import com.raven.training.exception.error.BookAlreadyInCollectionException;
 import com.raven.training.exception.error.BookNotInCollectionException;
 import com.raven.training.exception.error.BookNotFoundException;
+import com.raven.training.exception.error.InvalidPageSizeException;
 import com.raven.training.exception.error.UserNotFoundException;
 import com.raven.training.mapper.IUserMapper;
-import com.raven.training.persistence.entity.Book;
 import com.raven.training.persistence.entity.User;
 import com.raven.training.persistence.repository.IUserRepository;
 import com.raven.training.persistence.repository.IBookRepository;
+import com.raven.training.presentation.dto.pagination.CountMode;
+import com.raven.training.presentation.dto.book.BookResponse;
+import com.raven.training.presentation.dto.pagination.CountedSlice;
+import com.raven.training.presentation.dto.user.UserBookMembershipResponse;
+import com.raven.training.presentation.dto.user.UserBookResponse;
+import com.raven.training.presentation.dto.user.UserBookResult;
+import com.raven.training.presentation.dto.user.UserBookStatus;
+import com.raven.training.presentation.dto.user.UserBooksBatchRequest;
+import com.raven.training.presentation.dto.user.UserBooksBatchResponse;
 import com.raven.training.presentation.dto.user.UserRequest;
 import com.raven.training.presentation.dto.user.UserResponse;
+import com.raven.training.service.event.BookCollectionChangedEvent;
 import com.raven.training.service.interfaces.IUserService;
+import com.raven.training.util.id.PackedUuidSet;
+import com.raven.training.util.pagination.CursorCodec;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service implementation for managing user-related business logic.
@@ -36,77 +66,140 @@ import java.util.UUID;
 @AllArgsConstructor
 public class UserServiceImpl implements IUserService {
 
+    /**
+     * The largest page of a user's collection that can be asked for.
+     */
+    public static final int MAX_BOOKS_PAGE_SIZE = 100;
+
     private final IUserRepository userRepository;
     private final IUserMapper userMapper;
     private final IBookRepository bookRepository;
+    private final BookMembershipIndex membershipIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Retrieves a paginated list of all users.
+     * The book counts, or the book identifiers when asked for, of the whole page are
+     * read from the join table with one query.
      *
      * @param pageable Pagination and sorting information.
+     * @param withBookIds Whether each user carries the identifiers of their books.
      * @return A {@link Page} of {@link UserResponse} objects.
      */
     @Override
-    public Page<UserResponse> findAll(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<UserResponse> findAll(Pageable pageable, boolean withBookIds) {
         Page<User> users = userRepository.findAll(pageable);
 
-        return users.map(userMapper::toResponse);
+        return users.map(withBooks(users.getContent(), withBookIds));
+    }
+
+    /**
+     * Retrieves a paginated list of all users, computing the total with the requested strategy.
+     * Except for {@link CountMode#EXACT}, the page is fetched as a slice without a count query.
+     * If the table has no statistics yet, an estimate falls back to the cached count.
+     *
+     * @param pageable Pagination and sorting information.
+     * @param countMode The strategy used to compute the total number of users.
+     * @param withBookIds Whether each user carries the identifiers of their books.
+     * @return A {@link CountedSlice} of {@link UserResponse} objects with the total and the strategy used.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CountedSlice<UserResponse> findAll(Pageable pageable, CountMode countMode, boolean withBookIds) {
+        if (countMode == CountMode.EXACT) {
+            Page<UserResponse> page = findAll(pageable, withBookIds);
+            return new CountedSlice<>(page, page.getTotalElements(), CountMode.EXACT);
+        }
+
+        Slice<User> users = userRepository.findSliceBy(pageable);
+        Slice<UserResponse> slice = users.map(withBooks(users.getContent(), withBookIds));
+
+        if (countMode == CountMode.NONE) {
+            return new CountedSlice<>(slice, null, CountMode.NONE);
+        }
+
+        if (countMode == CountMode.ESTIMATED) {
+            long estimate = userRepository.estimateCount();
+            if (estimate >= 0) {
+                return new CountedSlice<>(slice, estimate, CountMode.ESTIMATED);
+            }
+        }
+
+        return new CountedSlice<>(slice, userRepository.countAllUsers(), CountMode.CACHED);
+    }
+
+    /**
+     * Retrieves the users that come after a given identifier using a keyset seek,
+     * so the cost of a page does not depend on how deep into the list it is.
+     *
+     * @param after The identifier of the last user already seen.
+     * @param size The maximum number of users to return.
+     * @param withBookIds Whether each user carries the identifiers of their books.
+     * @return A {@link Slice} of {@link UserResponse} objects.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserResponse> findAllAfter(UUID after, int size, boolean withBookIds) {
+        Slice<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, size));
+
+        return users.map(withBooks(users.getContent(), withBookIds));
     }
 
     /**
      * Finds a user by their unique identifier.
+     * The response is served from the user cache when present. The user's books are
+     * only counted, so the response has the same size whatever the collection.
      *
      * @param id The UUID of the user to find.
      * @return The found {@link UserResponse} object.
      * @throws UserNotFoundException if a user with the given ID is not found.
      */
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id")
     @Transactional(readOnly = true)
     public UserResponse findById(UUID id) {
         User user = userRepository.findById(id)
                 .orElseThrow(UserNotFoundException::new);
 
-        return userMapper.toResponse(user);
+        return userMapper.toResponse(user, userRepository.countBooksByUserId(id));
     }
 
     /**
      * Updates an existing user's data. It updates all fields in the request
      * and also manages the user's book collection.
+     * When book identifiers are given they replace the collection as a set: only
+     * the difference with the current collection is deleted and inserted.
      *
      * @param id The UUID of the user to update.
      * @param userRequest The {@link UserRequest} object with the updated data.
      * @return The updated {@link UserResponse} object.
      * @throws UserNotFoundException if a user with the given ID is not found.
+     * @throws BookNotFoundException if any of the given book identifiers does not exist.
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     @Transactional
     public UserResponse update(UUID id, UserRequest userRequest) {
-        return userRepository.findById(id)
-                .map(existingUser -> {
-                    if (userRequest.userName() != null && !userRequest.userName().trim().isEmpty()){
-                        existingUser.setUserName(userRequest.userName());
-                    }
-                    if (userRequest.name() != null && !userRequest.name().trim().isEmpty()){
-                        existingUser.setName(userRequest.name());
-                    }
-                    if (userRequest.birthDate() != null){
-                        existingUser.setBirthDate(userRequest.birthDate());
-                    }
-                    if (userRequest.bookIds() != null && !userRequest.bookIds().isEmpty()) {
-
-                        existingUser.getBooks().clear();
-
-                        for (UUID bookId : userRequest.bookIds()) {
-                            bookRepository.findById(bookId).ifPresent(book ->
-                                existingUser.getBooks().add(book)
-                            );
-                        }
-                    }
-
-                    User userUpdate = userRepository.save(existingUser);
-                    return userMapper.toResponse(userUpdate);
-                })
+        User existingUser = userRepository.findById(id)
                 .orElseThrow(UserNotFoundException::new);
+
+        long bookCount = userRequest.bookIds() != null && !userRequest.bookIds().isEmpty()
+                ? replaceBooks(id, userRequest.bookIds())
+                : userRepository.countBooksByUserId(id);
+
+        if (userRequest.userName() != null && !userRequest.userName().trim().isEmpty()){
+            existingUser.setUserName(userRequest.userName());
+        }
+        if (userRequest.name() != null && !userRequest.name().trim().isEmpty()){
+            existingUser.setName(userRequest.name());
+        }
+        if (userRequest.birthDate() != null){
+            existingUser.setBirthDate(userRequest.birthDate());
+        }
+
+        User userUpdate = userRepository.save(existingUser);
+        return userMapper.toResponse(userUpdate, bookCount);
     }
 
     /**
@@ -116,16 +209,22 @@ public class UserServiceImpl implements IUserService {
      * @throws UserNotFoundException if a user with the given ID is not found.
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     @Transactional
     public void delete(UUID id) {
         User user = userRepository.findById(id)
                 .orElseThrow(UserNotFoundException::new);
 
+        List<UUID> bookIds = userRepository.findBookIdsByUserId(id);
         userRepository.delete(user);
+        eventPublisher.publishEvent(BookCollectionChangedEvent.deleted(id, bookIds));
     }
 
     /**
      * Adds a book to a user's collection.
+     * The book is inserted into the join table with a single statement that ignores
+     * duplicates; its row count tells whether the book was already there, so the
+     * collection is never loaded.
      *
      * @param userId The UUID of the user.
      * @param bookId The UUID of the book to add.
@@ -135,29 +234,28 @@ public class UserServiceImpl implements IUserService {
      * @throws BookAlreadyInCollectionException if the book is already in the user's collection.
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     @Transactional
     public UserResponse addBookToUser(UUID userId, UUID bookId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User with ID not found: " + userId));
 
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new BookNotFoundException("Book with ID not found: " + bookId));
+        if (!bookRepository.existsById(bookId)) {
+            throw new BookNotFoundException("Book with ID not found: " + bookId);
+        }
 
-        boolean bookExists = user.getBooks().stream()
-                .anyMatch(b -> b.getId().equals(bookId));
-                
-        if (bookExists) {
+        if (!userRepository.addBook(userId, bookId)) {
             throw new BookAlreadyInCollectionException(userId, bookId);
         }
+        eventPublisher.publishEvent(BookCollectionChangedEvent.of(userId, List.of(bookId), List.of()));
 
-        user.getBooks().add(book);
-        User updatedUser = userRepository.save(user);
-
-        return userMapper.toResponse(updatedUser);
+        return userMapper.toResponse(user, userRepository.countBooksByUserId(userId));
     }
 
     /**
      * Removes a book from a user's collection.
+     * The row is deleted from the join table with a single statement; its row count
+     * tells whether the book was in the collection.
      *
      * @param userId The UUID of the user.
      * @param bookId The UUID of the book to remove.
@@ -167,6 +265,7 @@ public class UserServiceImpl implements IUserService {
      * @throws BookNotInCollectionException if the book is not in the user's collection.
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     @Transactional
     public UserResponse removeBookFromUser(UUID userId, UUID bookId) {
         User user = userRepository.findById(userId)
@@ -176,36 +275,193 @@ public class UserServiceImpl implements IUserService {
             throw new BookNotFoundException("Book with ID not found: " + bookId);
         }
 
-        if (user.getBooks() == null || user.getBooks().isEmpty()) {
+        if (!userRepository.removeBook(userId, bookId)) {
             throw new BookNotInCollectionException(userId, bookId);
         }
+        eventPublisher.publishEvent(BookCollectionChangedEvent.of(userId, List.of(), List.of(bookId)));
 
-        boolean removed = user.getBooks().removeIf(book -> book.getId().equals(bookId));
+        return userMapper.toResponse(user, userRepository.countBooksByUserId(userId));
+    }
 
-        if (!removed) {
-            throw new BookNotInCollectionException(userId, bookId);
+    /**
+     * Adds and removes several books of a user's collection in one transaction.
+     * All the identifiers are validated with one query, then the removals and the
+     * additions are each written with one statement whose returned rows tell which
+     * books actually changed, so duplicates and missing books are reported per book
+     * instead of failing the batch.
+     *
+     * @param userId The UUID of the user.
+     * @param request The {@link UserBooksBatchRequest} with the books to add and remove.
+     * @return The {@link UserBooksBatchResponse} with the outcome of every book.
+     * @throws UserNotFoundException if the user is not found.
+     */
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
+    @Transactional
+    public UserBooksBatchResponse updateBooks(UUID userId, UserBooksBatchRequest request) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User with ID not found: " + userId);
         }
 
-        User updatedUser = userRepository.save(user);
+        Set<UUID> toRemove = request.remove() == null ? Set.of() : new LinkedHashSet<>(request.remove());
+        Set<UUID> toAdd = request.add() == null ? Set.of() : new LinkedHashSet<>(request.add());
+
+        Set<UUID> requested = new HashSet<>(toRemove);
+        requested.addAll(toAdd);
+        Set<UUID> existing = requested.isEmpty() ? Set.of() : new HashSet<>(bookRepository.findExistingIds(requested));
+
+        Set<UUID> removed = new HashSet<>(userRepository.removeBooks(userId, existingOf(toRemove, existing)));
+        Set<UUID> added = new HashSet<>(userRepository.addBooks(userId, existingOf(toAdd, existing)));
+        eventPublisher.publishEvent(BookCollectionChangedEvent.of(userId, added, removed));
 
-        return userMapper.toResponse(updatedUser);
+        Map<UserBookStatus, Integer> totals = new EnumMap<>(UserBookStatus.class);
+        List<UserBookResult> results = new ArrayList<>(toRemove.size() + toAdd.size());
+        for (UUID bookId : toRemove) {
+            UserBookStatus status = !existing.contains(bookId) ? UserBookStatus.NOT_FOUND
+                    : removed.contains(bookId) ? UserBookStatus.REMOVED : UserBookStatus.NOT_PRESENT;
+            totals.merge(status, 1, Integer::sum);
+            results.add(new UserBookResult(bookId, status));
+        }
+        for (UUID bookId : toAdd) {
+            UserBookStatus status = !existing.contains(bookId) ? UserBookStatus.NOT_FOUND
+                    : added.contains(bookId) ? UserBookStatus.ADDED : UserBookStatus.ALREADY_PRESENT;
+            totals.merge(status, 1, Integer::sum);
+            results.add(new UserBookResult(bookId, status));
+        }
+
+        return new UserBooksBatchResponse(
+                totals.getOrDefault(UserBookStatus.ADDED, 0),
+                totals.getOrDefault(UserBookStatus.ALREADY_PRESENT, 0),
+                totals.getOrDefault(UserBookStatus.REMOVED, 0),
+                totals.getOrDefault(UserBookStatus.NOT_PRESENT, 0),
+                totals.getOrDefault(UserBookStatus.NOT_FOUND, 0),
+                userRepository.countBooksByUserId(userId),
+                results
+        );
     }
 
     /**
      * Retrieves the details of the currently authenticated user.
      * It uses Spring Security's context to get the username of the logged-in user.
+     * As for {@link #findById}, the user's books are only counted.
      *
      * @return The {@link UserResponse} object for the current user.
      * @throws UsernameNotFoundException if the authenticated user's username is not found in the repository.
      */
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserResponse getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
 
         return userRepository.findUserByUserName(username)
-                .map(userMapper::toResponse)
+                .map(user -> userMapper.toResponse(user, userRepository.countBooksByUserId(user.getId())))
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + username));
     }
+
+    /**
+     * Tells which of the given books are in a user's collection.
+     * The answer comes from the {@link BookMembershipIndex}; the database is only read
+     * the first time the collection of the user is needed.
+     *
+     * @param userId The UUID of the user.
+     * @param bookIds The UUIDs of the books to check.
+     * @return The {@link UserBookMembershipResponse} with the answer for every distinct book.
+     * @throws UserNotFoundException if the user is not found.
+     */
+    @Override
+    public UserBookMembershipResponse checkBooks(UUID userId, Collection<UUID> bookIds) {
+        PackedUuidSet books = membershipIndex.booksOf(userId);
+
+        Map<UUID, Boolean> owned = new LinkedHashMap<>();
+        bookIds.forEach(bookId -> owned.put(bookId, books.contains(bookId)));
+        return new UserBookMembershipResponse(owned);
+    }
+
+    /**
+     * Retrieves a page of a user's collection in the order the books were added.
+     * The page is read from the join table alone; when the books are expanded, all of
+     * them are read with one more query and attached in the order of the page.
+     *
+     * @param userId The UUID of the user.
+     * @param after The sort key of the last entry already seen, or null for the first page.
+     * @param size The maximum number of entries to return, between 1 and {@value #MAX_BOOKS_PAGE_SIZE}.
+     * @param direction Whether the oldest or the newest books come first.
+     * @param expand Whether each entry carries the full book.
+     * @return A {@link Slice} of {@link UserBookResponse} objects.
+     * @throws InvalidPageSizeException if the size is out of bounds.
+     * @throws UserNotFoundException if the user is not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserBookResponse> findBooks(UUID userId, CursorCodec.TimedKey after, int size,
+                                             Sort.Direction direction, boolean expand) {
+        if (size < 1 || size > MAX_BOOKS_PAGE_SIZE) {
+            throw new InvalidPageSizeException("The page size must be between 1 and " + MAX_BOOKS_PAGE_SIZE + ": " + size);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User with ID not found: " + userId);
+        }
+
+        Slice<UserBookResponse> books = userRepository.findBooksByUserId(userId, after, direction, size);
+        if (!expand || !books.hasContent()) {
+            return books;
+        }
+
+        Map<UUID, BookResponse> responses = bookRepository.findResponsesByIdIn(
+                        books.map(UserBookResponse::bookId).getContent()).stream()
+                .collect(Collectors.toMap(BookResponse::id, Function.identity()));
+        return books.map(entry -> entry.withBook(responses.get(entry.bookId())));
+    }
+
+    /**
+     * Builds the mapping of a page of users, reading the book counts, or the book
+     * identifiers, of all of them with a single query on the join table.
+     *
+     * @param users The users of the page.
+     * @param withBookIds Whether each user carries the identifiers of their books.
+     * @return A function that maps each of those users to its {@link UserResponse}.
+     */
+    private Function<User, UserResponse> withBooks(List<User> users, boolean withBookIds) {
+        List<UUID> userIds = users.stream().map(User::getId).toList();
+
+        if (withBookIds) {
+            Map<UUID, List<UUID>> bookIds = userRepository.findBookIdsByUserIds(userIds);
+            return user -> userMapper.toResponse(user, bookIds.getOrDefault(user.getId(), List.of()));
+        }
+
+        Map<UUID, Long> bookCounts = userRepository.countBooksByUserIds(userIds);
+        return user -> userMapper.toResponse(user, (long) bookCounts.getOrDefault(user.getId(), 0L));
+    }
+
+    private static List<UUID> existingOf(Collection<UUID> bookIds, Set<UUID> existing) {
+        return bookIds.stream().filter(existing::contains).toList();
+    }
+
+    /**
+     * Replaces a user's collection with the given books.
+     * All the identifiers are validated with one query, then the books to remove and
+     * the books to add are each written with one statement.
+     *
+     * @param userId The identifier of the user.
+     * @param bookIds The identifiers of the books the collection must end up with.
+     * @return The number of books in the collection after the replacement.
+     * @throws BookNotFoundException if any of the identifiers does not exist.
+     */
+    private long replaceBooks(UUID userId, List<UUID> bookIds) {
+        Set<UUID> requested = new LinkedHashSet<>(bookIds);
+
+        Set<UUID> unknown = new LinkedHashSet<>(requested);
+        bookRepository.findExistingIds(requested).forEach(unknown::remove);
+        if (!unknown.isEmpty()) {
+            throw new BookNotFoundException("Books with ID not found: " + unknown);
+        }
+
+        Set<UUID> current = new HashSet<>(userRepository.findBookIdsByUserId(userId));
+        List<UUID> removed = userRepository.removeBooks(userId, current.stream().filter(bookId -> !requested.contains(bookId)).toList());
+        List<UUID> added = userRepository.addBooks(userId, requested.stream().filter(bookId -> !current.contains(bookId)).toList());
+        eventPublisher.publishEvent(BookCollectionChangedEvent.of(userId, added, removed));
+
+        return requested.size();
+    }
 }
@@ -0,0 +1,26 @@
+package com.raven.training.service.interfaces;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Interface for the catalog export service.
+ * Defines the contract for writing the whole book catalog to a stream
+ * without holding it in memory.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public interface IBookExportService {
+
+    /**
+     * Writes every book as newline-delimited JSON, one book response object per line,
+     * in identifier order. The output stream is flushed but not closed.
+     *
+     * @param out The stream to write to.
+     * @return The number of books written.
+     * @throws IOException if the stream cannot be written, e.g. because the client went away.
+     */
+    long exportNdjson(OutputStream out) throws IOException;
+}
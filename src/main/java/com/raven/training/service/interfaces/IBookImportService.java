@@ -0,0 +1,33 @@
+package com.raven.training.service.interfaces;
+
+import com.raven.training.presentation.dto.book.bulk.BookImportReport;
+
+import java.io.InputStream;
+
+/**
+ * Interface for the bulk book import service.
+ * Defines the contract for loading large numbers of books from a request body
+ * without holding the whole body in memory.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public interface IBookImportService {
+
+    /**
+     * Imports books from newline-delimited JSON, one book request object per line.
+     *
+     * @param body The request body.
+     * @return A {@link BookImportReport} with the accepted and rejected rows of every chunk.
+     */
+    BookImportReport importNdjson(InputStream body);
+
+    /**
+     * Imports books from CSV with a header row naming the book request fields.
+     *
+     * @param body The request body.
+     * @return A {@link BookImportReport} with the accepted and rejected rows of every chunk.
+     */
+    BookImportReport importCsv(InputStream body);
+}
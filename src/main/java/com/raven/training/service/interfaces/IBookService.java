@@ -2,9 +2,16 @@ package com.raven.training.service.interfaces;
 
 import com.raven.training.presentation.dto.book.BookRequest;
 import com.raven.training.presentation.dto.book.BookResponse;
+import com.raven.training.presentation.dto.book.PopularBookResponse;
+import com.raven.training.presentation.dto.book.RelatedBookResponse;
+import com.raven.training.presentation.dto.pagination.CountMode;
+import com.raven.training.presentation.dto.pagination.CountedSlice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -30,6 +37,59 @@ public interface IBookService {
      */
     Page<BookResponse> findAll(String title, String author, String gender, Pageable pageable);
 
+    /**
+     * Retrieves a paginated list of books, computing the total with the requested strategy.
+     * The results can be filtered by title, author, and gender.
+     *
+     * @param title The title of the book to filter by (optional).
+     * @param author The author of the book to filter by (optional).
+     * @param gender The gender of the book to filter by (optional).
+     * @param pageable Pagination and sorting information.
+     * @param countMode The strategy used to compute the total number of books.
+     * @return A {@link CountedSlice} of {@link BookResponse} objects with the total and the strategy used.
+     */
+    CountedSlice<BookResponse> findAll(String title, String author, String gender, Pageable pageable, CountMode countMode);
+
+    /**
+     * Retrieves the books that come after a given identifier, in identifier order.
+     * The results can be filtered by title, author, and gender.
+     *
+     * @param title The title of the book to filter by (optional).
+     * @param author The author of the book to filter by (optional).
+     * @param gender The gender of the book to filter by (optional).
+     * @param after The identifier of the last book already seen.
+     * @param size The maximum number of books to return.
+     * @return A {@link Slice} of {@link BookResponse} objects.
+     */
+    Slice<BookResponse> findAllAfter(String title, String author, String gender, UUID after, int size);
+
+    /**
+     * Searches books by relevance over their title, subtitle, author and publisher.
+     *
+     * @param query The search terms.
+     * @param gender The gender of the book to filter by (optional).
+     * @param pageable Pagination information.
+     * @return A {@link Page} of {@link BookResponse} objects, best matches first.
+     */
+    Page<BookResponse> search(String query, String gender, Pageable pageable);
+
+    /**
+     * Retrieves the books with the most owners.
+     *
+     * @param limit The maximum number of books to return.
+     * @return The most owned books, most owned first.
+     */
+    List<PopularBookResponse> findPopular(int limit);
+
+    /**
+     * Retrieves the books most often owned by the users who own a book.
+     *
+     * @param id The UUID of the book.
+     * @param limit The maximum number of books to return.
+     * @return The related books, most shared owners first.
+     */
+    List<RelatedBookResponse> findAlsoOwned(UUID id, int limit);
+
     /**
      * Finds a book by its unique identifier.
      *
@@ -55,6 +115,18 @@ public interface IBookService {
      */
     BookResponse update(UUID id, BookRequest bookRequest);
 
+    /**
+     * Applies a JSON merge patch (RFC 7396) to an existing book.
+     * Fields present in the patch are written, {@code null} clears them and absent
+     * fields are left untouched.
+     *
+     * @param id The UUID of the book to patch.
+     * @param patch The merge patch, keyed by book field name.
+     * @param expectedVersion The version the client last read, or {@code null} to patch unconditionally.
+     * @return The patched {@link BookResponse} object.
+     */
+    BookResponse patch(UUID id, Map<String, Object> patch, Long expectedVersion);
+
     /**
      * Deletes a book from the repository by its ID.
      *
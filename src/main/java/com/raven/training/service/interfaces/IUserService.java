@@ -1,10 +1,20 @@
 package com.raven.training.service.interfaces;
 
+import com.raven.training.presentation.dto.pagination.CountMode;
+import com.raven.training.presentation.dto.pagination.CountedSlice;
+import com.raven.training.presentation.dto.user.UserBookMembershipResponse;
+import com.raven.training.presentation.dto.user.UserBookResponse;
+import com.raven.training.presentation.dto.user.UserBooksBatchRequest;
+import com.raven.training.presentation.dto.user.UserBooksBatchResponse;
 import com.raven.training.presentation.dto.user.UserRequest;
 import com.raven.training.presentation.dto.user.UserResponse;
+import com.raven.training.util.pagination.CursorCodec;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
+import java.util.Collection;
 import java.util.UUID;
 
 /**
@@ -23,9 +33,30 @@ public interface IUserService {
      * Retrieves a paginated list of all users.
      *
      * @param pageable Pagination and sorting information.
+     * @param withBookIds Whether each user carries the identifiers of their books.
      * @return A {@link Page} of {@link UserResponse} objects.
      */
-    Page<UserResponse> findAll(Pageable pageable);
+    Page<UserResponse> findAll(Pageable pageable, boolean withBookIds);
+
+    /**
+     * Retrieves a paginated list of all users, computing the total with the requested strategy.
+     *
+     * @param pageable Pagination and sorting information.
+     * @param countMode The strategy used to compute the total number of users.
+     * @param withBookIds Whether each user carries the identifiers of their books.
+     * @return A {@link CountedSlice} of {@link UserResponse} objects with the total and the strategy used.
+     */
+    CountedSlice<UserResponse> findAll(Pageable pageable, CountMode countMode, boolean withBookIds);
+
+    /**
+     * Retrieves the users that come after a given identifier, in identifier order.
+     *
+     * @param after The identifier of the last user already seen.
+     * @param size The maximum number of users to return.
+     * @param withBookIds Whether each user carries the identifiers of their books.
+     * @return A {@link Slice} of {@link UserResponse} objects.
+     */
+    Slice<UserResponse> findAllAfter(UUID after, int size, boolean withBookIds);
 
     /**
      * Finds a user by their unique identifier.
@@ -69,6 +100,37 @@ public interface IUserService {
      */
     UserResponse removeBookFromUser(UUID userId, UUID bookId);
 
+    /**
+     * Adds and removes several books of a user's collection in one transaction.
+     *
+     * @param userId The UUID of the user.
+     * @param request The {@link UserBooksBatchRequest} with the books to add and remove.
+     * @return The {@link UserBooksBatchResponse} with the outcome of every book.
+     */
+    UserBooksBatchResponse updateBooks(UUID userId, UserBooksBatchRequest request);
+
+    /**
+     * Tells which of the given books are in a user's collection.
+     *
+     * @param userId The UUID of the user.
+     * @param bookIds The UUIDs of the books to check.
+     * @return The {@link UserBookMembershipResponse} with the answer for every distinct book.
+     */
+    UserBookMembershipResponse checkBooks(UUID userId, Collection<UUID> bookIds);
+
+    /**
+     * Retrieves a page of a user's collection in the order the books were added.
+     *
+     * @param userId The UUID of the user.
+     * @param after The sort key of the last entry already seen, or null for the first page.
+     * @param size The maximum number of entries to return, between 1 and 100.
+     * @param direction Whether the oldest or the newest books come first.
+     * @param expand Whether each entry carries the full book.
+     * @return A {@link Slice} of {@link UserBookResponse} objects.
+     */
+    Slice<UserBookResponse> findBooks(UUID userId, CursorCodec.TimedKey after, int size,
+                                      Sort.Direction direction, boolean expand);
+
     /**
      * Retrieves the details of the currently authenticated user.
      *
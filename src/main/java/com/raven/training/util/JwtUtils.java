@@ -6,10 +6,17 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.raven.training.config.CacheConfig;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.Map;
 import java.util.UUID;
@@ -20,6 +27,13 @@ import java.util.stream.Collectors;
  * This component provides methods for creating, validating, and extracting
  * information from JWTs, essential for handling authentication and
  * authorization in the application.
+ * <p>
+ * The signing algorithm and the verifier are built once and shared, as both are
+ * thread-safe. Tokens that pass verification are kept in the
+ * {@link CacheConfig#VERIFIED_TOKENS} cache under the SHA-256 digest of the token until
+ * they expire, so a client sending the same token again costs a digest and a lookup
+ * instead of decoding the token and checking its signature. A token that fails
+ * verification is never cached.
  *
  * @author Juan Esteban Camacho Barrera
  * @version 1.0
@@ -28,11 +42,28 @@ import java.util.stream.Collectors;
 @Component
 public class JwtUtils {
 
-    @Value("${security.jwt.user.generator}")
-    private String userGenerator;
+    private final String userGenerator;
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final Cache<Object, Object> verifiedTokens;
 
-    @Value("${security.jwt.key.private}")
-    private String privateKey;
+    /**
+     * Creates the utility with its signing key and issuer.
+     *
+     * @param userGenerator The issuer written to and required in every token.
+     * @param privateKey The secret used to sign and verify tokens with HMAC-SHA256.
+     * @param cacheManager The cache manager holding the {@link CacheConfig#VERIFIED_TOKENS} cache.
+     */
+    public JwtUtils(@Value("${security.jwt.user.generator}") String userGenerator,
+                    @Value("${security.jwt.key.private}") String privateKey,
+                    CacheManager cacheManager) {
+        this.userGenerator = userGenerator;
+        this.algorithm = Algorithm.HMAC256(privateKey);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(userGenerator)
+                .build();
+        this.verifiedTokens = CacheConfig.nativeCache(cacheManager, CacheConfig.VERIFIED_TOKENS);
+    }
 
     /**
      * Creates a new JWT based on the provided authentication object.
@@ -43,8 +74,6 @@ public class JwtUtils {
      * @return The generated JWT as a signed string.
      */
     public String createToken(Authentication authentication){
-        Algorithm algorithm = Algorithm.HMAC256(this.privateKey);
-
         String username = authentication.getPrincipal().toString();
         String authorities = authentication.getAuthorities()
                 .stream()
@@ -64,7 +93,8 @@ public class JwtUtils {
 
     /**
      * Validates a given JWT string.
-     * It verifies the token's signature, expiration, and issuer.
+     * It verifies the token's signature, expiration, and issuer, unless the same
+     * token has already been verified and has not expired yet.
      *
      * @param token The JWT string to be validated.
      * @return A {@link DecodedJWT} object if the token is valid.
@@ -72,16 +102,17 @@ public class JwtUtils {
      * (e.g., signature mismatch, expired token, incorrect issuer).
      */
     public DecodedJWT validationToken(String token) throws JWTVerificationException {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(this.privateKey);
-
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .withIssuer(this.userGenerator)
-                    .build();
+        return (DecodedJWT) verifiedTokens.get(digest(token), key -> verifier.verify(token));
+    }
 
-            return verifier.verify(token);
-        } catch (JWTVerificationException exception) {
-            throw exception;
+    /**
+     * Computes the SHA-256 digest of a token, used as its key in the cache of verified tokens.
+     */
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 
@@ -0,0 +1,39 @@
+package com.raven.training.util.id;
+
+import java.util.UUID;
+
+/**
+ * Gives entities and services access to the configured {@link IdGenerator}.
+ * JPA lifecycle callbacks run outside of the Spring context, so the generator is held
+ * statically. It defaults to {@link UuidV7Generator} and is replaced at startup with the
+ * one selected by the {@code ids.generator} property.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public final class EntityIds {
+
+    private static volatile IdGenerator generator = new UuidV7Generator();
+
+    private EntityIds() {
+    }
+
+    /**
+     * Generates a new identifier with the configured generator.
+     *
+     * @return A new, unique {@link UUID}.
+     */
+    public static UUID next() {
+        return generator.next();
+    }
+
+    /**
+     * Replaces the generator used for new identifiers.
+     *
+     * @param idGenerator The generator to use from now on.
+     */
+    public static void use(IdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+}
@@ -0,0 +1,21 @@
+package com.raven.training.util.id;
+
+import java.util.UUID;
+
+/**
+ * Strategy for generating the primary keys of new entities.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    /**
+     * Generates a new identifier.
+     *
+     * @return A new, unique {@link UUID}.
+     */
+    UUID next();
+}
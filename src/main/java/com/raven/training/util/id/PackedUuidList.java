@@ -0,0 +1,88 @@
+package com.raven.training.util.id;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * Immutable list of UUIDs stored as pairs of longs in a single array.
+ * A list of n identifiers takes 16n bytes plus one array header, instead of n
+ * {@link UUID} objects and their references; the objects are only created while
+ * the list is read, for example when it is serialized.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public final class PackedUuidList extends AbstractList<UUID> implements RandomAccess {
+
+    private final long[] bits;
+
+    private PackedUuidList(long[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Creates a builder for a new list.
+     *
+     * @return An empty {@link Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UUID get(int index) {
+        Objects.checkIndex(index, size());
+        return new UUID(bits[2 * index], bits[2 * index + 1]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return bits.length / 2;
+    }
+
+    /**
+     * Accumulates UUIDs for a {@link PackedUuidList}, growing its array as needed.
+     */
+    public static final class Builder {
+
+        private long[] bits = new long[16];
+        private int length;
+
+        private Builder() {
+        }
+
+        /**
+         * Appends an identifier.
+         *
+         * @param id The identifier to append.
+         * @return This builder.
+         */
+        public Builder add(UUID id) {
+            if (length == bits.length) {
+                bits = Arrays.copyOf(bits, bits.length * 2);
+            }
+            bits[length++] = id.getMostSignificantBits();
+            bits[length++] = id.getLeastSignificantBits();
+            return this;
+        }
+
+        /**
+         * Builds the list, trimming the array to the identifiers added.
+         *
+         * @return The {@link PackedUuidList}.
+         */
+        public PackedUuidList build() {
+            return new PackedUuidList(Arrays.copyOf(bits, length));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.raven.training.util.id;
+
+import java.util.UUID;
+
+/**
+ * Generates random (version 4) UUIDs.
+ * Consecutive identifiers land on random pages of the primary key index, so prefer
+ * {@link UuidV7Generator} unless identifiers must not reveal when they were created.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public class RandomUuidGenerator implements IdGenerator {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UUID next() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,166 @@
+package com.raven.training.util.id;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Assigns dense {@code int} indexes to UUIDs, in the order they are first seen, so they can key
+ * primitive arrays instead of boxed maps.
+ * Identifiers are stored as pairs of longs in one array, 16 bytes each, and found through an
+ * open-addressing table of indexes, 4 bytes per slot; no object is kept per identifier.
+ * <p>
+ * A removed identifier releases its index, which the next new identifier takes before any index
+ * never used, so the arrays stay as large as the most identifiers held at once rather than the
+ * most ever added.
+ * <p>
+ * The dictionary is not thread-safe: callers that share it must synchronize.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public final class UuidDictionary {
+
+    private static final int MIN_SLOTS = 16;
+
+    private long[] bits = new long[MIN_SLOTS];
+    private int[] slots = new int[MIN_SLOTS];
+    private int[] released = new int[0];
+    private int releasedCount;
+    private int assigned;
+    private int size;
+
+    /**
+     * Returns the index of an identifier.
+     *
+     * @param id The identifier.
+     * @return The index of the identifier, or -1 if it has never been added.
+     */
+    public int find(UUID id) {
+        int slot = slotOf(id);
+        return slot < 0 ? -1 : slots[slot] - 1;
+    }
+
+    /**
+     * Returns the index of an identifier, adding it if it has never been added.
+     *
+     * @param id The identifier.
+     * @return The index of the identifier: a released index if there is one, or else the lowest index never assigned.
+     */
+    public int intern(UUID id) {
+        int index = find(id);
+        if (index >= 0) {
+            return index;
+        }
+
+        if (2 * (size + 1) > slots.length) {
+            rehash(slots.length * 2);
+        }
+        if (releasedCount > 0) {
+            index = released[--releasedCount];
+        } else {
+            if (2 * assigned == bits.length) {
+                bits = Arrays.copyOf(bits, bits.length * 2);
+            }
+            index = assigned++;
+        }
+        size++;
+        bits[2 * index] = id.getMostSignificantBits();
+        bits[2 * index + 1] = id.getLeastSignificantBits();
+        place(index);
+        return index;
+    }
+
+    /**
+     * Removes an identifier and releases its index for the next identifier added.
+     *
+     * @param id The identifier.
+     * @return The index the identifier had, or -1 if it was not held.
+     */
+    public int remove(UUID id) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return -1;
+        }
+
+        int index = slots[slot] - 1;
+        int mask = slots.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+            int moved = slots[next] - 1;
+            int home = hash(bits[2 * moved], bits[2 * moved + 1]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = slots[next];
+                hole = next;
+            }
+        }
+        slots[hole] = 0;
+
+        if (releasedCount == released.length) {
+            released = Arrays.copyOf(released, Math.max(MIN_SLOTS, released.length * 2));
+        }
+        released[releasedCount++] = index;
+        size--;
+        return index;
+    }
+
+    /**
+     * Returns the identifier of an index.
+     *
+     * @param index An index returned by {@link #intern} and not released since.
+     * @return The identifier.
+     * @throws IndexOutOfBoundsException if the index has never been assigned.
+     */
+    public UUID get(int index) {
+        if (index < 0 || index >= assigned) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return new UUID(bits[2 * index], bits[2 * index + 1]);
+    }
+
+    /**
+     * Returns the number of identifiers held.
+     *
+     * @return The number of identifiers added and not removed.
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slotOf(UUID id) {
+        long mostSigBits = id.getMostSignificantBits();
+        long leastSigBits = id.getLeastSignificantBits();
+        int mask = slots.length - 1;
+        for (int slot = hash(mostSigBits, leastSigBits) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (bits[2 * index] == mostSigBits && bits[2 * index + 1] == leastSigBits) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        int[] previous = slots;
+        slots = new int[capacity];
+        for (int entry : previous) {
+            if (entry != 0) {
+                place(entry - 1);
+            }
+        }
+    }
+
+    private void place(int index) {
+        int mask = slots.length - 1;
+        int slot = hash(bits[2 * index], bits[2 * index + 1]) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = index + 1;
+    }
+
+    private static int hash(long mostSigBits, long leastSigBits) {
+        long hash = (mostSigBits ^ leastSigBits) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
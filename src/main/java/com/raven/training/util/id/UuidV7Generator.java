@@ -0,0 +1,63 @@
+package com.raven.training.util.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered (version 7) UUIDs as defined by RFC 9562.
+ * The 48 most significant bits hold the Unix time in milliseconds and the 12 bits of
+ * {@code rand_a} hold a counter, so identifiers created later always compare greater
+ * and new rows are appended to the right edge of the primary key index.
+ * <p>
+ * Monotonicity holds within the JVM even when thousands of identifiers are generated in
+ * the same millisecond: the timestamp and the counter are advanced together as one 60-bit
+ * value, and when the counter overflows it carries into the timestamp, which then runs
+ * slightly ahead of the clock until the clock catches up. The remaining 62 bits are random,
+ * which keeps identifiers generated by different instances apart.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public class UuidV7Generator implements IdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7L << COUNTER_BITS;
+    private static final long VARIANT = 0x2L << 62;
+    private static final long RANDOM_MASK = (1L << 62) - 1;
+
+    private final AtomicLong lastTimeAndCounter = new AtomicLong();
+    private final LongSupplier clock;
+
+    /**
+     * Creates a generator that reads the system clock.
+     */
+    public UuidV7Generator() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a generator that reads the given clock.
+     *
+     * @param clock Supplies the current Unix time in milliseconds.
+     */
+    public UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UUID next() {
+        long now = clock.getAsLong() << COUNTER_BITS;
+        long timeAndCounter = lastTimeAndCounter.updateAndGet(last -> Math.max(last + 1, now));
+
+        long mostSignificant = (timeAndCounter >>> COUNTER_BITS) << 16 | VERSION | (timeAndCounter & COUNTER_MASK);
+        long leastSignificant = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
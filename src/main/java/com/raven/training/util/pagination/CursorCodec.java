@@ -0,0 +1,105 @@
+package com.raven.training.util.pagination;
+
+import com.raven.training.exception.error.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Encodes and decodes the opaque cursors used by keyset (cursor) pagination.
+ * A cursor carries the sort key of the last row a client has seen, so the next
+ * page can be fetched with a {@code WHERE id > :after} seek instead of an offset.
+ * The encoding is URL-safe Base64 so tokens can be passed as query parameters as-is.
+ * Lists sorted by a timestamp use a {@link TimedKey}, which adds the timestamp of the
+ * last row in microseconds, the precision the database stores.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public final class CursorCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Encodes the identifier of the last row of a page into a cursor.
+     *
+     * @param lastId The identifier of the last row returned to the client.
+     * @return The opaque cursor token.
+     */
+    public static String encode(UUID lastId) {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(lastId.getMostSignificantBits());
+        buffer.putLong(lastId.getLeastSignificantBits());
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a cursor back into the identifier it was built from.
+     *
+     * @param cursor The opaque cursor token sent by the client.
+     * @return The identifier of the last row the client has seen.
+     * @throws InvalidCursorException if the token is not a cursor issued by this API.
+     */
+    public static UUID decode(String cursor) {
+        ByteBuffer buffer = ByteBuffer.wrap(decodeBytes(cursor, 16));
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Encodes the timestamp and identifier of the last row of a page into a cursor.
+     *
+     * @param lastKey The sort key of the last row returned to the client.
+     * @return The opaque cursor token.
+     */
+    public static String encode(TimedKey lastKey) {
+        ByteBuffer buffer = ByteBuffer.allocate(24);
+        buffer.putLong(ChronoUnit.MICROS.between(Instant.EPOCH, lastKey.at()));
+        buffer.putLong(lastKey.id().getMostSignificantBits());
+        buffer.putLong(lastKey.id().getLeastSignificantBits());
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a cursor built with {@link #encode(TimedKey)}.
+     *
+     * @param cursor The opaque cursor token sent by the client.
+     * @return The sort key of the last row the client has seen.
+     * @throws InvalidCursorException if the token is not a timed cursor issued by this API.
+     */
+    public static TimedKey decodeTimed(String cursor) {
+        ByteBuffer buffer = ByteBuffer.wrap(decodeBytes(cursor, 24));
+        Instant at = Instant.EPOCH.plus(buffer.getLong(), ChronoUnit.MICROS);
+        return new TimedKey(at, new UUID(buffer.getLong(), buffer.getLong()));
+    }
+
+    private static byte[] decodeBytes(String cursor, int length) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(cursor);
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidCursorException("The cursor is not valid: " + cursor);
+        }
+
+        if (bytes.length != length) {
+            throw new InvalidCursorException("The cursor is not valid: " + cursor);
+        }
+        return bytes;
+    }
+
+    /**
+     * Sort key of a row in a list ordered by a timestamp, with the identifier breaking ties.
+     *
+     * @param at The timestamp of the row.
+     * @param id The identifier of the row.
+     */
+    public record TimedKey(Instant at, UUID id) {
+    }
+}
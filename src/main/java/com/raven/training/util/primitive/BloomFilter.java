@@ -0,0 +1,147 @@
+package com.raven.training.util.primitive;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings: a fixed bit array that answers whether a string may have been
+ * added, with no false negatives and a false positive rate chosen when it is created.
+ * <p>
+ * Each string sets {@code k} bits derived from one 128-bit hash by double hashing, so a lookup
+ * reads {@code k} words and creates no object. Bits are only ever set, with compare-and-set on
+ * an {@link AtomicLongArray}, so adds and lookups may run concurrently without a lock; a lookup
+ * that races with an add of the same string may miss it, as if the add had not happened yet.
+ * <p>
+ * Adding more strings than the filter was sized for keeps it correct but raises the rate of
+ * false positives, which {@link #expectedFalsePositiveRate()} reports.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public final class BloomFilter {
+
+    private static final long C1 = 0x87C37B91114253D5L;
+    private static final long C2 = 0x4CF5AD432745937FL;
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    private BloomFilter(long bits, int hashes) {
+        int length = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) >>> 6);
+        this.words = new AtomicLongArray(length);
+        this.bits = (long) length << 6;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Creates a filter sized for a number of strings and a false positive rate.
+     *
+     * @param expectedInsertions The number of strings the filter is expected to hold.
+     * @param falsePositiveRate The rate of false positives once it holds that many, between 0 and 1.
+     * @return The empty filter.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1");
+        }
+        long n = Math.max(expectedInsertions, 1);
+        long bits = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    /**
+     * Adds a string.
+     *
+     * @param value The string to add.
+     */
+    public void put(CharSequence value) {
+        long h1 = hash(value, 0);
+        long h2 = hash(value, C2) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                long witness = words.compareAndExchange(word, current, current | mask);
+                if (witness == current) {
+                    break;
+                }
+                current = witness;
+            }
+        }
+    }
+
+    /**
+     * Tells whether a string may have been added.
+     *
+     * @param value The string to look up.
+     * @return {@code false} if the string was certainly never added, {@code true} if it may have been.
+     */
+    public boolean mightContain(CharSequence value) {
+        long h1 = hash(value, 0);
+        long h2 = hash(value, C2) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the size of the bit array.
+     *
+     * @return The number of bits, a multiple of 64.
+     */
+    public long bitSize() {
+        return bits;
+    }
+
+    /**
+     * Returns the number of bits set by each string.
+     *
+     * @return The number of hash functions.
+     */
+    public int hashCount() {
+        return hashes;
+    }
+
+    /**
+     * Estimates the current false positive rate from the share of bits set.
+     *
+     * @return The probability that a string never added is reported as present.
+     */
+    public double expectedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / bits, hashes);
+    }
+
+    /**
+     * 64-bit hash of the UTF-16 code units of a string, mixed as in MurmurHash3.
+     */
+    private static long hash(CharSequence value, long seed) {
+        long h = seed ^ value.length() * C1;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= C1;
+            h = Long.rotateLeft(h, 31) * C2;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,249 @@
+package com.raven.training.util.primitive;
+
+import java.util.Arrays;
+
+/**
+ * Map of non-negative {@code int} keys to positive {@code int} counts, stored without boxing.
+ * Each entry is packed into one {@code long}, the key in the high half and the count in the low
+ * half, in an open-addressing table with linear probing, so an entry takes 8 bytes plus the free
+ * slots kept for probing. A count that drops to zero removes its entry, and removal shifts the
+ * following entries back instead of leaving tombstones, so lookups never slow down with churn.
+ * <p>
+ * The map is not thread-safe: callers that share it must synchronize.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public final class IntCounterMap {
+
+    private static final int MIN_CAPACITY = 4;
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private long[] entries = new long[MIN_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the count of a key.
+     *
+     * @param key The key, zero or greater.
+     * @return The count of the key, or 0 if it is absent.
+     */
+    public int get(int key) {
+        int slot = slotOf(key);
+        return slot < 0 ? 0 : count(entries[slot]);
+    }
+
+    /**
+     * Tells whether a key has a count.
+     *
+     * @param key The key, zero or greater.
+     * @return {@code true} if the key has a positive count.
+     */
+    public boolean containsKey(int key) {
+        return slotOf(key) >= 0;
+    }
+
+    /**
+     * Adds a delta to the count of a key. A count that drops to zero or below removes the key,
+     * and a negative delta on an absent key does nothing.
+     *
+     * @param key The key, zero or greater.
+     * @param delta The amount to add, which may be negative.
+     * @return The new count of the key, or 0 if it is absent after the change.
+     */
+    public int add(int key, int delta) {
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            int count = count(entries[slot]) + delta;
+            if (count <= 0) {
+                removeAt(slot);
+                return 0;
+            }
+            entries[slot] = pack(key, count);
+            return count;
+        }
+        if (delta <= 0) {
+            return 0;
+        }
+
+        if (4 * (size + 1) > 3 * entries.length) {
+            resize(entries.length * 2);
+        }
+        insert(pack(key, delta));
+        size++;
+        return delta;
+    }
+
+    /**
+     * Returns the number of keys with a count.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Calls an action for every key and its count, in no particular order.
+     *
+     * @param action The action to call.
+     */
+    public void forEach(EntryConsumer action) {
+        for (long entry : entries) {
+            if (entry != 0) {
+                action.accept(key(entry), count(entry));
+            }
+        }
+    }
+
+    /**
+     * Returns the keys with the highest counts, selected with a bounded heap in one pass,
+     * so the cost grows with the size of the map but the memory only with the limit.
+     *
+     * @param limit The maximum number of keys to return.
+     * @return The keys, highest count first; ties are ordered by ascending key.
+     */
+    public int[] topKeys(int limit) {
+        int length = Math.min(Math.max(limit, 0), size);
+        long[] heap = new long[length];
+        if (length == 0) {
+            return new int[0];
+        }
+
+        int filled = 0;
+        for (long entry : entries) {
+            if (entry == 0) {
+                continue;
+            }
+            long rank = (entry & COUNT_MASK) << 32 | (Integer.MAX_VALUE - key(entry));
+            if (filled < length) {
+                heap[filled] = rank;
+                siftUp(heap, filled++);
+            } else if (rank > heap[0]) {
+                heap[0] = rank;
+                siftDown(heap, length);
+            }
+        }
+
+        Arrays.sort(heap);
+        int[] keys = new int[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = Integer.MAX_VALUE - (int) heap[length - 1 - i];
+        }
+        return keys;
+    }
+
+    private int slotOf(int key) {
+        int mask = entries.length - 1;
+        for (int slot = home(key, mask); entries[slot] != 0; slot = (slot + 1) & mask) {
+            if (key(entries[slot]) == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long entry) {
+        int mask = entries.length - 1;
+        int slot = home(key(entry), mask);
+        while (entries[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        entries[slot] = entry;
+    }
+
+    private void resize(int capacity) {
+        long[] previous = entries;
+        entries = new long[capacity];
+        for (long entry : previous) {
+            if (entry != 0) {
+                insert(entry);
+            }
+        }
+    }
+
+    /**
+     * Empties a slot and moves back every following entry of the probe run that may take it.
+     */
+    private void removeAt(int slot) {
+        int mask = entries.length - 1;
+        int hole = slot;
+        for (int next = (slot + 1) & mask; entries[next] != 0; next = (next + 1) & mask) {
+            int home = home(key(entries[next]), mask);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                entries[hole] = entries[next];
+                hole = next;
+            }
+        }
+        entries[hole] = 0;
+        size--;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int length) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= length) {
+                return;
+            }
+            if (child + 1 < length && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[index] <= heap[child]) {
+                return;
+            }
+            swap(heap, index, child);
+            index = child;
+        }
+    }
+
+    private static void swap(long[] heap, int a, int b) {
+        long value = heap[a];
+        heap[a] = heap[b];
+        heap[b] = value;
+    }
+
+    private static int home(int key, int mask) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static long pack(int key, int count) {
+        return (long) (key + 1) << 32 | count;
+    }
+
+    private static int key(long entry) {
+        return (int) (entry >>> 32) - 1;
+    }
+
+    private static int count(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Receives the entries of an {@link IntCounterMap}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        /**
+         * Receives one entry.
+         *
+         * @param key The key.
+         * @param count The count of the key, always positive.
+         */
+        void accept(int key, int count);
+    }
+}
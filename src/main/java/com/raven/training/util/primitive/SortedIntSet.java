@@ -0,0 +1,94 @@
+package com.raven.training.util.primitive;
+
+import java.util.Arrays;
+
+/**
+ * Growable set of {@code int} values kept sorted in one array, 4 bytes per value.
+ * Membership is a binary search, and adding or removing shifts the values after it,
+ * which is cheap for the small sets it is meant for.
+ * <p>
+ * The set is not thread-safe: callers that share it must synchronize.
+ *
+ * @author Juan Esteban Camacho Barrera
+ * @version 1.0
+ * @since 2025-08-05
+ */
+public final class SortedIntSet {
+
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] values = new int[MIN_CAPACITY];
+    private int size;
+
+    /**
+     * Adds a value.
+     *
+     * @param value The value to add.
+     * @return {@code true} if the value was added, {@code false} if it was already present.
+     */
+    public boolean add(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0) {
+            return false;
+        }
+
+        index = -index - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1));
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param value The value to remove.
+     * @return {@code true} if the value was removed, {@code false} if it was not present.
+     */
+    public boolean remove(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Tells whether a value is present.
+     *
+     * @param value The value to look for.
+     * @return {@code true} if the value is present.
+     */
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    /**
+     * Returns the value at a position of the sorted order.
+     *
+     * @param index The position, between 0 and {@link #size()}.
+     * @return The value.
+     * @throws IndexOutOfBoundsException if the position is out of range.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return The number of values.
+     */
+    public int size() {
+        return size;
+    }
+}
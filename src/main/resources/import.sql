@@ -0,0 +1,18 @@
+-- Executed by Hibernate right after it creates the schema (ddl-auto=create / create-drop).
+-- Keep one statement per line.
+
+-- Full-text search over books: Postgres maintains the vector on every insert and update.
+ALTER TABLE book ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (setweight(to_tsvector('simple', coalesce(title, '')), 'A') || setweight(to_tsvector('simple', coalesce(subtitle, '')), 'B') || setweight(to_tsvector('simple', coalesce(author, '')), 'C') || setweight(to_tsvector('simple', coalesce(publisher, '')), 'D')) STORED;
+CREATE INDEX idx_book_search_vector ON book USING GIN (search_vector);
+
+-- Books are looked up by ISBN, one at a time and in batches.
+CREATE INDEX idx_book_isbn ON book (isbn);
+
+-- Collections are listed by the time each book was added; the column is not mapped, so inserts rely on its default.
+ALTER TABLE user_books ADD COLUMN added_at timestamp(6) with time zone NOT NULL DEFAULT now();
+-- Hibernate keys user_books by (book_id, user_id); collections are read by user in added order, and the index covers those reads.
+CREATE INDEX idx_user_books_user ON user_books (user_id, added_at, book_id);
+-- Number of users owning each book, maintained incrementally; the leaderboard reads it through the owners index.
+DROP TABLE IF EXISTS book_popularity;
+CREATE TABLE book_popularity (book_id uuid PRIMARY KEY REFERENCES book (id) ON DELETE CASCADE, owners bigint NOT NULL);
+CREATE INDEX idx_book_popularity_owners ON book_popularity (owners DESC, book_id);
@@ -0,0 +1,152 @@
+package com.raven.training.config;
+
+import com.raven.training.mapper.IBookMapper;
+import com.raven.training.persistence.entity.AuthUser;
+import com.raven.training.persistence.entity.Book;
+import com.raven.training.persistence.entity.User;
+import com.raven.training.persistence.repository.IAuthUserRepositoryCustom;
+import com.raven.training.persistence.repository.IBookRepository;
+import com.raven.training.presentation.dto.book.BookRequest;
+import com.raven.training.presentation.dto.book.BookResponse;
+import com.raven.training.service.implementation.BookCoOccurrenceIndex;
+import com.raven.training.service.implementation.BookPopularityTracker;
+import com.raven.training.service.implementation.BookServiceImpl;
+import com.raven.training.service.interfaces.IBookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.BeanFactoryCacheOperationSourceAdvisor;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {CacheConfig.class, BookServiceImpl.class})
+@DisplayName("Integration tests for CacheConfig")
+class CacheConfigTest {
+
+    @MockitoBean
+    private IBookRepository bookRepository;
+
+    @MockitoBean
+    private IBookMapper bookMapper;
+
+    @MockitoBean
+    private BookPopularityTracker popularityTracker;
+
+    @MockitoBean
+    private BookCoOccurrenceIndex coOccurrenceIndex;
+
+    @Autowired
+    private IBookService bookService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private BeanFactoryCacheOperationSourceAdvisor cacheAdvisor;
+
+    private final UUID bookId = UUID.randomUUID();
+    private Book book;
+    private BookResponse bookResponse;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        book = Book.builder().id(bookId).title("Clean Code").build();
+        bookResponse = new BookResponse(bookId, null, null, null, "Clean Code", null, null, null, null, null, 0L);
+
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(bookMapper.toResponse(book)).thenReturn(bookResponse);
+    }
+
+    @Test
+    @DisplayName("Should register every cache with statistics enabled")
+    void cacheManager_ShouldRegisterCachesWithStatistics() {
+        for (String name : new String[]{CacheConfig.BOOK_COUNTS, CacheConfig.USER_COUNTS, CacheConfig.BOOKS, CacheConfig.USERS, CacheConfig.BOOK_MEMBERSHIP,
+                CacheConfig.VERIFIED_TOKENS, CacheConfig.USER_DETAILS}) {
+            assertNotNull(cacheManager.getCache(name), "The cache " + name + " should be registered");
+            assertTrue(CacheConfig.nativeCache(cacheManager, name).policy().isRecordingStats(),
+                    "The cache " + name + " should record statistics");
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve repeated book reads from the cache")
+    void findById_WhenCalledTwice_ShouldHitRepositoryOnce() {
+        assertEquals(bookResponse, bookService.findById(bookId));
+        assertEquals(bookResponse, bookService.findById(bookId));
+
+        verify(bookRepository, times(1)).findById(bookId);
+
+        assertEquals(1, CacheConfig.nativeCache(cacheManager, CacheConfig.BOOKS).stats().hitCount(), "The second read should be a cache hit");
+    }
+
+    @Test
+    @DisplayName("Should evict the cached book when it is updated")
+    void update_ShouldEvictCachedBook() {
+        BookRequest request = new BookRequest(null, null, null, "Clean Code 2", null, null, null, null, null);
+        when(bookRepository.save(book)).thenReturn(book);
+
+        bookService.findById(bookId);
+        bookService.update(bookId, request);
+        bookService.findById(bookId);
+
+        verify(bookRepository, times(3)).findById(bookId);
+    }
+
+    @Test
+    @DisplayName("Should evict the cached book when it is deleted")
+    void delete_ShouldEvictCachedBook() {
+        bookService.findById(bookId);
+        bookService.delete(bookId);
+
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS).get(bookId), "The deleted book should not stay cached");
+    }
+
+    @Test
+    @DisplayName("Should keep the cached book until the transaction deleting it commits")
+    void delete_InTransaction_ShouldEvictAfterCommit() {
+        bookService.findById(bookId);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookService.delete(bookId);
+
+            assertNotNull(cacheManager.getCache(CacheConfig.BOOKS).get(bookId),
+                    "The book should stay cached until the transaction commits");
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS).get(bookId), "The deleted book should be evicted on commit");
+    }
+
+    @Test
+    @DisplayName("Should evict the cached user count when a user registers")
+    void register_ShouldEvictUserCount() {
+        ProxyFactory factory = new ProxyFactory(mock(IAuthUserRepositoryCustom.class));
+        factory.addInterface(IAuthUserRepositoryCustom.class);
+        factory.addAdvisor(cacheAdvisor);
+        IAuthUserRepositoryCustom repository = (IAuthUserRepositoryCustom) factory.getProxy();
+        cacheManager.getCache(CacheConfig.USER_COUNTS).put(SimpleKey.EMPTY, 1L);
+
+        repository.register(AuthUser.builder().build(), User.builder().build());
+
+        assertNull(cacheManager.getCache(CacheConfig.USER_COUNTS).get(SimpleKey.EMPTY),
+                "The user count should be read again after a registration");
+    }
+}
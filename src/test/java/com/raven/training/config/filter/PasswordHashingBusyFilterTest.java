@@ -0,0 +1,126 @@
+package com.raven.training.config.filter;
+
+import com.raven.training.config.security.BoundedPasswordEncoder;
+import com.raven.training.config.security.SecurityConfig;
+import com.raven.training.presentation.controller.UserController;
+import com.raven.training.service.implementation.UserDetailServiceImpl;
+import com.raven.training.service.interfaces.IUserService;
+import com.raven.training.util.JwtUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.convention.TestBean;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserController.class)
+@Import(SecurityConfig.class)
+@DisplayName("Tests for PasswordHashingBusyFilter in the security filter chain")
+class PasswordHashingBusyFilterTest {
+
+    private static final SimpleMeterRegistry REGISTRY = new SimpleMeterRegistry();
+    private static CountDownLatch started;
+    private static CountDownLatch release;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @TestBean(name = "passwordEncoder", methodName = "boundedEncoder")
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private IUserService userService;
+
+    @MockitoBean
+    private UserDetailServiceImpl userDetailService;
+
+    @MockitoBean
+    private UserCache userCache;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    /**
+     * Bounded encoder with one thread and one queue slot, whose hashes wait for the {@code release} latch.
+     */
+    static PasswordEncoder boundedEncoder() {
+        return new BoundedPasswordEncoder(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        }, 1, 1, Duration.ofSeconds(2), REGISTRY);
+    }
+
+    @BeforeEach
+    void setUp() {
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        when(userDetailService.loadUserByUsername("smoke"))
+                .thenReturn(User.withUsername("smoke").password("hashed:secret").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should answer an HTTP Basic request with 503 and Retry-After while the hashing pool is full")
+    void basicRequest_WhenPoolSaturated_ShouldReturnServiceUnavailable() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS), "The first hash should start");
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("second"));
+        while (REGISTRY.get("executor.queued").tag("name", "passwordHashing").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        mockMvc.perform(get("/api/v1/users/logged").with(httpBasic("smoke", "secret")))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.errors[0].code").value("0400"));
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should authenticate an HTTP Basic request while the hashing pool has room")
+    void basicRequest_WhenPoolFree_ShouldAuthenticate() throws Exception {
+        release.countDown();
+
+        mockMvc.perform(get("/api/v1/users/logged").with(httpBasic("smoke", "secret")))
+                .andExpect(status().isOk());
+    }
+}
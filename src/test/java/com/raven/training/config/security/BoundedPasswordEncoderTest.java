@@ -0,0 +1,112 @@
+package com.raven.training.config.security;
+
+import com.raven.training.exception.error.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for BoundedPasswordEncoder")
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    /**
+     * Encoder that waits for a latch before hashing, so tests can keep the pool busy.
+     */
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should hash on the pool thread and record the wait and hash times")
+    void encode_ShouldRunOnPoolAndRecordMetrics() {
+        CountDownLatch released = new CountDownLatch(0);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(new CountDownLatch(1), released), 2, 2,
+                Duration.ofSeconds(1), registry);
+
+        assertEquals("hashed:secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "hashed:secret"));
+        assertFalse(encoder.matches("other", "hashed:secret"));
+
+        assertEquals(1, registry.get("password.hashing.time").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("password.hashing.wait").tag("operation", "matches").timer().count());
+        assertEquals(0, registry.get("password.hashing.rejected").counter().count());
+        assertNotNull(registry.find("executor.pool.core").tag("name", "passwordHashing").gauge(),
+                "The pool should be published as executor metrics");
+    }
+
+    @Test
+    @DisplayName("Should reject at once when every thread is busy and the queue is full")
+    void encode_WhenSaturated_ShouldRejectWithRetryAfter() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1,
+                Duration.ofSeconds(3), registry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS), "The first hash should start");
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (registry.get("executor.queued").tag("name", "passwordHashing").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        PasswordHashingBusyException exception =
+                assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("third"));
+        assertEquals(Duration.ofSeconds(3), exception.getRetryAfter());
+        assertEquals(1, registry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS), "Queued hashes should still complete");
+    }
+
+    @Test
+    @DisplayName("Should rethrow the exceptions of the delegate encoder unchanged")
+    void encode_WhenDelegateFails_ShouldRethrowException() {
+        encoder = new BoundedPasswordEncoder(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new IllegalArgumentException("rawPassword cannot be null");
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        }, 1, 1, Duration.ofSeconds(1), registry);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> encoder.encode(null));
+        assertEquals("rawPassword cannot be null", exception.getMessage());
+    }
+}
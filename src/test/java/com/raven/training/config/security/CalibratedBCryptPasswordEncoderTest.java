@@ -0,0 +1,45 @@
+package com.raven.training.config.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for CalibratedBCryptPasswordEncoder")
+class CalibratedBCryptPasswordEncoderTest {
+
+    @Test
+    @DisplayName("Should choose a cost between the bounds")
+    void calibrate_ShouldStayWithinBounds() {
+        assertEquals(4, CalibratedBCryptPasswordEncoder.calibrate(Duration.ofNanos(1), 4, 6).getStrength());
+        assertEquals(6, CalibratedBCryptPasswordEncoder.calibrate(Duration.ofHours(1), 4, 6).getStrength());
+
+        int strength = CalibratedBCryptPasswordEncoder.calibrate(Duration.ofMillis(5), 4, 8).getStrength();
+        assertTrue(strength >= 4 && strength <= 8, "The calibrated cost should be within the bounds");
+    }
+
+    @Test
+    @DisplayName("Should hash with the chosen cost and match its own hashes")
+    void encode_ShouldUseChosenCost() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$05$"), "The hash should carry the chosen cost");
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.upgradeEncoding(hash), "A hash with the chosen cost is current");
+    }
+
+    @Test
+    @DisplayName("Should report hashes cheaper or more expensive than the chosen cost")
+    void upgradeEncoding_WhenCostDiffers_ShouldReturnTrue() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.upgradeEncoding(new CalibratedBCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new CalibratedBCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(null));
+        assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+    }
+}
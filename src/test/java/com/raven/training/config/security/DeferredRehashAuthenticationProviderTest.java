@@ -0,0 +1,102 @@
+package com.raven.training.config.security;
+
+import com.raven.training.exception.error.PasswordHashingBusyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for DeferredRehashAuthenticationProvider")
+class DeferredRehashAuthenticationProviderTest {
+
+    private static final String OUTDATED_HASH = "$2a$04$outdatedhash";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private UserDetailsPasswordService userDetailsPasswordService;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private DeferredRehashAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new DeferredRehashAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
+        provider.setForcePrincipalAsString(true);
+
+        lenient().when(passwordEncoder.encode("userNotFoundPassword")).thenReturn("$2a$04$timingprotection");
+        UserDetails user = User.withUsername("smoke").password(OUTDATED_HASH).build();
+        when(userDetailsService.loadUserByUsername("smoke")).thenReturn(user);
+        when(passwordEncoder.matches("secret", OUTDATED_HASH)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(OUTDATED_HASH)).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should authenticate and keep the outdated hash when the hashing pool is full")
+    void authenticate_WhenRehashRejected_ShouldSucceedWithoutUpgrade() {
+        when(passwordEncoder.encode("secret")).thenThrow(new PasswordHashingBusyException(Duration.ofSeconds(1)));
+
+        Authentication result = provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("smoke", "secret"));
+
+        assertTrue(result.isAuthenticated(), "A verified password should authenticate");
+        assertEquals("smoke", result.getPrincipal());
+        verify(userDetailsPasswordService, never()).updatePassword(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should map the authorities the same way whether or not the hash is replaced")
+    void authenticate_WhenRehashRejected_ShouldMapAuthorities() {
+        provider.setAuthoritiesMapper(authorities -> List.of(new SimpleGrantedAuthority("ROLE_MAPPED")));
+        when(passwordEncoder.encode("secret"))
+                .thenThrow(new PasswordHashingBusyException(Duration.ofSeconds(1)))
+                .thenReturn("{bcrypt}$2a$12$newhash");
+        when(userDetailsPasswordService.updatePassword(any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Authentication deferred = provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("smoke", "secret"));
+        Authentication upgraded = provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("smoke", "secret"));
+
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_MAPPED")), List.copyOf(deferred.getAuthorities()));
+        assertEquals(upgraded.getAuthorities(), deferred.getAuthorities());
+    }
+
+    @Test
+    @DisplayName("Should store the new hash when the hashing pool has room")
+    void authenticate_WhenRehashAccepted_ShouldUpgrade() {
+        when(passwordEncoder.encode("secret")).thenReturn("{bcrypt}$2a$12$newhash");
+        when(userDetailsPasswordService.updatePassword(any(), eq("{bcrypt}$2a$12$newhash")))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Authentication result = provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("smoke", "secret"));
+
+        assertTrue(result.isAuthenticated());
+        verify(userDetailsPasswordService, times(1)).updatePassword(any(), eq("{bcrypt}$2a$12$newhash"));
+    }
+}
@@ -1,6 +1,12 @@
 package com.raven.training.exception.handler;
 
+import com.raven.training.exception.error.BookVersionMismatchException;
+import com.raven.training.exception.error.InvalidCursorException;
+import com.raven.training.exception.error.InvalidPageSizeException;
+import com.raven.training.exception.error.InvalidQueryException;
+import com.raven.training.exception.error.PasswordHashingBusyException;
 import com.raven.training.persistence.model.ApiError;
+import com.raven.training.presentation.dto.pagination.CountMode;
 import com.raven.training.persistence.model.ErrorResponse;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,12 +14,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -92,6 +101,90 @@ class GlobalExceptionHandlerTest {
         assertTrue(errorResponse.getErrors().isEmpty(), "Errors list should be empty");
     }
 
+    @Test
+    @DisplayName("Should handle InvalidCursorException and return BAD_REQUEST")
+    void invalidCursorException_ShouldReturnBadRequestErrorResponse() {
+        InvalidCursorException exception = new InvalidCursorException("The cursor is not valid: abc");
+
+        ResponseEntity<ErrorResponse> responseEntity = globalExceptionHandler.invalidInputException(exception);
+
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        ErrorResponse errorResponse = responseEntity.getBody();
+        assertNotNull(errorResponse);
+        assertEquals(1, errorResponse.getErrors().size());
+        assertEquals("0100", errorResponse.getErrors().get(0).getCode());
+        assertEquals("The cursor is not valid: abc", errorResponse.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should handle InvalidPageSizeException and return BAD_REQUEST")
+    void invalidPageSizeException_ShouldReturnBadRequestErrorResponse() {
+        InvalidPageSizeException exception = new InvalidPageSizeException("The page size must be between 1 and 100: 0");
+
+        ResponseEntity<ErrorResponse> responseEntity = globalExceptionHandler.invalidInputException(exception);
+
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        ErrorResponse errorResponse = responseEntity.getBody();
+        assertNotNull(errorResponse);
+        assertEquals("0100", errorResponse.getErrors().get(0).getCode());
+        assertEquals("The page size must be between 1 and 100: 0", errorResponse.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should handle InvalidQueryException and return BAD_REQUEST")
+    void invalidQueryException_ShouldReturnBadRequestErrorResponse() {
+        InvalidQueryException exception = new InvalidQueryException("The full-text query q cannot be combined with after");
+
+        ResponseEntity<ErrorResponse> responseEntity = globalExceptionHandler.invalidInputException(exception);
+
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        ErrorResponse errorResponse = responseEntity.getBody();
+        assertNotNull(errorResponse);
+        assertEquals("0100", errorResponse.getErrors().get(0).getCode());
+        assertEquals("The full-text query q cannot be combined with after", errorResponse.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should handle BookVersionMismatchException and return PRECONDITION_FAILED")
+    void versionMismatchException_ShouldReturnPreconditionFailedErrorResponse() {
+        ResponseEntity<ErrorResponse> responseEntity =
+                globalExceptionHandler.versionMismatchException(new BookVersionMismatchException());
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, responseEntity.getStatusCode());
+        ErrorResponse errorResponse = responseEntity.getBody();
+        assertNotNull(errorResponse);
+        assertEquals("0300", errorResponse.getErrors().get(0).getCode());
+    }
+
+    @Test
+    @DisplayName("Should handle PasswordHashingBusyException and return SERVICE_UNAVAILABLE with Retry-After")
+    void passwordHashingBusyException_ShouldReturnServiceUnavailableWithRetryAfter() {
+        ResponseEntity<ErrorResponse> responseEntity = globalExceptionHandler.passwordHashingBusyException(
+                new PasswordHashingBusyException(Duration.ofMillis(1500)));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        assertEquals("2", responseEntity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER),
+                "Retry-After should be rounded up to whole seconds");
+        ErrorResponse errorResponse = responseEntity.getBody();
+        assertNotNull(errorResponse);
+        assertEquals("0400", errorResponse.getErrors().get(0).getCode());
+    }
+
+    @Test
+    @DisplayName("Should handle MethodArgumentTypeMismatchException and return BAD_REQUEST")
+    void methodArgumentTypeMismatchException_ShouldReturnBadRequestErrorResponse() {
+        MethodArgumentTypeMismatchException exception =
+                new MethodArgumentTypeMismatchException("SOME", CountMode.class, "count", null, null);
+
+        ResponseEntity<ErrorResponse> responseEntity = globalExceptionHandler.methodArgumentTypeMismatchException(exception);
+
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        ErrorResponse errorResponse = responseEntity.getBody();
+        assertNotNull(errorResponse);
+        assertEquals("0100", errorResponse.getErrors().get(0).getCode());
+        assertEquals("Invalid value 'SOME' for parameter 'count'", errorResponse.getErrors().get(0).getMessage());
+    }
+
     @Test
     @DisplayName("Should handle BookNotFoundException and return NOT_FOUND")
     void resourceNotFoundException_BookNotFound_ShouldReturnNotFoundErrorResponse() {
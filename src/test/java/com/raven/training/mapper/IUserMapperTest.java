@@ -17,8 +17,10 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -60,7 +62,7 @@ class IUserMapperTest {
                 .userName("juan")
                 .name("Juan Pérez")
                 .birthDate(LocalDate.of(1990, 1, 1))
-                .books(new ArrayList<>(Arrays.asList(book1, book2)))
+                .books(new HashSet<>(Arrays.asList(book1, book2)))
                 .build();
 
         userMapper = IUserMapper.INSTANCE;
@@ -80,6 +82,21 @@ class IUserMapperTest {
         assertTrue(result.bookIds().contains(book2.getId()));
     }
 
+    @Test
+    @DisplayName("Should take the book ids from the argument without touching the user's books")
+    void shouldMapUserWithSeparateBookIds() {
+        User lazyUser = User.builder()
+                .id(UUID.randomUUID())
+                .userName("juan")
+                .books(null)
+                .build();
+
+        UserResponse result = userMapper.toResponse(lazyUser, List.of(book1.getId()));
+
+        assertEquals(lazyUser.getId(), result.id());
+        assertEquals(List.of(book1.getId()), result.bookIds());
+    }
+
     @Test
     @DisplayName("Should correctly map a list of User to UserResponse")
     void shouldMapUserListToUserResponseList() {
@@ -108,7 +125,7 @@ class IUserMapperTest {
     @Test
     @DisplayName("Should correctly map an empty list of books")
     void shouldMapEmptyBookList() {
-        user.setBooks(List.of());
+        user.setBooks(Set.of());
 
         UserResponse result = userMapper.toResponse(user);
 
@@ -117,6 +134,17 @@ class IUserMapperTest {
         assertTrue(result.bookIds().isEmpty());
     }
     
+    @Test
+    @DisplayName("Should map only the book count and the books link when given a count")
+    void shouldMapBookCountWithoutBookIds() {
+        UserResponse result = userMapper.toResponse(user, 100_000L);
+
+        assertNotNull(result);
+        assertNull(result.bookIds(), "The book ids should not be embedded");
+        assertEquals(100_000L, result.bookCount());
+        assertEquals("/api/v1/users/" + user.getId() + "/books", result.booksLink());
+    }
+
     @Test
     @DisplayName("Should correctly map a list of books to their IDs")
     void shouldMapBooksToBookIds() {
@@ -5,9 +5,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,7 +45,7 @@ class UserTest {
                 .userName("maria.lopez")
                 .name("María López")
                 .birthDate(testBirthDate)
-                .books(new ArrayList<>(Arrays.asList(book1, book2)))
+                .books(new HashSet<>(Arrays.asList(book1, book2)))
                 .build();
     }
 
@@ -114,7 +114,7 @@ class UserTest {
     @Test
     @DisplayName("Should update books when a new list is set")
     void testSetBooks_WhenNewListSet_ShouldUpdateBooks() {
-        List<Book> newList = new ArrayList<>();
+        Set<Book> newList = new HashSet<>();
         Book anotherBook = Book.builder()
                 .id(UUID.randomUUID())
                 .title("El amor en los tiempos del cólera")
@@ -5,6 +5,7 @@ import com.raven.training.presentation.dto.login.AuthLoginRequest;
 import com.raven.training.presentation.dto.login.AuthLoginResponse;
 import com.raven.training.presentation.dto.register.AuthRegisterRequest;
 import com.raven.training.presentation.dto.register.AuthRegisterResponse;
+import com.raven.training.presentation.dto.register.AvailabilityResponse;
 import com.raven.training.service.implementation.UserDetailServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -116,4 +117,17 @@ class AuthUserControllerTest {
 
         verify(userDetailService, times(1)).registerUser(any(AuthRegisterRequest.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should answer only the availability that was asked about")
+    void availability_ShouldReturnOnlyRequestedFields() throws Exception {
+        when(userDetailService.checkAvailability("newuser", null)).thenReturn(new AvailabilityResponse(true, null));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/auth/availability").param("username", "newuser"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usernameAvailable").value(true))
+                .andExpect(jsonPath("$.emailAvailable").doesNotExist());
+
+        verify(userDetailService, times(1)).checkAvailability("newuser", null);
+    }
+}
@@ -1,12 +1,28 @@
 package com.raven.training.presentation.controller;
 
+import com.raven.training.exception.error.BookVersionMismatchException;
+import com.raven.training.exception.error.InvalidQueryException;
 import com.raven.training.persistence.repository.IBookRepository;
 import com.raven.training.presentation.dto.book.BookRequest;
 import com.raven.training.presentation.dto.book.BookResponse;
+import com.raven.training.presentation.dto.book.PopularBookResponse;
+import com.raven.training.presentation.dto.book.RelatedBookResponse;
+import com.raven.training.presentation.dto.book.bulk.BookImportChunkReport;
+import com.raven.training.presentation.dto.book.bulk.BookImportRejection;
+import com.raven.training.presentation.dto.book.bulk.BookImportReport;
 import com.raven.training.presentation.dto.book.bookexternal.BookResponseDTO;
+import com.raven.training.presentation.dto.book.bookexternal.IsbnBatchRequest;
+import com.raven.training.presentation.dto.book.bookexternal.IsbnBatchResponse;
+import com.raven.training.presentation.dto.book.bookexternal.IsbnBatchResult;
+import com.raven.training.presentation.dto.book.bookexternal.IsbnLookupStatus;
+import com.raven.training.presentation.dto.pagination.CountMode;
+import com.raven.training.presentation.dto.pagination.CountedSlice;
 import com.raven.training.presentation.dto.pagination.CustomPageableResponse;
 import com.raven.training.service.implementation.OpenLibraryService;
+import com.raven.training.service.interfaces.IBookExportService;
+import com.raven.training.service.interfaces.IBookImportService;
 import com.raven.training.service.interfaces.IBookService;
+import com.raven.training.util.pagination.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,13 +31,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,6 +68,12 @@ class BookControllerTest {
     @Mock
     private IBookRepository bookRepository;
 
+    @Mock
+    private IBookImportService bookImportService;
+
+    @Mock
+    private IBookExportService bookExportService;
+
     @InjectMocks
     private BookController controller;
 
@@ -77,7 +110,8 @@ class BookControllerTest {
                 "Prentice Hall",
                 "2008",
                 464,
-                "9780132350884"
+                "9780132350884",
+                0L
         );
     }
 
@@ -90,7 +124,7 @@ class BookControllerTest {
 
         when(bookService.findAll(eq(null), eq(null), eq(null), any(Pageable.class))).thenReturn(expectedPage);
 
-        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, null, null, null);
+        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, null, null, null, null, null, CountMode.EXACT);
 
         assertNotNull(response, "The response should not be null");
         assertEquals(HttpStatus.OK, response.getStatusCode(), "The status code should be 200 OK");
@@ -118,7 +152,7 @@ class BookControllerTest {
 
         when(bookService.findAll(eq(null), eq(null), eq(null), any(Pageable.class))).thenReturn(emptyPage);
 
-        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, null, null, null);
+        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, null, null, null, null, null, CountMode.EXACT);
 
         assertNotNull(response, "The response should not be null");
         assertEquals(HttpStatus.OK, response.getStatusCode(), "The status code should be 200 OK");
@@ -148,7 +182,7 @@ class BookControllerTest {
 
         when(bookService.findAll(eq(titleFilter), eq(null), eq(null), any(Pageable.class))).thenReturn(expectedPage);
 
-        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, titleFilter, null, null);
+        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, titleFilter, null, null, null, null, CountMode.EXACT);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -178,7 +212,7 @@ class BookControllerTest {
 
         when(bookService.findAll(eq(null), eq(authorFilter), eq(null), any(Pageable.class))).thenReturn(expectedPage);
 
-        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, null, authorFilter, null);
+        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, null, authorFilter, null, null, null, CountMode.EXACT);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -209,7 +243,7 @@ class BookControllerTest {
 
         when(bookService.findAll(eq(titleFilter), eq(authorFilter), eq(null), any(Pageable.class))).thenReturn(expectedPage);
 
-        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, titleFilter, authorFilter, null);
+        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, titleFilter, authorFilter, null, null, null, CountMode.EXACT);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -238,7 +272,7 @@ class BookControllerTest {
 
         when(bookService.findAll(eq(titleFilter), eq(null), eq(null), any(Pageable.class))).thenReturn(emptyPage);
 
-        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, titleFilter, null, null);
+        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, titleFilter, null, null, null, null, CountMode.EXACT);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -269,7 +303,7 @@ class BookControllerTest {
 
         when(bookService.findAll(eq(emptyTitle), eq(emptyAuthor), eq(emptyGender), any(Pageable.class))).thenReturn(expectedPage);
 
-        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, emptyTitle, emptyAuthor, emptyGender);
+        ResponseEntity<CustomPageableResponse<BookResponse>> response = bookController.findAll(0, 10, emptyTitle, emptyAuthor, emptyGender, null, null, CountMode.EXACT);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -300,9 +334,34 @@ class BookControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertBookEquals(bookResponse, response.getBody());
+        assertEquals("\"0\"", response.getHeaders().getETag(), "Should expose the version as a strong ETag");
         verify(bookService, times(1)).findById(bookId);
     }
 
+    @Test
+    @DisplayName("Should return the most owned books")
+    void findPopular_ShouldReturnMostOwnedBooks() {
+        List<PopularBookResponse> popular = List.of(new PopularBookResponse(bookId, 3));
+        when(bookService.findPopular(5)).thenReturn(popular);
+
+        ResponseEntity<List<PopularBookResponse>> response = bookController.findPopular(5);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(popular, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Should return the books owned together with a book")
+    void findAlsoOwned_ShouldReturnRelatedBooks() {
+        List<RelatedBookResponse> related = List.of(new RelatedBookResponse(UUID.randomUUID(), 2));
+        when(bookService.findAlsoOwned(bookId, 5)).thenReturn(related);
+
+        ResponseEntity<List<RelatedBookResponse>> response = bookController.findAlsoOwned(bookId, 5);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(related, response.getBody());
+    }
+
     @Test
     void getBookByIsbn_BookNotFound_ReturnsNotFound() {
         when(openLibraryService.findBookByIsbnWithExternalSearch(ISBN)).thenReturn(null);
@@ -344,6 +403,135 @@ class BookControllerTest {
         );
     }
 
+    @Test
+    @DisplayName("Should route to the full-text search when a query is submitted")
+    void findAll_WithQuery_ShouldUseFullTextSearch() {
+        Page<BookResponse> expectedPage = new PageImpl<>(List.of(bookResponse), PageRequest.of(0, 10), 1);
+
+        when(bookService.search(eq("clean code"), eq("Programming"), any(Pageable.class))).thenReturn(expectedPage);
+
+        ResponseEntity<CustomPageableResponse<BookResponse>> response =
+                bookController.findAll(0, 10, null, null, "Programming", "clean code", null, CountMode.EXACT);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        CustomPageableResponse<BookResponse> result = response.getBody();
+        assertNotNull(result);
+        assertEquals(List.of(bookResponse), result.page());
+        assertEquals(1, result.total_count());
+
+        verify(bookService, times(1)).search(eq("clean code"), eq("Programming"), eq(PageRequest.of(0, 10)));
+        verify(bookService, never()).findAll(any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a query combined with parameters the full-text search does not support")
+    void findAll_WithQueryAndUnsupportedParameters_ShouldThrowInvalidQuery() {
+        String cursor = CursorCodec.encode(UUID.randomUUID());
+
+        assertThrows(InvalidQueryException.class,
+                () -> bookController.findAll(0, 10, "Clean", null, null, "clean code", null, CountMode.EXACT));
+        assertThrows(InvalidQueryException.class,
+                () -> bookController.findAll(0, 10, null, "Martin", null, "clean code", null, CountMode.EXACT));
+        assertThrows(InvalidQueryException.class,
+                () -> bookController.findAll(0, 10, null, null, null, "clean code", cursor, CountMode.EXACT));
+        assertThrows(InvalidQueryException.class,
+                () -> bookController.findAll(0, 10, null, null, null, "clean code", null, CountMode.NONE));
+
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    @DisplayName("Should return a next cursor on an id-ordered page that has more rows")
+    void findAll_WhenPageHasNext_ShouldReturnNextCursor() {
+        Page<BookResponse> expectedPage = new PageImpl<>(List.of(bookResponse), PageRequest.of(0, 1, Sort.by("id")), 3);
+
+        when(bookService.findAll(eq(null), eq(null), eq(null), any(Pageable.class))).thenReturn(expectedPage);
+
+        CustomPageableResponse<BookResponse> result = bookController.findAll(0, 1, null, null, null, null, null, CountMode.EXACT).getBody();
+
+        assertNotNull(result);
+        assertEquals(CursorCodec.encode(bookId), result.next_cursor(), "The cursor should point after the last book");
+        assertEquals(2, result.next_page());
+    }
+
+    @Test
+    @DisplayName("Should fetch the books after the cursor when one is submitted")
+    void findAll_WithCursor_ShouldUseKeysetPagination() {
+        UUID lastSeen = UUID.randomUUID();
+        Slice<BookResponse> slice = new SliceImpl<>(List.of(bookResponse), PageRequest.of(0, 1), true);
+
+        when(bookService.findAllAfter(null, null, "Programming", lastSeen, 1)).thenReturn(slice);
+
+        ResponseEntity<CustomPageableResponse<BookResponse>> response =
+                bookController.findAll(7, 1, null, null, "Programming", null, CursorCodec.encode(lastSeen), CountMode.EXACT);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        CustomPageableResponse<BookResponse> result = response.getBody();
+        assertNotNull(result);
+        assertEquals(List.of(bookResponse), result.page());
+        assertEquals(1, result.count());
+        assertNull(result.total_count(), "Cursor mode should not report a total count");
+        assertNull(result.current_page(), "Cursor mode should not report a page number");
+        assertEquals(CursorCodec.encode(bookId), result.next_cursor());
+
+        verify(bookService, never()).findAll(any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should not return a next cursor on the last cursor page")
+    void findAll_WithCursorOnLastPage_ShouldReturnNullNextCursor() {
+        UUID lastSeen = UUID.randomUUID();
+        Slice<BookResponse> slice = new SliceImpl<>(List.of(bookResponse), PageRequest.of(0, 10), false);
+
+        when(bookService.findAllAfter(null, null, null, lastSeen, 10)).thenReturn(slice);
+
+        CustomPageableResponse<BookResponse> result =
+                bookController.findAll(0, 10, null, null, null, null, CursorCodec.encode(lastSeen), CountMode.EXACT).getBody();
+
+        assertNotNull(result);
+        assertNull(result.next_cursor(), "There should be no cursor after the last page");
+    }
+
+    @Test
+    @DisplayName("Should skip the totals and keep the next page link when the count is not requested")
+    void findAll_WithCountModeNone_ShouldReturnSliceWithoutTotals() {
+        Slice<BookResponse> slice = new SliceImpl<>(List.of(bookResponse), PageRequest.of(2, 1, Sort.by("id")), true);
+
+        when(bookService.findAll(eq(null), eq(null), eq(null), any(Pageable.class), eq(CountMode.NONE)))
+                .thenReturn(new CountedSlice<>(slice, null, CountMode.NONE));
+
+        CustomPageableResponse<BookResponse> result =
+                bookController.findAll(2, 1, null, null, null, null, null, CountMode.NONE).getBody();
+
+        assertNotNull(result);
+        assertEquals(CountMode.NONE, result.count_mode(), "The response should report the count mode used");
+        assertNull(result.total_count(), "The total count should not be computed");
+        assertNull(result.total_pages(), "The total pages should not be computed");
+        assertEquals(2, result.offset());
+        assertEquals(2, result.previous_page());
+        assertEquals(3, result.current_page());
+        assertEquals(4, result.next_page(), "The next page should come from the slice");
+
+        verify(bookService, never()).findAll(any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should compute the total pages from a cached count")
+    void findAll_WithCountModeCached_ShouldReturnTotals() {
+        Slice<BookResponse> slice = new SliceImpl<>(List.of(bookResponse), PageRequest.of(0, 10, Sort.by("id")), true);
+
+        when(bookService.findAll(eq(null), eq("Martin"), eq(null), any(Pageable.class), eq(CountMode.CACHED)))
+                .thenReturn(new CountedSlice<>(slice, 25L, CountMode.CACHED));
+
+        CustomPageableResponse<BookResponse> result =
+                bookController.findAll(0, 10, null, "Martin", null, null, null, CountMode.CACHED).getBody();
+
+        assertNotNull(result);
+        assertEquals(CountMode.CACHED, result.count_mode());
+        assertEquals(25, result.total_count());
+        assertEquals(3, result.total_pages());
+    }
+
     @Test
     @DisplayName("Should update an existing book")
     void update_ShouldReturnUpdatedBook() {
@@ -357,6 +545,43 @@ class BookControllerTest {
         verify(bookService, times(1)).update(eq(bookId), any(BookRequest.class));
     }
 
+    @Test
+    @DisplayName("Should pass the If-Match version to the service and return the new ETag")
+    void patch_WithIfMatch_ShouldReturnNewETag() {
+        Map<String, Object> patch = Map.of("title", "Refactoring");
+        BookResponse patched = new BookResponse(bookId, null, null, null, "Refactoring", null, null, null, null, null, 4L);
+        when(bookService.patch(bookId, patch, 3L)).thenReturn(patched);
+
+        ResponseEntity<BookResponse> response = bookController.patch(bookId, patch, "\"3\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertEquals(patched, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Should patch unconditionally without If-Match or with a wildcard")
+    void patch_WithoutIfMatch_ShouldPatchUnconditionally() {
+        Map<String, Object> patch = Map.of("pages", 10);
+        when(bookService.patch(bookId, patch, null)).thenReturn(bookResponse);
+
+        bookController.patch(bookId, patch, null);
+        bookController.patch(bookId, patch, "*");
+
+        verify(bookService, times(2)).patch(bookId, patch, null);
+    }
+
+    @Test
+    @DisplayName("Should fail the precondition for weak or foreign tags")
+    void patch_WithUnusableIfMatch_ShouldThrowVersionMismatch() {
+        Map<String, Object> patch = Map.of("pages", 10);
+
+        assertThrows(BookVersionMismatchException.class, () -> bookController.patch(bookId, patch, "W/\"3\""));
+        assertThrows(BookVersionMismatchException.class, () -> bookController.patch(bookId, patch, "\"abc\""));
+        assertThrows(BookVersionMismatchException.class, () -> bookController.patch(bookId, patch, "3"));
+        verify(bookService, never()).patch(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Should delete a book successfully.")
     void delete_ShouldCallDeleteMethod() {
@@ -364,4 +589,84 @@ class BookControllerTest {
 
         verify(bookService, times(1)).delete(bookId);
     }
+
+    @Test
+    @DisplayName("Should stream an NDJSON body to the import service and return its report")
+    void importNdjson_ShouldReturnReport() {
+        InputStream body = new ByteArrayInputStream("{\"title\":\"Clean Code\"}\n{}\n".getBytes());
+        BookImportReport report = new BookImportReport(1, 1, List.of(new BookImportChunkReport(
+                0, 1, 2, 1, 1, List.of(new BookImportRejection(2, "The title is obligatory")))));
+        when(bookImportService.importNdjson(body)).thenReturn(report);
+
+        ResponseEntity<BookImportReport> response = bookController.importNdjson(body);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(report, response.getBody());
+        verify(bookImportService, never()).importCsv(any());
+    }
+
+    @Test
+    @DisplayName("Should stream a CSV body to the import service and return its report")
+    void importCsv_ShouldReturnReport() {
+        InputStream body = new ByteArrayInputStream("title\nClean Code\n".getBytes());
+        BookImportReport report = new BookImportReport(1, 0, List.of(new BookImportChunkReport(0, 2, 2, 1, 0, List.of())));
+        when(bookImportService.importCsv(body)).thenReturn(report);
+
+        ResponseEntity<BookImportReport> response = bookController.importCsv(body);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(report, response.getBody());
+        verify(bookImportService, never()).importNdjson(any());
+    }
+
+    @Test
+    @DisplayName("Should resolve a batch of ISBNs through the OpenLibrary service")
+    void getBooksByIsbn_ShouldReturnBatchResponse() {
+        IsbnBatchResponse batch = new IsbnBatchResponse(0, 0, 1, 0,
+                List.of(new IsbnBatchResult(ISBN, IsbnLookupStatus.NOT_FOUND, null)));
+        when(openLibraryService.findBooksByIsbnWithExternalSearch(List.of(ISBN))).thenReturn(batch);
+
+        ResponseEntity<IsbnBatchResponse> response = bookController.getBooksByIsbn(new IsbnBatchRequest(List.of(ISBN)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(batch, response.getBody());
+        verify(openLibraryService, never()).findBookByIsbnWithExternalSearch(anyString());
+    }
+
+    @Test
+    @DisplayName("Should stream the catalog export as NDJSON")
+    void export_ShouldStreamNdjson() throws IOException {
+        when(bookExportService.exportNdjson(any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write("{}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        ResponseEntity<StreamingResponseBody> response = bookController.export(false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.parseMediaType("application/x-ndjson"), response.getHeaders().getContentType());
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("books.ndjson"));
+        assertEquals("{}\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should compress the catalog export when gzip is requested")
+    void export_WithGzip_ShouldStreamCompressedNdjson() throws IOException {
+        when(bookExportService.exportNdjson(any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write("{}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        ResponseEntity<StreamingResponseBody> response = bookController.export(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(MediaType.parseMediaType("application/gzip"), response.getHeaders().getContentType());
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("books.ndjson.gz"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("{}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
 }
@@ -1,9 +1,18 @@
 package com.raven.training.presentation.controller;
 
+import com.raven.training.presentation.dto.pagination.CountMode;
+import com.raven.training.presentation.dto.pagination.CountedSlice;
 import com.raven.training.presentation.dto.pagination.CustomPageableResponse;
+import com.raven.training.presentation.dto.user.UserBookMembershipResponse;
+import com.raven.training.presentation.dto.user.UserBookResponse;
+import com.raven.training.presentation.dto.user.UserBookResult;
+import com.raven.training.presentation.dto.user.UserBookStatus;
+import com.raven.training.presentation.dto.user.UserBooksBatchRequest;
+import com.raven.training.presentation.dto.user.UserBooksBatchResponse;
 import com.raven.training.presentation.dto.user.UserRequest;
 import com.raven.training.presentation.dto.user.UserResponse;
 import com.raven.training.service.interfaces.IUserService;
+import com.raven.training.util.pagination.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,14 +24,17 @@ import org.springframework.data.domain.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -75,9 +87,9 @@ class UserControllerTest {
                 2
         );
 
-        when(userService.findAll(any(Pageable.class))).thenReturn(expectedPage);
+        when(userService.findAll(any(Pageable.class), eq(false))).thenReturn(expectedPage);
 
-        ResponseEntity<CustomPageableResponse<UserResponse>> response = userController.findAll(0, 10);
+        ResponseEntity<CustomPageableResponse<UserResponse>> response = userController.findAll(0, 10, null, CountMode.EXACT, false);
 
         assertNotNull(response, "The response should not be null");
         assertEquals(HttpStatus.OK, response.getStatusCode(), "The status code should be 200");
@@ -98,7 +110,7 @@ class UserControllerTest {
         assertEquals(userResponse.userName(), actualUser1.userName());
         assertEquals(userResponse.name(), actualUser1.name());
 
-        verify(userService, times(1)).findAll(any(Pageable.class));
+        verify(userService, times(1)).findAll(any(Pageable.class), eq(false));
     }
 
     @Test
@@ -112,10 +124,10 @@ class UserControllerTest {
                 0
         );
 
-        when(userService.findAll(any(Pageable.class))).thenReturn(emptyPage);
+        when(userService.findAll(any(Pageable.class), eq(false))).thenReturn(emptyPage);
 
         // Act
-        ResponseEntity<CustomPageableResponse<UserResponse>> response = userController.findAll(0, 10);
+        ResponseEntity<CustomPageableResponse<UserResponse>> response = userController.findAll(0, 10, null, CountMode.EXACT, false);
 
         // Assert
         assertNotNull(response, "The response should not be null");
@@ -133,7 +145,45 @@ class UserControllerTest {
         assertNull(result.previous_page(), "The previous page should be null");
         assertNull(result.next_page(), "The next page should be null");
 
-        verify(userService, times(1)).findAll(any(Pageable.class));
+        verify(userService, times(1)).findAll(any(Pageable.class), eq(false));
+    }
+
+    @Test
+    @DisplayName("Should fetch the users after the cursor when one is submitted")
+    void findAll_WithCursor_ShouldUseKeysetPagination() {
+        UUID lastSeen = UUID.randomUUID();
+        Slice<UserResponse> slice = new SliceImpl<>(List.of(userResponse), PageRequest.of(0, 10), false);
+
+        when(userService.findAllAfter(lastSeen, 10, false)).thenReturn(slice);
+
+        ResponseEntity<CustomPageableResponse<UserResponse>> response =
+                userController.findAll(0, 10, CursorCodec.encode(lastSeen), CountMode.EXACT, false);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        CustomPageableResponse<UserResponse> result = response.getBody();
+        assertNotNull(result);
+        assertEquals(List.of(userResponse), result.page());
+        assertNull(result.total_pages(), "Cursor mode should not report the total pages");
+        assertNull(result.next_cursor(), "There should be no cursor after the last page");
+
+        verify(userService, never()).findAll(any(Pageable.class), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should report the count mode the service fell back to")
+    void findAll_WithCountModeEstimated_ShouldReportModeUsed() {
+        Slice<UserResponse> slice = new SliceImpl<>(List.of(userResponse), PageRequest.of(0, 10, Sort.by("id")), false);
+
+        when(userService.findAll(any(Pageable.class), eq(CountMode.ESTIMATED), eq(false)))
+                .thenReturn(new CountedSlice<>(slice, 1L, CountMode.CACHED));
+
+        CustomPageableResponse<UserResponse> result = userController.findAll(0, 10, null, CountMode.ESTIMATED, false).getBody();
+
+        assertNotNull(result);
+        assertEquals(CountMode.CACHED, result.count_mode());
+        assertEquals(1, result.total_count());
+        assertEquals(1, result.total_pages());
+        verify(userService, never()).findAll(any(Pageable.class), anyBoolean());
     }
 
     @Test
@@ -218,6 +268,71 @@ class UserControllerTest {
         verify(userService, times(1)).removeBookFromUser(userId, bookId);
     }
 
+    @Test
+    @DisplayName("Should apply a batch of books and return the outcome of every book")
+    void updateBooks_ShouldReturnBatchOutcome() {
+        UUID bookId = UUID.randomUUID();
+        UserBooksBatchRequest request = new UserBooksBatchRequest(List.of(bookId), null);
+        UserBooksBatchResponse batch = new UserBooksBatchResponse(
+                1, 0, 0, 0, 0, 1L, List.of(new UserBookResult(bookId, UserBookStatus.ADDED)));
+
+        when(userService.updateBooks(userId, request)).thenReturn(batch);
+
+        ResponseEntity<UserBooksBatchResponse> response = userController.updateBooks(userId, request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(batch, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Should tell which of the requested books the user owns")
+    void checkBooks_ShouldReturnMembership() {
+        UUID bookId = UUID.randomUUID();
+        UserBookMembershipResponse membership = new UserBookMembershipResponse(Map.of(bookId, true));
+
+        when(userService.checkBooks(userId, List.of(bookId))).thenReturn(membership);
+
+        ResponseEntity<UserBookMembershipResponse> response = userController.checkBooks(userId, List.of(bookId));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(membership, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Should list the books of a user and hand out a cursor after the last one")
+    void findBooks_WhenMoreBooksFollow_ShouldReturnTimedCursor() {
+        UUID bookId = UUID.randomUUID();
+        CursorCodec.TimedKey lastSeen = new CursorCodec.TimedKey(Instant.parse("2025-08-05T10:00:00Z"), UUID.randomUUID());
+        UserBookResponse entry = new UserBookResponse(bookId, Instant.parse("2025-08-04T10:00:00.000001Z"), null);
+        Slice<UserBookResponse> slice = new SliceImpl<>(List.of(entry), PageRequest.of(0, 1), true);
+
+        when(userService.findBooks(userId, lastSeen, 1, Sort.Direction.DESC, false)).thenReturn(slice);
+
+        ResponseEntity<CustomPageableResponse<UserBookResponse>> response =
+                userController.findBooks(userId, CursorCodec.encode(lastSeen), 1, Sort.Direction.DESC, false);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        CustomPageableResponse<UserBookResponse> result = response.getBody();
+        assertNotNull(result);
+        assertEquals(List.of(entry), result.page());
+        assertEquals(new CursorCodec.TimedKey(entry.addedAt(), bookId), CursorCodec.decodeTimed(result.next_cursor()),
+                "The cursor should point after the last book of the page");
+    }
+
+    @Test
+    @DisplayName("Should not hand out a cursor after the last page of books")
+    void findBooks_WhenLastPage_ShouldNotReturnCursor() {
+        Slice<UserBookResponse> slice = new SliceImpl<>(List.of(), PageRequest.of(0, 20), false);
+
+        when(userService.findBooks(userId, null, 20, Sort.Direction.ASC, true)).thenReturn(slice);
+
+        CustomPageableResponse<UserBookResponse> result =
+                userController.findBooks(userId, null, 20, Sort.Direction.ASC, true).getBody();
+
+        assertNotNull(result);
+        assertNull(result.next_cursor(), "There should be no cursor after the last page");
+    }
+
     @Test
     void getCurrentUser_ReturnsCurrentUserAndOkStatus() {
         when(userService.getCurrentUser()).thenReturn(userResponse);
@@ -27,6 +27,20 @@ class OpenLibraryBookDTOTest {
         objectMapper.registerModule(module);
     }
 
+    @Test
+    @DisplayName("Should keep every book of a response to several bibkeys")
+    void deserialize_WithSeveralBibkeys_ShouldKeepEveryBook() throws JsonProcessingException {
+        String json = """
+                {"ISBN:1": {"title": "First"}, "ISBN:2": {"title": "Second"}}
+                """;
+
+        OpenLibraryBookDTO result = objectMapper.readValue(json, OpenLibraryBookDTO.class);
+
+        assertEquals(2, result.getBooks().size(), "It should contain both books");
+        assertEquals("First", result.getBooks().get("ISBN:1").getTitle());
+        assertEquals("Second", result.getBooks().get("ISBN:2").getTitle());
+    }
+
     @Test
     @DisplayName("Should deserialize JSON with @JsonAnySetter correctly")
     void setBook_WithJsonAnySetter_ShouldSetBookInMap() {
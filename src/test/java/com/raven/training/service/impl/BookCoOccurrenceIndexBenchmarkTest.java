@@ -0,0 +1,111 @@
+package com.raven.training.service.impl;
+
+import com.raven.training.persistence.repository.IUserRepository;
+import com.raven.training.service.event.BookCollectionChangedEvent;
+import com.raven.training.service.implementation.BookCoOccurrenceIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures the build time, heap and query latency of the co-occurrence index on a synthetic
+ * join table of a few million rows, with book popularity skewed towards a small head.
+ * Run it with {@code mvn test -Pbenchmark}; it needs no database.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark of the co-occurrence index")
+class BookCoOccurrenceIndexBenchmarkTest {
+
+    private static final int USERS = 300_000;
+    private static final int BOOKS = 50_000;
+    private static final int MEAN_COLLECTION_SIZE = 10;
+    private static final int MAX_COLLECTION_SIZE = 500;
+    private static final long MAX_PAIRS = 10_000_000;
+    private static final int QUERIES = 100_000;
+    private static final int CHANGES = 100_000;
+
+    private static UUID user(int index) {
+        return new UUID(0x1000L + index, index * 0x9E3779B97F4A7C15L);
+    }
+
+    private static UUID book(int index) {
+        return new UUID(0x2000L + index, index * 0xC2B2AE3D27D4EB4FL);
+    }
+
+    /**
+     * Draws a book index with a power-law bias towards the first books.
+     */
+    private static int popularBook(Random random) {
+        return (int) (BOOKS * Math.pow(random.nextDouble(), 3));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    @DisplayName("Should build from millions of rows and answer top-K queries in microseconds")
+    void buildAndQuery() {
+        IUserRepository userRepository = mock(IUserRepository.class);
+        long[] rows = new long[1];
+        doAnswer(invocation -> {
+            BiConsumer<UUID, UUID> action = invocation.getArgument(0);
+            Random random = new Random(42);
+            for (int user = 0; user < USERS; user++) {
+                int size = 1 + (int) (-Math.log(1 - random.nextDouble()) * (MEAN_COLLECTION_SIZE - 1));
+                for (int i = 0; i < size; i++) {
+                    action.accept(user(user), book(popularBook(random)));
+                    rows[0]++;
+                }
+            }
+            return null;
+        }).when(userRepository).scanCollections(any());
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        BookCoOccurrenceIndex index = new BookCoOccurrenceIndex(userRepository, MAX_COLLECTION_SIZE, MAX_PAIRS);
+        index.load();
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        long heapBytes = usedHeap() - heapBefore;
+
+        Random random = new Random(7);
+        int found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            found += index.alsoOwned(book(i % 2 == 0 ? popularBook(random) : random.nextInt(BOOKS)), 10).size();
+        }
+        long queryNanos = (System.nanoTime() - start) / QUERIES;
+
+        start = System.nanoTime();
+        for (int i = 0; i < CHANGES; i++) {
+            UUID user = user(random.nextInt(USERS));
+            UUID book = book(popularBook(random));
+            index.onCollectionChanged(i % 2 == 0
+                    ? BookCollectionChangedEvent.of(user, List.of(book), List.of())
+                    : BookCollectionChangedEvent.of(user, List.of(), List.of(book)));
+        }
+        long changeNanos = (System.nanoTime() - start) / CHANGES;
+
+        System.out.printf("Built from %,d rows in %,d ms (%,d rows/s), %,d MB of heap%n",
+                rows[0], loadMillis, rows[0] * 1000 / Math.max(loadMillis, 1), heapBytes / (1024 * 1024));
+        System.out.printf("Top-10 query: %,d ns on average, %,d results%n", queryNanos, found);
+        System.out.printf("Collection change: %,d ns on average%n", changeNanos);
+
+        assertTrue(found > 0, "Queries should find related books");
+        assertTrue(queryNanos < 1_000_000, "A top-10 query should take well under a millisecond");
+    }
+}
@@ -0,0 +1,181 @@
+package com.raven.training.service.impl;
+
+import com.raven.training.persistence.repository.IUserRepository;
+import com.raven.training.presentation.dto.book.RelatedBookResponse;
+import com.raven.training.service.event.BookCollectionChangedEvent;
+import com.raven.training.service.implementation.BookCoOccurrenceIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for BookCoOccurrenceIndex")
+class BookCoOccurrenceIndexTest {
+
+    @Mock
+    private IUserRepository userRepository;
+
+    private final UUID alice = new UUID(1, 0);
+    private final UUID bob = new UUID(2, 0);
+    private final UUID carol = new UUID(3, 0);
+    private final UUID bookA = new UUID(0, 1);
+    private final UUID bookB = new UUID(0, 2);
+    private final UUID bookC = new UUID(0, 3);
+    private final UUID bookD = new UUID(0, 4);
+
+    private BookCoOccurrenceIndex loaded(int maxCollectionSize, long maxPairs, UUID... rows) {
+        doAnswer(invocation -> {
+            BiConsumer<UUID, UUID> action = invocation.getArgument(0);
+            for (int i = 0; i < rows.length; i += 2) {
+                action.accept(rows[i], rows[i + 1]);
+            }
+            return null;
+        }).when(userRepository).scanCollections(any());
+
+        BookCoOccurrenceIndex index = new BookCoOccurrenceIndex(userRepository, maxCollectionSize, maxPairs);
+        index.load();
+        return index;
+    }
+
+    @Test
+    @DisplayName("Should rank the books owned together with a book by their number of shared owners")
+    void alsoOwned_ShouldRankBySharedOwners() {
+        BookCoOccurrenceIndex index = loaded(10, 1_000,
+                alice, bookA, alice, bookB, alice, bookC,
+                bob, bookA, bob, bookC,
+                carol, bookB, carol, bookD);
+
+        assertEquals(List.of(new RelatedBookResponse(bookC, 2), new RelatedBookResponse(bookB, 1)),
+                index.alsoOwned(bookA, 10));
+        assertEquals(List.of(new RelatedBookResponse(bookC, 2)), index.alsoOwned(bookA, 1),
+                "Should return at most the limit");
+        assertEquals(List.of(new RelatedBookResponse(bookB, 1)), index.alsoOwned(bookD, 10));
+        assertTrue(index.alsoOwned(UUID.randomUUID(), 10).isEmpty(), "An unknown book has no related books");
+    }
+
+    @Test
+    @DisplayName("Should update the pairs of the books added and removed by a committed change")
+    void onCollectionChanged_ShouldUpdatePairs() {
+        BookCoOccurrenceIndex index = loaded(10, 1_000, alice, bookA, alice, bookB);
+
+        index.onCollectionChanged(BookCollectionChangedEvent.of(bob, List.of(bookA, bookB), List.of()));
+        index.onCollectionChanged(BookCollectionChangedEvent.of(alice, List.of(bookC), List.of(bookB)));
+        index.onCollectionChanged(BookCollectionChangedEvent.of(alice, List.of(bookA), List.of()));
+
+        assertEquals(List.of(new RelatedBookResponse(bookB, 1), new RelatedBookResponse(bookC, 1)),
+                index.alsoOwned(bookA, 10), "Adding a book already owned should change nothing");
+
+        index.onCollectionChanged(BookCollectionChangedEvent.deleted(bob, List.of(bookA, bookB)));
+
+        assertEquals(List.of(new RelatedBookResponse(bookC, 1)), index.alsoOwned(bookA, 10));
+        assertTrue(index.alsoOwned(bookB, 10).isEmpty(), "Pairs without owners should be dropped");
+    }
+
+    @Test
+    @DisplayName("Should withdraw the pairs of a collection growing past the limit and count them again when it shrinks")
+    void onCollectionChanged_WhenCollectionCrossesLimit_ShouldWithdrawPairs() {
+        BookCoOccurrenceIndex index = loaded(2, 1_000, alice, bookA, alice, bookB);
+
+        index.onCollectionChanged(BookCollectionChangedEvent.of(alice, List.of(bookC), List.of()));
+        assertTrue(index.alsoOwned(bookA, 10).isEmpty(), "A collection over the limit should not count");
+
+        index.onCollectionChanged(BookCollectionChangedEvent.of(alice, List.of(), List.of(bookB)));
+        assertEquals(List.of(new RelatedBookResponse(bookC, 1)), index.alsoOwned(bookA, 10));
+    }
+
+    @Test
+    @DisplayName("Should skip new pairs once the budget is reached and keep counting the pairs held")
+    void onCollectionChanged_WhenPairBudgetReached_ShouldSkipNewPairs() {
+        BookCoOccurrenceIndex index = loaded(10, 2, alice, bookA, alice, bookB);
+
+        index.onCollectionChanged(BookCollectionChangedEvent.of(bob, List.of(bookA, bookB, bookC), List.of()));
+
+        assertEquals(List.of(new RelatedBookResponse(bookB, 2)), index.alsoOwned(bookA, 10));
+        assertTrue(index.alsoOwned(bookC, 10).isEmpty(), "Pairs over the budget should be skipped");
+    }
+
+    @Test
+    @DisplayName("Should count a skipped pair short once the budget is reached and its collection shrinks")
+    void onCollectionChanged_WhenPairBudgetReached_ShouldCountAtMostTheOwners() {
+        BookCoOccurrenceIndex index = loaded(10, 2, alice, bookA, alice, bookB);
+
+        index.onCollectionChanged(BookCollectionChangedEvent.of(bob, List.of(bookC, bookD), List.of()));
+        index.onCollectionChanged(BookCollectionChangedEvent.of(alice, List.of(), List.of(bookB)));
+        index.onCollectionChanged(BookCollectionChangedEvent.of(carol, List.of(bookC, bookD), List.of()));
+        index.onCollectionChanged(BookCollectionChangedEvent.of(bob, List.of(), List.of(bookD)));
+
+        assertTrue(index.alsoOwned(bookC, 10).isEmpty(),
+                "Carol's pair is lowered by the removal of the pair skipped for Bob");
+    }
+
+    @Test
+    @DisplayName("Should release deleted users and count the collections of the users taking their place")
+    void onCollectionChanged_WhenUsersChurn_ShouldCountOnlyCurrentCollections() {
+        BookCoOccurrenceIndex index = loaded(10, 1_000, alice, bookA, alice, bookB);
+
+        for (int i = 0; i < 1_000; i++) {
+            UUID user = UUID.randomUUID();
+            index.onCollectionChanged(BookCollectionChangedEvent.of(user, List.of(bookA, bookC), List.of()));
+            index.onCollectionChanged(BookCollectionChangedEvent.deleted(user, List.of(bookA)));
+        }
+        index.onCollectionChanged(BookCollectionChangedEvent.of(bob, List.of(bookA, bookD), List.of()));
+        index.onCollectionChanged(BookCollectionChangedEvent.of(alice, List.of(), List.of(bookA, bookB)));
+        index.onCollectionChanged(BookCollectionChangedEvent.of(carol, List.of(bookA, bookB), List.of()));
+
+        assertEquals(List.of(new RelatedBookResponse(bookB, 1), new RelatedBookResponse(bookD, 1)),
+                index.alsoOwned(bookA, 10), "A deleted collection should leave no pairs, even the ones its event missed");
+        assertTrue(index.alsoOwned(bookC, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should apply the changes committed before the index is built on top of it")
+    void onCollectionChanged_BeforeLoad_ShouldBeAppliedAfterLoad() {
+        doAnswer(invocation -> {
+            BiConsumer<UUID, UUID> action = invocation.getArgument(0);
+            action.accept(alice, bookA);
+            action.accept(alice, bookB);
+            return null;
+        }).when(userRepository).scanCollections(any());
+        BookCoOccurrenceIndex index = new BookCoOccurrenceIndex(userRepository, 10, 1_000);
+
+        index.onCollectionChanged(BookCollectionChangedEvent.of(alice, List.of(bookB), List.of()));
+        index.onCollectionChanged(BookCollectionChangedEvent.of(bob, List.of(bookA, bookC), List.of()));
+        assertTrue(index.alsoOwned(bookA, 10).isEmpty(), "Nothing should be served before the index is built");
+        index.load();
+
+        assertEquals(List.of(new RelatedBookResponse(bookB, 1), new RelatedBookResponse(bookC, 1)),
+                index.alsoOwned(bookA, 10), "A change already read from the table should not count twice");
+    }
+
+    @Test
+    @DisplayName("Should stop queuing changes when the index cannot be built")
+    void onCollectionChanged_WhenLoadFails_ShouldIgnoreChanges() {
+        doThrow(new DataAccessResourceFailureException("cursor closed")).when(userRepository).scanCollections(any());
+        BookCoOccurrenceIndex index = new BookCoOccurrenceIndex(userRepository, 10, 1_000);
+
+        index.onCollectionChanged(BookCollectionChangedEvent.of(alice, List.of(bookA, bookB), List.of()));
+        assertDoesNotThrow(index::load);
+        index.onCollectionChanged(BookCollectionChangedEvent.of(bob, List.of(bookA, bookB), List.of()));
+
+        assertEquals(List.of(), earlyChanges(index), "No change should stay queued");
+        assertTrue(index.alsoOwned(bookA, 10).isEmpty(), "Nothing should be served once the build failed");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<BookCollectionChangedEvent> earlyChanges(BookCoOccurrenceIndex index) {
+        return (List<BookCollectionChangedEvent>) ReflectionTestUtils.getField(index, "early");
+    }
+}
@@ -0,0 +1,77 @@
+package com.raven.training.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.raven.training.persistence.repository.IBookRepository;
+import com.raven.training.presentation.dto.book.BookResponse;
+import com.raven.training.service.implementation.BookExportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for BookExportServiceImpl")
+class BookExportServiceImplTest {
+
+    @Mock
+    private IBookRepository bookRepository;
+
+    private BookExportServiceImpl bookExportService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        bookExportService = new BookExportServiceImpl(bookRepository, objectMapper);
+    }
+
+    private static BookResponse book(String title) {
+        return new BookResponse(UUID.randomUUID(), "Programming", "Robert C. Martin", "image.jpg",
+                title, null, "Prentice Hall", "2008", 464, "9780132350884", 0L);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line and close the database stream")
+    void exportNdjson_ShouldWriteOneBookPerLine() throws IOException {
+        BookResponse first = book("Clean Code");
+        BookResponse second = book("Clean Architecture");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(bookRepository.streamAllResponses())
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = bookExportService.exportNdjson(out);
+
+        assertEquals(2, count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length, "Every row should end with a newline");
+        assertEquals(first, objectMapper.readValue(lines[0], BookResponse.class));
+        assertEquals(second, objectMapper.readValue(lines[1], BookResponse.class));
+        assertEquals("", lines[2]);
+        assertTrue(closed.get(), "The database stream should be closed");
+    }
+
+    @Test
+    @DisplayName("Should write nothing for an empty catalog")
+    void exportNdjson_WithEmptyCatalog_ShouldWriteNothing() throws IOException {
+        when(bookRepository.streamAllResponses()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = bookExportService.exportNdjson(out);
+
+        assertEquals(0, count);
+        assertEquals(0, out.size());
+    }
+}
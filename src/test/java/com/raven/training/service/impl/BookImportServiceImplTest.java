@@ -0,0 +1,172 @@
+package com.raven.training.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.raven.training.mapper.IBookMapperImpl;
+import com.raven.training.persistence.entity.Book;
+import com.raven.training.persistence.repository.IBookRepository;
+import com.raven.training.presentation.dto.book.bulk.BookImportChunkReport;
+import com.raven.training.presentation.dto.book.bulk.BookImportRejection;
+import com.raven.training.presentation.dto.book.bulk.BookImportReport;
+import com.raven.training.service.implementation.BookImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for BookImportServiceImpl")
+class BookImportServiceImplTest {
+
+    @Mock
+    private IBookRepository bookRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BookImportServiceImpl bookImportService;
+
+    private final List<List<Book>> insertedChunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bookImportService = new BookImportServiceImpl(
+                bookRepository, new IBookMapperImpl(), transactionTemplate, new ObjectMapper(), 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runChunksInTransaction() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(bookRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            insertedChunks.add(List.copyOf(books));
+            return new int[books.size()];
+        });
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should write NDJSON rows in chunks with identifiers assigned up front")
+    void importNdjson_ShouldInsertRowsInChunks() {
+        runChunksInTransaction();
+
+        BookImportReport report = bookImportService.importNdjson(body("""
+                {"title":"Clean Code","author":"Robert C. Martin","pages":464}
+                {"title":"Refactoring","author":"Martin Fowler"}
+
+                {"title":"Domain-Driven Design"}
+                """));
+
+        assertEquals(3, report.accepted(), "Every valid row should be stored");
+        assertEquals(0, report.rejected());
+        assertEquals(2, report.chunks().size(), "Three rows with a chunk size of 2 should make two chunks");
+        assertEquals(new BookImportChunkReport(0, 1, 2, 2, 0, List.of()), report.chunks().get(0));
+        assertEquals(new BookImportChunkReport(1, 4, 4, 1, 0, List.of()), report.chunks().get(1));
+
+        assertEquals(2, insertedChunks.size());
+        assertEquals("Clean Code", insertedChunks.get(0).get(0).getTitle());
+        assertEquals(464, insertedChunks.get(0).get(0).getPages());
+        insertedChunks.stream().flatMap(List::stream)
+                .forEach(book -> assertNotNull(book.getId(), "The identifier should be assigned before the insert"));
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed and invalid NDJSON rows without affecting the others")
+    void importNdjson_ShouldRejectInvalidRows() {
+        runChunksInTransaction();
+
+        BookImportReport report = bookImportService.importNdjson(body("""
+                {"title":"Clean Code"
+                {"author":"Robert C. Martin"}
+                {"title":"Refactoring","pages":-1}
+                {"title":"Refactoring","pages":"many"}
+                {"title":"Domain-Driven Design"}
+                """));
+
+        assertEquals(1, report.accepted());
+        assertEquals(4, report.rejected());
+        List<BookImportRejection> rejections = report.chunks().stream()
+                .flatMap(chunk -> chunk.rejections().stream())
+                .toList();
+        assertEquals(List.of(1L, 2L, 3L, 4L), rejections.stream().map(BookImportRejection::line).toList());
+        assertTrue(rejections.get(0).reason().startsWith("Malformed row"));
+        assertEquals("The title is obligatory", rejections.get(1).reason());
+        assertEquals("The pages must not be negative", rejections.get(2).reason());
+        assertTrue(rejections.get(3).reason().startsWith("Malformed row"));
+        verify(bookRepository, times(1)).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should map CSV columns by header and resume after a row that cannot be converted")
+    void importCsv_ShouldImportRowsByHeader() {
+        runChunksInTransaction();
+
+        BookImportReport report = bookImportService.importCsv(body("""
+                title,author,pages,unused
+                Clean Code,Robert C. Martin,464,x
+                Refactoring,Martin Fowler,many,x
+                "Design Patterns, Elements","Gamma
+                Helm",395,x
+                """));
+
+        assertEquals(2, report.accepted());
+        assertEquals(1, report.rejected());
+        assertEquals(3L, report.chunks().get(0).rejections().get(0).line(), "The rejection should point at the CSV line");
+
+        List<Book> stored = insertedChunks.stream().flatMap(List::stream).toList();
+        assertEquals("Design Patterns, Elements", stored.get(1).getTitle());
+        assertEquals("Gamma\nHelm", stored.get(1).getAuthor());
+        assertEquals(395, stored.get(1).getPages());
+    }
+
+    @Test
+    @DisplayName("Should reject the whole chunk with the database reason when the batch fails")
+    void importNdjson_WhenBatchFails_ShouldRejectChunk() {
+        doAnswer(invocation -> {
+            throw new DataIntegrityViolationException("insert failed");
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        BookImportReport report = bookImportService.importNdjson(body("""
+                {"title":"Clean Code"}
+                {"title":"Refactoring"}
+                """));
+
+        assertEquals(0, report.accepted());
+        assertEquals(2, report.rejected());
+        BookImportChunkReport chunk = report.chunks().get(0);
+        assertEquals(2, chunk.rejections().size());
+        assertEquals("Chunk could not be stored: insert failed", chunk.rejections().get(0).reason());
+    }
+
+    @Test
+    @DisplayName("Should return an empty report and touch no transaction for an empty body")
+    void importNdjson_WithEmptyBody_ShouldReturnEmptyReport() {
+        BookImportReport report = bookImportService.importNdjson(body(""));
+
+        assertEquals(new BookImportReport(0, 0, List.of()), report);
+        verifyNoInteractions(transactionTemplate, bookRepository);
+    }
+}
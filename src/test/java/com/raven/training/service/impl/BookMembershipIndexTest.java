@@ -0,0 +1,97 @@
+package com.raven.training.service.impl;
+
+import com.raven.training.config.CacheConfig;
+import com.raven.training.exception.error.UserNotFoundException;
+import com.raven.training.persistence.repository.IUserRepository;
+import com.raven.training.service.event.BookCollectionChangedEvent;
+import com.raven.training.service.implementation.BookMembershipIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for BookMembershipIndex")
+class BookMembershipIndexTest {
+
+    @Mock
+    private IUserRepository userRepository;
+
+    private BookMembershipIndex membershipIndex;
+    private final UUID userId = UUID.randomUUID();
+    private final UUID bookId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        Duration ttl = Duration.ofMinutes(5);
+        membershipIndex = new BookMembershipIndex(
+                new CacheConfig().cacheManager(ttl, 10, ttl, 10, ttl, 10, ttl, 10, 10, ttl, 10), userRepository);
+    }
+
+    @Test
+    @DisplayName("Should read a collection once and answer later checks from memory")
+    void booksOf_ShouldReadCollectionOnce() {
+        when(userRepository.findBookIdsByUserIds(List.of(userId))).thenReturn(Map.of(userId, List.of(bookId)));
+
+        assertTrue(membershipIndex.booksOf(userId).contains(bookId));
+        assertTrue(membershipIndex.booksOf(userId).contains(bookId));
+
+        verify(userRepository, times(1)).findBookIdsByUserIds(List.of(userId));
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("Should apply committed changes to a cached collection without reading it again")
+    void onCollectionChanged_WhenCached_ShouldApplyChange() {
+        UUID addedBookId = UUID.randomUUID();
+        when(userRepository.findBookIdsByUserIds(List.of(userId))).thenReturn(Map.of(userId, List.of(bookId)));
+        membershipIndex.booksOf(userId);
+
+        membershipIndex.onCollectionChanged(BookCollectionChangedEvent.of(userId, List.of(addedBookId), List.of(bookId)));
+
+        assertEquals(List.of(addedBookId), List.copyOf(membershipIndex.booksOf(userId)));
+        verify(userRepository, times(1)).findBookIdsByUserIds(List.of(userId));
+    }
+
+    @Test
+    @DisplayName("Should read the collection again after its user is deleted")
+    void onCollectionChanged_WhenDeleted_ShouldDropCollection() {
+        when(userRepository.findBookIdsByUserIds(List.of(userId))).thenReturn(Map.of(userId, List.of(bookId)));
+        membershipIndex.booksOf(userId);
+
+        membershipIndex.onCollectionChanged(BookCollectionChangedEvent.deleted(userId, List.of(bookId)));
+        membershipIndex.booksOf(userId);
+
+        verify(userRepository, times(2)).findBookIdsByUserIds(List.of(userId));
+    }
+
+    @Test
+    @DisplayName("Should not read a collection that is not cached when it changes")
+    void onCollectionChanged_WhenNotCached_ShouldNotReadCollection() {
+        membershipIndex.onCollectionChanged(BookCollectionChangedEvent.of(userId, List.of(bookId), List.of()));
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should tell an empty collection apart from a user that does not exist")
+    void booksOf_WhenNoBooks_ShouldCheckUserExists() {
+        UUID otherUserId = UUID.randomUUID();
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.existsById(otherUserId)).thenReturn(false);
+
+        assertTrue(membershipIndex.booksOf(userId).isEmpty());
+        assertThrows(UserNotFoundException.class, () -> membershipIndex.booksOf(otherUserId));
+    }
+}
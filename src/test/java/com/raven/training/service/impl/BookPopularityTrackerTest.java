@@ -0,0 +1,116 @@
+package com.raven.training.service.impl;
+
+import com.raven.training.persistence.repository.IBookRepository;
+import com.raven.training.presentation.dto.book.PopularBookResponse;
+import com.raven.training.service.event.BookCollectionChangedEvent;
+import com.raven.training.service.implementation.BookPopularityTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for BookPopularityTracker")
+class BookPopularityTrackerTest {
+
+    @Mock
+    private IBookRepository bookRepository;
+
+    private BookPopularityTracker tracker;
+    private final UUID userId = UUID.randomUUID();
+    private final UUID bookA = new UUID(0, 1);
+    private final UUID bookB = new UUID(0, 2);
+    private final UUID bookC = new UUID(0, 3);
+
+    @BeforeEach
+    void setUp() {
+        tracker = new BookPopularityTracker(bookRepository, 2);
+    }
+
+    @Test
+    @DisplayName("Should write the changes of many events with a single statement, cancelling out opposite ones")
+    void flush_ShouldWriteAggregatedChanges() {
+        tracker.onCollectionChanged(BookCollectionChangedEvent.of(userId, List.of(bookA, bookB), List.of()));
+        tracker.onCollectionChanged(BookCollectionChangedEvent.of(UUID.randomUUID(), List.of(bookA), List.of(bookC)));
+        tracker.onCollectionChanged(BookCollectionChangedEvent.of(userId, List.of(), List.of(bookB)));
+        when(bookRepository.addOwners(Map.of(bookA, 2L, bookC, -1L))).thenReturn(List.of(
+                new PopularBookResponse(bookA, 2), new PopularBookResponse(bookC, 0)));
+
+        tracker.flush();
+        tracker.flush();
+
+        verify(bookRepository, times(1)).addOwners(any());
+        assertEquals(List.of(new PopularBookResponse(bookA, 2)), tracker.mostOwned(10),
+                "Books without owners should not be listed");
+    }
+
+    @Test
+    @DisplayName("Should keep the changes for the next flush when the write fails")
+    void flush_WhenWriteFails_ShouldRetryChanges() {
+        tracker.onCollectionChanged(BookCollectionChangedEvent.of(userId, List.of(bookA), List.of()));
+        when(bookRepository.addOwners(Map.of(bookA, 1L)))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(List.of(new PopularBookResponse(bookA, 1)));
+
+        tracker.flush();
+        tracker.flush();
+
+        verify(bookRepository, times(2)).addOwners(Map.of(bookA, 1L));
+        assertEquals(List.of(new PopularBookResponse(bookA, 1)), tracker.mostOwned(10));
+    }
+
+    @Test
+    @DisplayName("Should merge new counts into the leaderboard, most owned first, without reading it again")
+    void flush_WhenCountsGrow_ShouldMergeLeaderboard() {
+        when(bookRepository.findMostOwned(2)).thenReturn(List.of(
+                new PopularBookResponse(bookA, 5), new PopularBookResponse(bookB, 3)));
+        tracker.load();
+        tracker.onCollectionChanged(BookCollectionChangedEvent.of(userId, List.of(bookC), List.of()));
+        when(bookRepository.addOwners(Map.of(bookC, 1L))).thenReturn(List.of(new PopularBookResponse(bookC, 4)));
+
+        tracker.flush();
+
+        assertEquals(List.of(new PopularBookResponse(bookA, 5), new PopularBookResponse(bookC, 4)), tracker.mostOwned(10));
+        assertEquals(List.of(new PopularBookResponse(bookA, 5)), tracker.mostOwned(1));
+        verify(bookRepository, times(1)).findMostOwned(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should read the leaderboard again when a book of a full leaderboard loses owners")
+    void flush_WhenLeaderLosesOwners_ShouldReloadLeaderboard() {
+        when(bookRepository.findMostOwned(2))
+                .thenReturn(List.of(new PopularBookResponse(bookA, 5), new PopularBookResponse(bookB, 3)))
+                .thenReturn(List.of(new PopularBookResponse(bookC, 3), new PopularBookResponse(bookB, 2)));
+        tracker.load();
+        tracker.onCollectionChanged(BookCollectionChangedEvent.of(userId, List.of(), List.of(bookB)));
+        when(bookRepository.addOwners(Map.of(bookB, -1L))).thenReturn(List.of(new PopularBookResponse(bookB, 2)));
+
+        tracker.flush();
+
+        assertEquals(List.of(new PopularBookResponse(bookC, 3), new PopularBookResponse(bookB, 2)), tracker.mostOwned(10),
+                "A book outside of the leaderboard may have taken the place of the one that lost owners");
+        verify(bookRepository, times(2)).findMostOwned(2);
+    }
+
+    @Test
+    @DisplayName("Should count the books of a deleted user as losing an owner")
+    void onCollectionChanged_WhenUserDeleted_ShouldRemoveOwners() {
+        tracker.onCollectionChanged(BookCollectionChangedEvent.deleted(userId, List.of(bookA, bookB)));
+
+        tracker.flush();
+
+        verify(bookRepository, times(1)).addOwners(Map.of(bookA, -1L, bookB, -1L));
+    }
+}
@@ -1,11 +1,17 @@
 package com.raven.training.service.impl;
 
 import com.raven.training.exception.error.BookNotFoundException;
+import com.raven.training.exception.error.BookVersionMismatchException;
+import com.raven.training.exception.error.InvalidPatchException;
 import com.raven.training.mapper.IBookMapper;
 import com.raven.training.persistence.entity.Book;
 import com.raven.training.persistence.repository.IBookRepository;
 import com.raven.training.presentation.dto.book.BookRequest;
 import com.raven.training.presentation.dto.book.BookResponse;
+import com.raven.training.presentation.dto.book.RelatedBookResponse;
+import com.raven.training.presentation.dto.pagination.CountMode;
+import com.raven.training.presentation.dto.pagination.CountedSlice;
+import com.raven.training.service.implementation.BookCoOccurrenceIndex;
 import com.raven.training.service.implementation.BookServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -33,6 +39,9 @@ class BookServiceImplTest {
     @Mock
     private IBookMapper bookMapper;
 
+    @Mock
+    private BookCoOccurrenceIndex coOccurrenceIndex;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -67,7 +76,8 @@ class BookServiceImplTest {
                 "Prentice Hall",
                 "2008",
                 464,
-                "9780132350884"
+                "9780132350884",
+                0L
         );
 
         bookRequest = new BookRequest(
@@ -86,14 +96,12 @@ class BookServiceImplTest {
     @Test
     @DisplayName("Should return a page of book answers when there are no filters and books exist")
     void findAll_NoFilters_WhenBooksExist_ShouldReturnPageOfBookResponses() {
-        List<Book> books = Arrays.asList(book, book);
         List<BookResponse> expectedResponses = Arrays.asList(bookResponse, bookResponse);
 
         Pageable pageable = PageRequest.of(0, 10, Sort.by("title").ascending());
-        Page<Book> booksPage = new PageImpl<>(books, pageable, books.size());
+        Page<BookResponse> booksPage = new PageImpl<>(expectedResponses, pageable, expectedResponses.size());
 
-        when(bookRepository.findAll(any(Pageable.class))).thenReturn(booksPage);
-        when(bookMapper.toResponse(book)).thenReturn(bookResponse);
+        when(bookRepository.findAllResponses(any(Pageable.class))).thenReturn(booksPage);
 
         Page<BookResponse> resultPage = bookService.findAll(null, null, null, pageable);
 
@@ -105,18 +113,18 @@ class BookServiceImplTest {
         assertEquals(2, resultPage.getContent().size(), "The content of the page should have 2 books");
         assertEquals(expectedResponses, resultPage.getContent(), "The content of the page should match the expected responses");
 
-        verify(bookRepository, times(1)).findAll(any(Pageable.class));
+        verify(bookRepository, times(1)).findAllResponses(any(Pageable.class));
         verify(bookRepository, never()).findAllWithFilters(anyString(), anyString(), anyString(), any(Pageable.class));
-        verify(bookMapper, times(books.size())).toResponse(any(Book.class));
+        verify(bookMapper, never()).toResponse(any(Book.class));
     }
 
     @Test
     @DisplayName("Should return an empty page when there are no filters and no books exist")
     void findAll_NoFilters_WhenNoBooksExist_ShouldReturnEmptyPage() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> emptyBookPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
+        Page<BookResponse> emptyBookPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
 
-        when(bookRepository.findAll(any(Pageable.class))).thenReturn(emptyBookPage);
+        when(bookRepository.findAllResponses(any(Pageable.class))).thenReturn(emptyBookPage);
 
         Page<BookResponse> resultPage = bookService.findAll(null, null, null, pageable);
 
@@ -126,7 +134,7 @@ class BookServiceImplTest {
         assertEquals(0, resultPage.getTotalPages(), "The total number of pages should be 0");
         assertEquals(0, resultPage.getContent().size(), "The page content should have 0 books.");
 
-        verify(bookRepository, times(1)).findAll(any(Pageable.class));
+        verify(bookRepository, times(1)).findAllResponses(any(Pageable.class));
         verify(bookRepository, never()).findAllWithFilters(anyString(), anyString(), anyString(), any(Pageable.class));
         verify(bookMapper, never()).toResponse(any(Book.class));
     }
@@ -135,15 +143,13 @@ class BookServiceImplTest {
     @DisplayName("Should return a page of book answers when a title filter is applied")
     void findAll_WithTitleFilter_ShouldReturnPageOfBookResponses() {
         String titleFilter = "Clean Code";
-        List<Book> books = Arrays.asList(book);
         List<BookResponse> expectedResponses = Arrays.asList(bookResponse);
 
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> booksPage = new PageImpl<>(books, pageable, books.size());
+        Page<BookResponse> booksPage = new PageImpl<>(expectedResponses, pageable, expectedResponses.size());
 
         when(bookRepository.findAllWithFilters(eq(titleFilter), eq(""), eq(""), any(Pageable.class)))
                 .thenReturn(booksPage);
-        when(bookMapper.toResponse(book)).thenReturn(bookResponse);
 
         Page<BookResponse> resultPage = bookService.findAll(titleFilter, null, null, pageable);
 
@@ -153,23 +159,116 @@ class BookServiceImplTest {
         assertEquals(expectedResponses, resultPage.getContent());
 
         verify(bookRepository, times(1)).findAllWithFilters(eq(titleFilter), eq(""), eq(""), any(Pageable.class));
-        verify(bookRepository, never()).findAll(any(Pageable.class));
-        verify(bookMapper, times(books.size())).toResponse(any(Book.class));
+        verify(bookRepository, never()).findAllResponses(any(Pageable.class));
+        verify(bookMapper, never()).toResponse(any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Should not run any count query when the count mode is NONE")
+    void findAll_WithCountModeNone_ShouldSkipCount() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<BookResponse> booksSlice = new SliceImpl<>(List.of(bookResponse), pageable, true);
+
+        when(bookRepository.findSliceWithFilters("Clean", "", "", pageable)).thenReturn(booksSlice);
+
+        CountedSlice<BookResponse> result = bookService.findAll("Clean", null, null, pageable, CountMode.NONE);
+
+        assertEquals(CountMode.NONE, result.countMode());
+        assertNull(result.totalCount());
+        assertTrue(result.slice().hasNext());
+        verify(bookRepository, never()).countWithFilters(anyString(), anyString(), anyString());
+        verify(bookRepository, never()).findAllWithFilters(anyString(), anyString(), anyString(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should use the planner estimate when no filters are applied")
+    void findAll_WithCountModeEstimatedAndNoFilters_ShouldUseEstimate() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(bookRepository.findSliceWithFilters("", "", "", pageable)).thenReturn(new SliceImpl<>(List.of(bookResponse), pageable, true));
+        when(bookRepository.estimateCount()).thenReturn(1_000_000L);
+
+        CountedSlice<BookResponse> result = bookService.findAll(null, null, null, pageable, CountMode.ESTIMATED);
+
+        assertEquals(CountMode.ESTIMATED, result.countMode());
+        assertEquals(1_000_000L, result.totalCount());
+        verify(bookRepository, never()).countWithFilters(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the cached count when an estimate is requested with filters")
+    void findAll_WithCountModeEstimatedAndFilters_ShouldFallBackToCachedCount() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(bookRepository.findSliceWithFilters("", "", "Programming", pageable)).thenReturn(new SliceImpl<>(List.of(bookResponse), pageable, false));
+        when(bookRepository.countWithFilters("", "", "Programming")).thenReturn(1L);
+
+        CountedSlice<BookResponse> result = bookService.findAll(null, null, "Programming", pageable, CountMode.ESTIMATED);
+
+        assertEquals(CountMode.CACHED, result.countMode(), "The response should report the fallback strategy");
+        assertEquals(1L, result.totalCount());
+        verify(bookRepository, never()).estimateCount();
+    }
+
+    @Test
+    @DisplayName("Should run the regular paged query when the count mode is EXACT")
+    void findAll_WithCountModeExact_ShouldUsePagedQuery() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(bookRepository.findAllResponses(pageable)).thenReturn(new PageImpl<>(List.of(bookResponse), pageable, 1));
+
+        CountedSlice<BookResponse> result = bookService.findAll(null, null, null, pageable, CountMode.EXACT);
+
+        assertEquals(CountMode.EXACT, result.countMode());
+        assertEquals(1L, result.totalCount());
+        verify(bookRepository, never()).findSliceWithFilters(anyString(), anyString(), anyString(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should seek after the given identifier with the first page of the requested size")
+    void findAllAfter_ShouldUseKeysetQuery() {
+        UUID after = UUID.randomUUID();
+        Slice<BookResponse> booksSlice = new SliceImpl<>(List.of(bookResponse), PageRequest.of(0, 20), true);
+
+        when(bookRepository.findAllWithFiltersAfter("", "Martin", "", after, PageRequest.of(0, 20)))
+                .thenReturn(booksSlice);
+
+        Slice<BookResponse> result = bookService.findAllAfter(null, "Martin", null, after, 20);
+
+        assertEquals(List.of(bookResponse), result.getContent());
+        assertTrue(result.hasNext(), "The slice should report that more books follow");
+        verify(bookRepository, never()).findAllResponses(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should search books through the full-text index ignoring the requested sort")
+    void search_ShouldQueryFullTextIndexWithUnsortedPage() {
+        Pageable pageable = PageRequest.of(1, 5, Sort.by("id").ascending());
+        Page<BookResponse> booksPage = new PageImpl<>(List.of(bookResponse), PageRequest.of(1, 5), 6);
+
+        when(bookRepository.searchFullText(eq("clean code"), eq(""), any(Pageable.class)))
+                .thenReturn(booksPage);
+
+        Page<BookResponse> resultPage = bookService.search("  clean code ", null, pageable);
+
+        assertEquals(List.of(bookResponse), resultPage.getContent());
+        assertEquals(6, resultPage.getTotalElements());
+
+        verify(bookRepository).searchFullText(eq("clean code"), eq(""), eq(PageRequest.of(1, 5)));
+        verify(bookRepository, never()).findAllWithFilters(anyString(), anyString(), anyString(), any(Pageable.class));
     }
 
     @Test
     @DisplayName("Should return a page of book answers when an author filter is applied")
     void findAll_WithAuthorFilter_ShouldReturnPageOfBookResponses() {
         String authorFilter = "Robert C. Martin";
-        List<Book> books = Arrays.asList(book);
         List<BookResponse> expectedResponses = Arrays.asList(bookResponse);
 
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> booksPage = new PageImpl<>(books, pageable, books.size());
+        Page<BookResponse> booksPage = new PageImpl<>(expectedResponses, pageable, expectedResponses.size());
 
         when(bookRepository.findAllWithFilters(eq(""), eq(authorFilter), eq(""), any(Pageable.class)))
                 .thenReturn(booksPage);
-        when(bookMapper.toResponse(book)).thenReturn(bookResponse);
 
         Page<BookResponse> resultPage = bookService.findAll(null, authorFilter, null, pageable);
 
@@ -177,23 +276,21 @@ class BookServiceImplTest {
         assertEquals(expectedResponses, resultPage.getContent());
 
         verify(bookRepository, times(1)).findAllWithFilters(eq(""), eq(authorFilter), eq(""), any(Pageable.class));
-        verify(bookRepository, never()).findAll(any(Pageable.class));
-        verify(bookMapper, times(books.size())).toResponse(any(Book.class));
+        verify(bookRepository, never()).findAllResponses(any(Pageable.class));
+        verify(bookMapper, never()).toResponse(any(Book.class));
     }
 
     @Test
     @DisplayName("Should return a page of book answers when a genre filter is applied")
     void findAll_WithGenderFilter_ShouldReturnPageOfBookResponses() {
         String genderFilter = "Programming";
-        List<Book> books = Arrays.asList(book);
         List<BookResponse> expectedResponses = Arrays.asList(bookResponse);
 
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> booksPage = new PageImpl<>(books, pageable, books.size());
+        Page<BookResponse> booksPage = new PageImpl<>(expectedResponses, pageable, expectedResponses.size());
 
         when(bookRepository.findAllWithFilters(eq(""), eq(""), eq(genderFilter), any(Pageable.class)))
                 .thenReturn(booksPage);
-        when(bookMapper.toResponse(book)).thenReturn(bookResponse);
 
         Page<BookResponse> resultPage = bookService.findAll(null, null, genderFilter, pageable);
 
@@ -201,8 +298,8 @@ class BookServiceImplTest {
         assertEquals(expectedResponses, resultPage.getContent());
 
         verify(bookRepository, times(1)).findAllWithFilters(eq(""), eq(""), eq(genderFilter), any(Pageable.class));
-        verify(bookRepository, never()).findAll(any(Pageable.class));
-        verify(bookMapper, times(books.size())).toResponse(any(Book.class));
+        verify(bookRepository, never()).findAllResponses(any(Pageable.class));
+        verify(bookMapper, never()).toResponse(any(Book.class));
     }
 
     @Test
@@ -211,15 +308,13 @@ class BookServiceImplTest {
         String titleFilter = "Clean Code";
         String authorFilter = "Robert C. Martin";
         String genderFilter = "Programming";
-        List<Book> books = Arrays.asList(book);
         List<BookResponse> expectedResponses = Arrays.asList(bookResponse);
 
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> booksPage = new PageImpl<>(books, pageable, books.size());
+        Page<BookResponse> booksPage = new PageImpl<>(expectedResponses, pageable, expectedResponses.size());
 
         when(bookRepository.findAllWithFilters(eq(titleFilter), eq(authorFilter), eq(genderFilter), any(Pageable.class)))
                 .thenReturn(booksPage);
-        when(bookMapper.toResponse(book)).thenReturn(bookResponse);
 
         Page<BookResponse> resultPage = bookService.findAll(titleFilter, authorFilter, genderFilter, pageable);
 
@@ -227,8 +322,8 @@ class BookServiceImplTest {
         assertEquals(expectedResponses, resultPage.getContent());
 
         verify(bookRepository, times(1)).findAllWithFilters(eq(titleFilter), eq(authorFilter), eq(genderFilter), any(Pageable.class));
-        verify(bookRepository, never()).findAll(any(Pageable.class));
-        verify(bookMapper, times(books.size())).toResponse(any(Book.class));
+        verify(bookRepository, never()).findAllResponses(any(Pageable.class));
+        verify(bookMapper, never()).toResponse(any(Book.class));
     }
 
     @Test
@@ -236,7 +331,7 @@ class BookServiceImplTest {
     void findAll_WithFilters_WhenNoBooksFound_ShouldReturnEmptyPage() {
         String titleFilter = "NonExistentTitle";
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> emptyBookPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
+        Page<BookResponse> emptyBookPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
 
         when(bookRepository.findAllWithFilters(eq(titleFilter), eq(""), eq(""), any(Pageable.class)))
                 .thenReturn(emptyBookPage);
@@ -248,25 +343,23 @@ class BookServiceImplTest {
         assertEquals(0, resultPage.getTotalElements());
 
         verify(bookRepository, times(1)).findAllWithFilters(eq(titleFilter), eq(""), eq(""), any(Pageable.class));
-        verify(bookRepository, never()).findAll(any(Pageable.class));
+        verify(bookRepository, never()).findAllResponses(any(Pageable.class));
         verify(bookMapper, never()).toResponse(any(Book.class));
     }
 
     @Test
-    @DisplayName("You should call findAll without filters when the filters are empty strings")
-    void findAll_WithEmptyFilters_ShouldCallFindAll() {
+    @DisplayName("You should call findAllResponses without filters when the filters are empty strings")
+    void findAll_WithEmptyFilters_ShouldCallFindAllResponses() {
         String emptyTitle = "";
         String emptyAuthor = "";
         String emptyGender = "";
-        List<Book> books = Arrays.asList(book);
         List<BookResponse> expectedResponses = Arrays.asList(bookResponse);
 
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Book> booksPage = new PageImpl<>(books, pageable, books.size());
+        Page<BookResponse> booksPage = new PageImpl<>(expectedResponses, pageable, expectedResponses.size());
 
-        when(bookRepository.findAll(any(Pageable.class)))
+        when(bookRepository.findAllResponses(any(Pageable.class)))
                 .thenReturn(booksPage);
-        when(bookMapper.toResponse(book)).thenReturn(bookResponse);
 
         Page<BookResponse> resultPage = bookService.findAll(emptyTitle, emptyAuthor, emptyGender, pageable);
 
@@ -274,9 +367,9 @@ class BookServiceImplTest {
         assertFalse(resultPage.isEmpty());
         assertEquals(expectedResponses, resultPage.getContent());
 
-        verify(bookRepository, times(1)).findAll(any(Pageable.class));
+        verify(bookRepository, times(1)).findAllResponses(any(Pageable.class));
         verify(bookRepository, never()).findAllWithFilters(anyString(), anyString(), anyString(), any(Pageable.class));
-        verify(bookMapper, times(books.size())).toResponse(any(Book.class));
+        verify(bookMapper, never()).toResponse(any(Book.class));
     }
 
     @Test
@@ -305,6 +398,38 @@ class BookServiceImplTest {
         verify(bookMapper, never()).toResponse(any(Book.class));
     }
 
+    @Test
+    @DisplayName("Should return the related books from the index without reading the database")
+    void findAlsoOwned_WhenIndexHasPairs_ShouldNotReadDatabase() {
+        UUID bookId = UUID.randomUUID();
+        List<RelatedBookResponse> related = List.of(new RelatedBookResponse(UUID.randomUUID(), 3));
+        when(coOccurrenceIndex.alsoOwned(bookId, 5)).thenReturn(related);
+
+        assertEquals(related, bookService.findAlsoOwned(bookId, 5), "Should return the books of the index");
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("Should return no related books for a book whose owners own nothing else")
+    void findAlsoOwned_WhenBookHasNoPairs_ShouldReturnEmptyList() {
+        UUID bookId = UUID.randomUUID();
+        when(coOccurrenceIndex.alsoOwned(bookId, 5)).thenReturn(List.of());
+        when(bookRepository.existsById(bookId)).thenReturn(true);
+
+        assertTrue(bookService.findAlsoOwned(bookId, 5).isEmpty(), "Should return an empty list");
+    }
+
+    @Test
+    @DisplayName("Should throw BookNotFoundException when asking for the related books of an unknown book")
+    void findAlsoOwned_WhenBookNotExists_ShouldThrowException() {
+        UUID bookId = UUID.randomUUID();
+        when(coOccurrenceIndex.alsoOwned(bookId, 5)).thenReturn(List.of());
+        when(bookRepository.existsById(bookId)).thenReturn(false);
+
+        assertThrows(BookNotFoundException.class, () -> bookService.findAlsoOwned(bookId, 5),
+                "Should throw BookNotFoundException");
+    }
+
     @Test
     @DisplayName("Should save and return a book when a valid request is provided")
     void save_WithValidRequest_ShouldSaveAndReturnBook() {
@@ -354,7 +479,8 @@ class BookServiceImplTest {
                 null,
                 null,
                 null,
-                "9780132350884"
+                "9780132350884",
+                0L
         );
 
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
@@ -423,7 +549,8 @@ class BookServiceImplTest {
                 fullUpdateRequest.publisher(),
                 fullUpdateRequest.year(),
                 fullUpdateRequest.pages(),
-                fullUpdateRequest.isbn()
+                fullUpdateRequest.isbn(),
+                0L
         );
 
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(existingBookBeforeUpdate));
@@ -498,7 +625,8 @@ class BookServiceImplTest {
                 "Original Publisher",
                 "1990",
                 200,
-                "9999999999999"
+                "9999999999999",
+                0L
         );
 
         when(bookRepository.findById(bookId)).thenReturn(Optional.of(originalBook));
@@ -532,6 +660,72 @@ class BookServiceImplTest {
         verify(bookMapper, times(1)).toResponse(any(Book.class));
     }
 
+    @Test
+    @DisplayName("Should patch only the given columns without reading the book first")
+    void patch_WithFields_ShouldUpdateBlindly() {
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("title", "Clean Code, 2nd Edition");
+        patch.put("subtitle", null);
+        when(bookRepository.patch(bookId, patch, 3L)).thenReturn(Optional.of(bookResponse));
+
+        BookResponse result = bookService.patch(bookId, patch, 3L);
+
+        assertEquals(bookResponse, result, "Should return the row written by the update");
+        verify(bookRepository, never()).findById(any());
+        verify(bookRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("Should report a version mismatch when the book exists but the update matched no row")
+    void patch_WhenVersionIsStale_ShouldThrowVersionMismatch() {
+        Map<String, Object> patch = Map.of("pages", 500);
+        when(bookRepository.patch(bookId, patch, 3L)).thenReturn(Optional.empty());
+        when(bookRepository.existsById(bookId)).thenReturn(true);
+
+        assertThrows(BookVersionMismatchException.class,
+                () -> bookService.patch(bookId, patch, 3L),
+                "Should throw BookVersionMismatchException");
+    }
+
+    @Test
+    @DisplayName("Should report a missing book when an unconditional patch matched no row")
+    void patch_WhenBookNotExists_ShouldThrowException() {
+        Map<String, Object> patch = Map.of("pages", 500);
+        when(bookRepository.patch(bookId, patch, null)).thenReturn(Optional.empty());
+
+        assertThrows(BookNotFoundException.class,
+                () -> bookService.patch(bookId, patch, null),
+                "Should throw BookNotFoundException");
+        verify(bookRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown fields and values that do not fit the column")
+    void patch_WithInvalidFields_ShouldThrowInvalidPatch() {
+        Map<String, Object> clearTitle = new HashMap<>();
+        clearTitle.put("title", null);
+
+        assertThrows(InvalidPatchException.class, () -> bookService.patch(bookId, Map.of("id", "x"), null));
+        assertThrows(InvalidPatchException.class, () -> bookService.patch(bookId, Map.of("pages", "300"), null));
+        assertThrows(InvalidPatchException.class, () -> bookService.patch(bookId, Map.of("pages", -1), null));
+        assertThrows(InvalidPatchException.class, () -> bookService.patch(bookId, Map.of("author", 7), null));
+        assertThrows(InvalidPatchException.class, () -> bookService.patch(bookId, Map.of("isbn", "9".repeat(256)), null));
+        assertThrows(InvalidPatchException.class, () -> bookService.patch(bookId, clearTitle, null));
+        verify(bookRepository, never()).patch(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should read the book back and still check its version when the patch is empty")
+    void patch_WithEmptyPatch_ShouldCheckVersionOnly() {
+        book.setVersion(2L);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(bookMapper.toResponse(book)).thenReturn(bookResponse);
+
+        assertEquals(bookResponse, bookService.patch(bookId, Map.of(), 2L));
+        assertThrows(BookVersionMismatchException.class, () -> bookService.patch(bookId, Map.of(), 1L));
+        verify(bookRepository, never()).patch(any(), any(), any());
+    }
+
     @Test
     @DisplayName("You should delete a book when it exists with the provided ID")
     void delete_WhenBookExists_ShouldDeleteBook() {
@@ -3,6 +3,9 @@ package com.raven.training.service.impl;
 import com.raven.training.persistence.entity.Book;
 import com.raven.training.persistence.repository.IBookRepository;
 import com.raven.training.presentation.dto.book.bookexternal.BookResponseDTO;
+import com.raven.training.presentation.dto.book.bookexternal.IsbnBatchResponse;
+import com.raven.training.presentation.dto.book.bookexternal.IsbnBatchResult;
+import com.raven.training.presentation.dto.book.bookexternal.IsbnLookupStatus;
 import com.raven.training.presentation.dto.book.bookexternal.OpenLibraryBookDTO;
 import com.raven.training.service.implementation.OpenLibraryService;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,12 +15,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,6 +43,9 @@ class OpenLibraryServiceImplTest {
     @Mock
     private IBookRepository bookRepository;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private OpenLibraryService openLibraryService;
 
@@ -175,5 +189,126 @@ class OpenLibraryServiceImplTest {
         assertNull(result);
         verify(bookRepository, never()).save(any());
     }
-}
 
+    @Test
+    @DisplayName("Should resolve local ISBNs with one query and only ask OpenLibrary for the misses")
+    void findBooksByIsbnWithExternalSearch_Batch_ResolvesLocalAndExternal() {
+        String missing = "0000000000000";
+        String external = "9780134685991";
+        when(bookRepository.findByIsbnIn(any())).thenReturn(List.of(localBook));
+        when(restTemplate.getForEntity(anyString(), eq(OpenLibraryBookDTO.class))).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            assertTrue(url.contains("bibkeys=ISBN:" + missing + ",ISBN:" + external), "The misses should share one request");
+            assertFalse(url.contains(ISBN), "Local books should not be looked up");
+            OpenLibraryBookDTO body = new OpenLibraryBookDTO();
+            body.setBook("ISBN:" + external, externalBookDto.getBooks().values().iterator().next());
+            return new ResponseEntity<>(body, HttpStatus.OK);
+        });
+        List<Book> inserted = new ArrayList<>();
+        runInTransaction(inserted);
+
+        IsbnBatchResponse response = openLibraryService.findBooksByIsbnWithExternalSearch(
+                List.of(ISBN, missing, external, ISBN + " "));
+
+        assertEquals(1, response.found());
+        assertEquals(1, response.created());
+        assertEquals(1, response.notFound());
+        assertEquals(0, response.failed());
+        assertEquals(List.of(ISBN, missing, external), response.results().stream().map(IsbnBatchResult::isbn).toList(),
+                "Results should follow the request order without duplicates");
+        assertEquals(IsbnLookupStatus.FOUND, response.results().get(0).status());
+        assertEquals(IsbnLookupStatus.NOT_FOUND, response.results().get(1).status());
+        assertEquals(IsbnLookupStatus.CREATED, response.results().get(2).status());
+        assertEquals("Effective Java", response.results().get(2).book().getTitle());
+
+        assertEquals(1, inserted.size(), "Only the book found externally should be stored");
+        assertEquals(external, inserted.get(0).getIsbn());
+        assertNotNull(inserted.get(0).getId());
+        verify(restTemplate, times(1)).getForEntity(anyString(), eq(OpenLibraryBookDTO.class));
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should split the misses into several OpenLibrary requests")
+    void findBooksByIsbnWithExternalSearch_ManyMisses_SplitsRequests() {
+        List<String> isbns = IntStream.range(0, 120).mapToObj(i -> "isbn-" + i).toList();
+        when(bookRepository.findByIsbnIn(any())).thenReturn(List.of());
+        when(restTemplate.getForEntity(anyString(), eq(OpenLibraryBookDTO.class)))
+                .thenReturn(new ResponseEntity<>(new OpenLibraryBookDTO(), HttpStatus.OK));
+
+        IsbnBatchResponse response = openLibraryService.findBooksByIsbnWithExternalSearch(isbns);
+
+        assertEquals(120, response.notFound());
+        verify(restTemplate, times(3)).getForEntity(anyString(), eq(OpenLibraryBookDTO.class));
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should report the ISBNs of a failed OpenLibrary request as failed")
+    void findBooksByIsbnWithExternalSearch_ApiFails_ReportsFailed() {
+        when(bookRepository.findByIsbnIn(any())).thenReturn(List.of());
+        when(restTemplate.getForEntity(anyString(), eq(OpenLibraryBookDTO.class)))
+                .thenThrow(new ResourceAccessException("API is down"));
+
+        IsbnBatchResponse response = openLibraryService.findBooksByIsbnWithExternalSearch(List.of(ISBN));
+
+        assertEquals(1, response.failed());
+        assertEquals(IsbnLookupStatus.FAILED, response.results().get(0).status());
+        assertNull(response.results().get(0).book());
+        verify(bookRepository, never()).insertAll(any());
+    }
+
+    @Test
+    @DisplayName("Should truncate OpenLibrary values longer than the book columns before storing them")
+    void findBooksByIsbnWithExternalSearch_LongTitle_TruncatesIt() {
+        String title = "T".repeat(300);
+        externalBookDto.getBooks().values().iterator().next().setTitle(title);
+        when(bookRepository.findByIsbnIn(any())).thenReturn(List.of());
+        when(restTemplate.getForEntity(anyString(), eq(OpenLibraryBookDTO.class)))
+                .thenReturn(new ResponseEntity<>(externalBookDto, HttpStatus.OK));
+        List<Book> inserted = new ArrayList<>();
+        runInTransaction(inserted);
+
+        IsbnBatchResponse response = openLibraryService.findBooksByIsbnWithExternalSearch(List.of(ISBN));
+
+        assertEquals(1, response.created());
+        assertEquals(title.substring(0, 255), inserted.get(0).getTitle());
+        assertEquals(inserted.get(0).getTitle(), response.results().get(0).book().getTitle(),
+                "The response should show the stored title");
+    }
+
+    @Test
+    @DisplayName("Should report the books found externally as failed when storing them fails, keeping the local ones")
+    void findBooksByIsbnWithExternalSearch_InsertFails_ReportsFailed() {
+        String external = "9780134685991";
+        when(bookRepository.findByIsbnIn(any())).thenReturn(List.of(localBook));
+        OpenLibraryBookDTO body = new OpenLibraryBookDTO();
+        body.setBook("ISBN:" + external, externalBookDto.getBooks().values().iterator().next());
+        when(restTemplate.getForEntity(anyString(), eq(OpenLibraryBookDTO.class)))
+                .thenReturn(new ResponseEntity<>(body, HttpStatus.OK));
+        doThrow(new DataIntegrityViolationException("value too long"))
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        IsbnBatchResponse response = openLibraryService.findBooksByIsbnWithExternalSearch(List.of(ISBN, external));
+
+        assertEquals(1, response.found());
+        assertEquals(0, response.created());
+        assertEquals(1, response.failed());
+        assertEquals(IsbnLookupStatus.FOUND, response.results().get(0).status());
+        assertEquals(IsbnLookupStatus.FAILED, response.results().get(1).status());
+        assertNull(response.results().get(1).book());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runInTransaction(List<Book> inserted) {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(bookRepository.insertAll(any())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            inserted.addAll(books);
+            return new int[books.size()];
+        });
+    }
+}
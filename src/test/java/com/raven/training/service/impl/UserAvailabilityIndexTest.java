@@ -0,0 +1,96 @@
+package com.raven.training.service.impl;
+
+import com.raven.training.persistence.repository.IAuthUserRepository;
+import com.raven.training.service.implementation.UserAvailabilityIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for UserAvailabilityIndex")
+class UserAvailabilityIndexTest {
+
+    @Mock
+    private IAuthUserRepository authUserRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private UserAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserAvailabilityIndex(authUserRepository, 1_000, 0.001, registry);
+    }
+
+    private void loadUsers(String... usernameAndEmail) {
+        doAnswer(invocation -> {
+            BiConsumer<String, String> action = invocation.getArgument(0);
+            for (int i = 0; i < usernameAndEmail.length; i += 2) {
+                action.accept(usernameAndEmail[i], usernameAndEmail[i + 1]);
+            }
+            return null;
+        }).when(authUserRepository).scanIdentities(any());
+        index.load();
+    }
+
+    private double checks(String field, String answer) {
+        return registry.get("availability.checks").tag("field", field).tag("answer", answer).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should answer free values from the filter without querying")
+    void isUsernameAvailable_WhenNotInFilter_ShouldNotQuery() {
+        loadUsers("alice", "alice@example.com");
+
+        assertTrue(index.isUsernameAvailable("bob"));
+        assertTrue(index.isEmailAvailable("bob@example.com"));
+
+        verify(authUserRepository, never()).existsByUsername(any());
+        verify(authUserRepository, never()).existsByEmail(any());
+        assertEquals(1, checks("username", "filter"));
+        assertEquals(1, checks("email", "filter"));
+    }
+
+    @Test
+    @DisplayName("Should confirm values the filter may hold in the database")
+    void isUsernameAvailable_WhenInFilter_ShouldQuery() {
+        loadUsers("alice", "alice@example.com");
+        when(authUserRepository.existsByUsername("alice")).thenReturn(true);
+        when(authUserRepository.existsByEmail("alice@example.com")).thenReturn(false);
+
+        assertFalse(index.isUsernameAvailable("alice"));
+        assertTrue(index.isEmailAvailable("alice@example.com"), "The database has the last word");
+
+        assertEquals(1, checks("username", "database"));
+    }
+
+    @Test
+    @DisplayName("Should query every check until the filters are built")
+    void isUsernameAvailable_BeforeLoad_ShouldQuery() {
+        when(authUserRepository.existsByUsername("bob")).thenReturn(true);
+
+        assertFalse(index.isUsernameAvailable("bob"));
+
+        verify(authUserRepository, times(1)).existsByUsername("bob");
+    }
+
+    @Test
+    @DisplayName("Should never report a registered value as free from the filter")
+    void add_ShouldMakeValueGoToDatabase() {
+        loadUsers();
+        index.add("carol", "carol@example.com");
+        when(authUserRepository.existsByUsername("carol")).thenReturn(true);
+
+        assertFalse(index.isUsernameAvailable("carol"));
+        verify(authUserRepository, times(1)).existsByUsername("carol");
+    }
+}
@@ -1,30 +1,38 @@
 package com.raven.training.service.impl;
 
+import com.raven.training.exception.error.EmailAlreadyExistsException;
+import com.raven.training.exception.error.PasswordHashingBusyException;
+import com.raven.training.exception.error.UsernameAlreadyExistsException;
 import com.raven.training.persistence.entity.AuthUser;
 import com.raven.training.persistence.entity.User;
 import com.raven.training.persistence.repository.IAuthUserRepository;
-import com.raven.training.persistence.repository.IUserRepository;
 import com.raven.training.presentation.dto.login.AuthLoginRequest;
 import com.raven.training.presentation.dto.login.AuthLoginResponse;
 import com.raven.training.presentation.dto.register.AuthRegisterRequest;
 import com.raven.training.presentation.dto.register.AuthRegisterResponse;
+import com.raven.training.presentation.dto.register.AvailabilityResponse;
+import com.raven.training.service.implementation.UserAvailabilityIndex;
 import com.raven.training.service.implementation.UserDetailServiceImpl;
 import com.raven.training.util.JwtUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,15 +46,18 @@ class UserDetailServiceImplTest {
     @Mock
     private IAuthUserRepository authUserRepository;
 
-    @Mock
-    private IUserRepository userRepository;
-
     @Mock
     private PasswordEncoder passwordEncoder;
 
     @Mock
     private JwtUtils jwtUtils;
 
+    @Mock
+    private UserAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private UserDetailServiceImpl userDetailService;
 
@@ -114,6 +125,116 @@ class UserDetailServiceImplTest {
         verify(passwordEncoder, times(1)).matches(password, testUser.getPassword());
     }
 
+    @Test
+    @DisplayName("Should store a new hash when the stored one is outdated")
+    void authenticate_WithOutdatedHash_ShouldRehashPassword() {
+        String newHash = "{bcrypt}$2a$12$newhashedpassword";
+        when(authUserRepository.findAuthUserByUsername(username))
+                .thenReturn(java.util.Optional.of(testUser));
+        when(passwordEncoder.matches(password, testUser.getPassword())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(testUser.getPassword())).thenReturn(true);
+        when(passwordEncoder.encode(password)).thenReturn(newHash);
+        when(authUserRepository.updatePassword(username, testUser.getPassword(), newHash)).thenReturn(1);
+
+        Authentication authentication = userDetailService.authenticate(username, password);
+
+        assertEquals(username, authentication.getName(), "Username should match");
+        verify(authUserRepository, times(1)).updatePassword(username, testUser.getPassword(), newHash);
+    }
+
+    @Test
+    @DisplayName("Should not hash again when the stored hash is current")
+    void authenticate_WithCurrentHash_ShouldNotRehashPassword() {
+        when(authUserRepository.findAuthUserByUsername(username))
+                .thenReturn(java.util.Optional.of(testUser));
+        when(passwordEncoder.matches(password, testUser.getPassword())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(testUser.getPassword())).thenReturn(false);
+
+        userDetailService.authenticate(username, password);
+
+        verify(passwordEncoder, never()).encode(any());
+        verify(authUserRepository, never()).updatePassword(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should still log in, keeping the outdated hash, when the hashing pool is full")
+    void authenticate_WithOutdatedHashAndBusyPool_ShouldSkipRehash() {
+        when(authUserRepository.findAuthUserByUsername(username))
+                .thenReturn(java.util.Optional.of(testUser));
+        when(passwordEncoder.matches(password, testUser.getPassword())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(testUser.getPassword())).thenReturn(true);
+        when(passwordEncoder.encode(password)).thenThrow(new PasswordHashingBusyException(Duration.ofSeconds(1)));
+
+        Authentication authentication = userDetailService.authenticate(username, password);
+
+        assertEquals(username, authentication.getName(), "Username should match");
+        verify(authUserRepository, never()).updatePassword(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should keep the read hash when another login changed it first")
+    void updatePassword_WhenHashChangedConcurrently_ShouldReturnSameUser() {
+        UserDetails user = org.springframework.security.core.userdetails.User.withUsername(username)
+                .password(testUser.getPassword()).build();
+        when(authUserRepository.updatePassword(username, testUser.getPassword(), "new")).thenReturn(0);
+
+        assertSame(user, userDetailService.updatePassword(user, "new"));
+    }
+
+    @Test
+    @DisplayName("Should authenticate a cached user without reading the database")
+    void authenticate_WhenUserCached_ShouldNotQuery() {
+        UserDetails cached = userDetails(testUser.getPassword());
+        when(userCache.getUserFromCache(username)).thenReturn(cached);
+        when(passwordEncoder.matches(password, cached.getPassword())).thenReturn(true);
+
+        Authentication authentication = userDetailService.authenticate(username, password);
+
+        assertEquals(username, authentication.getName(), "Username should match");
+        verify(authUserRepository, never()).findAuthUserByUsername(any());
+        verify(userCache, times(1)).putUserInCache(cached);
+    }
+
+    @Test
+    @DisplayName("Should read the user again when the cached password is outdated")
+    void authenticate_WhenCachedPasswordChanged_ShouldReloadUser() {
+        UserDetails cached = userDetails("{bcrypt}$2a$10$previoushash");
+        when(userCache.getUserFromCache(username)).thenReturn(cached);
+        when(passwordEncoder.matches(password, cached.getPassword())).thenReturn(false);
+        when(authUserRepository.findAuthUserByUsername(username)).thenReturn(java.util.Optional.of(testUser));
+        when(passwordEncoder.matches(password, testUser.getPassword())).thenReturn(true);
+
+        Authentication authentication = userDetailService.authenticate(username, password);
+
+        assertEquals(username, authentication.getName(), "Username should match");
+        verify(userCache, times(1)).putUserInCache(argThat(user -> testUser.getPassword().equals(user.getPassword())));
+    }
+
+    @Test
+    @DisplayName("Should reject a wrong password without checking it twice when the cached password is current")
+    void authenticate_WhenCachedAndWrongPassword_ShouldCheckOnce() {
+        UserDetails cached = userDetails(testUser.getPassword());
+        when(userCache.getUserFromCache(username)).thenReturn(cached);
+        when(passwordEncoder.matches("wrongpassword", testUser.getPassword())).thenReturn(false);
+        when(authUserRepository.findAuthUserByUsername(username)).thenReturn(java.util.Optional.of(testUser));
+
+        assertThrows(BadCredentialsException.class, () -> userDetailService.authenticate(username, "wrongpassword"));
+
+        verify(passwordEncoder, times(1)).matches("wrongpassword", testUser.getPassword());
+        verify(userCache, never()).putUserInCache(any());
+    }
+
+    @Test
+    @DisplayName("Should evict the user from the cache when the password changes")
+    void updatePassword_ShouldEvictCachedUser() {
+        when(authUserRepository.updatePassword(username, testUser.getPassword(), "new")).thenReturn(1);
+
+        UserDetails updated = userDetailService.updatePassword(userDetails(testUser.getPassword()), "new");
+
+        assertEquals("new", updated.getPassword());
+        verify(userCache, times(1)).removeUserFromCache(username);
+    }
+
     @Test
     @DisplayName("Should throw BadCredentialsException with invalid credentials")
     void authenticate_WithInvalidPassword_ShouldThrowException() {
@@ -168,32 +289,7 @@ class UserDetailServiceImplTest {
                 rawPassword,
                 "newuser@example.com");
 
-        UUID userId = UUID.randomUUID();
-
-        AuthUser newUser = AuthUser.builder()
-                .id(userId)
-                .username(registerRequest.username())
-                .password(encodedPassword)
-                .email(registerRequest.email())
-                .isEnabled(true)
-                .accountNoExpired(true)
-                .accountNoLocked(true)
-                .credentialNoExpired(true)
-                .build();
-
-        User user = User.builder()
-                .id(userId)
-                .userName(registerRequest.username())
-                .name(name)
-                .birthDate(birthDate)
-                .books(new ArrayList<>())
-                .build();
-
         when(passwordEncoder.encode(rawPassword)).thenReturn(encodedPassword);
-        when(authUserRepository.save(any(AuthUser.class))).thenReturn(newUser);
-        when(userRepository.save(any(User.class))).thenReturn(user);
-        when(authUserRepository.existsByUsername(anyString())).thenReturn(false);
-        when(authUserRepository.existsByEmail(anyString())).thenReturn(false);
 
         AuthRegisterResponse response = userDetailService.registerUser(registerRequest);
 
@@ -202,10 +298,65 @@ class UserDetailServiceImplTest {
         assertEquals(registerRequest.email(), response.email(), "Email should match");
         assertTrue(response.status(), "Status should be true");
 
+        ArgumentCaptor<AuthUser> authUser = ArgumentCaptor.forClass(AuthUser.class);
+        ArgumentCaptor<User> user = ArgumentCaptor.forClass(User.class);
         verify(passwordEncoder, times(1)).encode(rawPassword);
-        verify(authUserRepository, times(1)).save(any(AuthUser.class));
-        verify(userRepository, times(1)).save(any(User.class));
-        verify(authUserRepository, times(1)).existsByUsername(registerRequest.username());
-        verify(authUserRepository, times(1)).existsByEmail(registerRequest.email());
+        verify(authUserRepository, times(1)).register(authUser.capture(), user.capture());
+        assertEquals(encodedPassword, authUser.getValue().getPassword(), "The hash should be stored");
+        assertEquals(authUser.getValue().getId(), user.getValue().getId(), "Both rows should share the identifier");
+        assertEquals(name, user.getValue().getName(), "Name should match");
+        verify(availabilityIndex, times(1)).add(registerRequest.username(), registerRequest.email());
+        verify(authUserRepository, never()).existsByUsername(any());
+        verify(authUserRepository, never()).existsByEmail(any());
+    }
+
+    @Test
+    @DisplayName("Should report a username in use from the violated unique constraint")
+    void registerUser_WhenUsernameConstraintViolated_ShouldThrowUsernameAlreadyExists() {
+        doThrow(new DuplicateKeyException("duplicate key value violates unique constraint \"" + AuthUser.USERNAME_CONSTRAINT + "\""))
+                .when(authUserRepository).register(any(), any());
+
+        assertThrows(UsernameAlreadyExistsException.class, () -> userDetailService.registerUser(registerRequest()));
+    }
+
+    @Test
+    @DisplayName("Should report an email in use from the violated unique constraint")
+    void registerUser_WhenEmailConstraintViolated_ShouldThrowEmailAlreadyExists() {
+        doThrow(new DuplicateKeyException("duplicate key value violates unique constraint \"" + AuthUser.EMAIL_CONSTRAINT + "\""))
+                .when(authUserRepository).register(any(), any());
+
+        assertThrows(EmailAlreadyExistsException.class, () -> userDetailService.registerUser(registerRequest()));
+    }
+
+    @Test
+    @DisplayName("Should rethrow violations of other constraints unchanged")
+    void registerUser_WhenOtherConstraintViolated_ShouldRethrow() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("null value in column \"email\"");
+        doThrow(violation).when(authUserRepository).register(any(), any());
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> userDetailService.registerUser(registerRequest())));
+    }
+
+    @Test
+    @DisplayName("Should check only the values given")
+    void checkAvailability_ShouldAnswerOnlyGivenValues() {
+        when(availabilityIndex.isUsernameAvailable(username)).thenReturn(false);
+
+        AvailabilityResponse response = userDetailService.checkAvailability(username, null);
+
+        assertEquals(false, response.usernameAvailable(), "The username should be taken");
+        assertNull(response.emailAvailable(), "The email was not asked about");
+        verify(availabilityIndex, never()).isEmailAvailable(any());
+    }
+
+    private UserDetails userDetails(String passwordHash) {
+        return org.springframework.security.core.userdetails.User.withUsername(username)
+                .password(passwordHash).build();
+    }
+
+    private static AuthRegisterRequest registerRequest() {
+        return new AuthRegisterRequest("Test User", LocalDate.of(1990, 1, 1), "newuser", "newPassword123",
+                "newuser@example.com");
     }
 }
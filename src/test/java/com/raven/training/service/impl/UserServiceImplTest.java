@@ -3,15 +3,28 @@ package com.raven.training.service.impl;
 import com.raven.training.exception.error.BookAlreadyInCollectionException;
 import com.raven.training.exception.error.BookNotFoundException;
 import com.raven.training.exception.error.BookNotInCollectionException;
+import com.raven.training.exception.error.InvalidPageSizeException;
 import com.raven.training.exception.error.UserNotFoundException;
 import com.raven.training.mapper.IUserMapper;
 import com.raven.training.persistence.entity.Book;
 import com.raven.training.persistence.entity.User;
 import com.raven.training.persistence.repository.IBookRepository;
 import com.raven.training.persistence.repository.IUserRepository;
+import com.raven.training.presentation.dto.book.BookResponse;
+import com.raven.training.presentation.dto.pagination.CountMode;
+import com.raven.training.presentation.dto.pagination.CountedSlice;
+import com.raven.training.presentation.dto.user.UserBookResponse;
+import com.raven.training.presentation.dto.user.UserBookResult;
+import com.raven.training.presentation.dto.user.UserBookStatus;
+import com.raven.training.presentation.dto.user.UserBooksBatchRequest;
+import com.raven.training.presentation.dto.user.UserBooksBatchResponse;
 import com.raven.training.presentation.dto.user.UserRequest;
 import com.raven.training.presentation.dto.user.UserResponse;
+import com.raven.training.service.event.BookCollectionChangedEvent;
+import com.raven.training.service.implementation.BookMembershipIndex;
 import com.raven.training.service.implementation.UserServiceImpl;
+import com.raven.training.util.id.PackedUuidSet;
+import com.raven.training.util.pagination.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,17 +32,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,6 +63,12 @@ class UserServiceImplTest {
     @Mock
     private IUserMapper userMapper;
 
+    @Mock
+    private BookMembershipIndex membershipIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -68,12 +92,12 @@ class UserServiceImplTest {
                 .userName("testuser")
                 .name("Test User")
                 .birthDate(testBirthDate)
-                .books(new ArrayList<>(Collections.singletonList(testBook)))
+                .books(new HashSet<>(Collections.singletonList(testBook)))
                 .build();
     }
 
     @Test
-    @DisplayName("Should return a page of users when they exist")
+    @DisplayName("Should return a page of users with their book ids when they are asked for")
     void findAll_WhenUsersExist_ShouldReturnPageOfUsers() {
         List<User> userList = Collections.singletonList(testUser);
         UserResponse userResponse = new UserResponse(
@@ -84,7 +108,7 @@ class UserServiceImplTest {
                 .userName("anotheruser")
                 .name("Another User")
                 .birthDate(testBirthDate)
-                .books(new ArrayList<>())
+                .books(new HashSet<>())
                 .build();
 
         List<User> allUsers = Arrays.asList(testUser, testUser2);
@@ -98,9 +122,10 @@ class UserServiceImplTest {
 
 
         when(userRepository.findAll(any(Pageable.class))).thenReturn(userPage);
-        when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
+        when(userRepository.findBookIdsByUserIds(List.of(userId))).thenReturn(Map.of(userId, List.of(bookId)));
+        when(userMapper.toResponse(testUser, List.of(bookId))).thenReturn(userResponse);
 
-        Page<UserResponse> result = userService.findAll(pageable);
+        Page<UserResponse> result = userService.findAll(pageable, true);
 
         assertNotNull(result, "The result should not be null");
         assertEquals(1, result.getContent().size(), "Should return 1 user");
@@ -112,7 +137,25 @@ class UserServiceImplTest {
         assertFalse(result.isLast(), "Shouldn't be the last page");
 
         verify(userRepository, times(1)).findAll(any(Pageable.class));
-        verify(userMapper, times(1)).toResponse(any(User.class));
+        verify(userRepository, times(1)).findBookIdsByUserIds(List.of(userId));
+        verify(userMapper, never()).toResponse(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should only count the books of the users of a page by default")
+    void findAll_ByDefault_ShouldCountBooksOfThePage() {
+        Pageable pageable = PageRequest.of(0, 10);
+        UserResponse userResponse = new UserResponse(
+                userId, "testuser", "Test User", testBirthDate, null, 3L, UserResponse.booksLink(userId));
+
+        when(userRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(testUser), pageable, 1));
+        when(userRepository.countBooksByUserIds(List.of(userId))).thenReturn(Map.of(userId, 3L));
+        when(userMapper.toResponse(testUser, 3L)).thenReturn(userResponse);
+
+        Page<UserResponse> result = userService.findAll(pageable, false);
+
+        assertEquals(List.of(userResponse), result.getContent());
+        verify(userRepository, never()).findBookIdsByUserIds(any());
     }
 
     @Test
@@ -123,7 +166,7 @@ class UserServiceImplTest {
 
         when(userRepository.findAll(any(Pageable.class))).thenReturn(emptyPage);
 
-        Page<UserResponse> result = userService.findAll(pageable);
+        Page<UserResponse> result = userService.findAll(pageable, false);
 
         assertNotNull(result, "The result should not be null");
         assertTrue(result.isEmpty(), "The result should be empty");
@@ -134,21 +177,77 @@ class UserServiceImplTest {
         verify(userMapper, never()).toResponse(any(User.class));
     }
 
+    @Test
+    @DisplayName("Should fall back to the cached count when the table has no statistics yet")
+    void findAll_WithCountModeEstimatedAndNoStatistics_ShouldFallBackToCachedCount() {
+        Pageable pageable = PageRequest.of(0, 10);
+        UserResponse userResponse = new UserResponse(
+                userId, "testuser", "Test User", testBirthDate, Collections.singletonList(bookId));
+
+        when(userRepository.findSliceBy(pageable)).thenReturn(new SliceImpl<>(List.of(testUser), pageable, false));
+        when(userMapper.toResponse(testUser, 0L)).thenReturn(userResponse);
+        when(userRepository.estimateCount()).thenReturn(-1L);
+        when(userRepository.countAllUsers()).thenReturn(1L);
+
+        CountedSlice<UserResponse> result = userService.findAll(pageable, CountMode.ESTIMATED, false);
+
+        assertEquals(CountMode.CACHED, result.countMode());
+        assertEquals(1L, result.totalCount());
+        assertEquals(List.of(userResponse), result.slice().getContent());
+        verify(userRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should not count the users when the count mode is NONE")
+    void findAll_WithCountModeNone_ShouldSkipCount() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(userRepository.findSliceBy(pageable)).thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        CountedSlice<UserResponse> result = userService.findAll(pageable, CountMode.NONE, false);
+
+        assertEquals(CountMode.NONE, result.countMode());
+        assertNull(result.totalCount());
+        verify(userRepository, never()).countAllUsers();
+        verify(userRepository, never()).estimateCount();
+    }
+
+    @Test
+    @DisplayName("Should seek after the given identifier when paginating with a cursor")
+    void findAllAfter_ShouldUseKeysetQuery() {
+        UUID after = UUID.randomUUID();
+        UserResponse userResponse = new UserResponse(
+                userId, "testuser", "Test User", testBirthDate, Collections.singletonList(bookId));
+        Slice<User> usersSlice = new SliceImpl<>(List.of(testUser), PageRequest.of(0, 5), false);
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, 5))).thenReturn(usersSlice);
+        when(userRepository.findBookIdsByUserIds(List.of(userId))).thenReturn(Map.of(userId, List.of(bookId)));
+        when(userMapper.toResponse(testUser, List.of(bookId))).thenReturn(userResponse);
+
+        Slice<UserResponse> result = userService.findAllAfter(after, 5, true);
+
+        assertEquals(List.of(userResponse), result.getContent());
+        assertFalse(result.hasNext(), "The slice should report that no users follow");
+    }
+
     @Test
     @DisplayName("Should return a user when it exists with the provided ID")
     void findById_WhenUserExists_ShouldReturnUser() {
         UserResponse expectedResponse = new UserResponse(
-                userId, "testuser", "Test User", testBirthDate, Collections.singletonList(bookId));
+                userId, "testuser", "Test User", testBirthDate, null, 1L, UserResponse.booksLink(userId));
         
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
-        when(userMapper.toResponse(testUser)).thenReturn(expectedResponse);
+        when(userRepository.countBooksByUserId(userId)).thenReturn(1L);
+        when(userMapper.toResponse(testUser, 1L)).thenReturn(expectedResponse);
 
         var result = userService.findById(userId);
 
         assertNotNull(result, "User should not be null");
         assertEquals(userId, result.id(), "The user ID should match");
+        assertNull(result.bookIds(), "The book ids should not be embedded in the profile");
         verify(userRepository, times(1)).findById(userId);
-        verify(userMapper, times(1)).toResponse(testUser);
+        verify(userRepository, never()).findBookIdsByUserId(any());
+        verify(userMapper, never()).toResponse(testUser);
     }
 
     @Test
@@ -169,389 +268,213 @@ class UserServiceImplTest {
     void update_WhenUserExists_ShouldUpdateAndReturnUser() {
         UserRequest updateRequest = new UserRequest(
                 "updateduser", "Updated User", testBirthDate.plusYears(1), Collections.singletonList(bookId));
-        
-        User updatedUser = User.builder()
-                .id(userId)
-                .userName(updateRequest.userName())
-                .name(updateRequest.name())
-                .birthDate(updateRequest.birthDate())
-                .books(new ArrayList<>(Collections.singletonList(testBook)))
-                .build();
-        
+
         UserResponse expectedResponse = new UserResponse(
-                userId, "updateduser", "Updated User", testBirthDate.plusYears(1), 
+                userId, "updateduser", "Updated User", testBirthDate.plusYears(1),
                 Collections.singletonList(bookId));
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
-        when(userMapper.toResponse(any(User.class))).thenReturn(expectedResponse);
+        when(bookRepository.findExistingIds(Set.of(bookId))).thenReturn(List.of(bookId));
+        when(userRepository.findBookIdsByUserId(userId)).thenReturn(List.of(bookId));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userMapper.toResponse(testUser, 1L)).thenReturn(expectedResponse);
 
         var result = userService.update(userId, updateRequest);
 
         assertNotNull(result, "The updated user should not be null");
         assertEquals(updateRequest.userName(), result.userName(), "The username should be updated");
-        verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, times(1)).save(any(User.class));
-    }
-
-    @Test
-    @DisplayName("Should update an existing user successfully with all fields")
-    void update_WhenUserExists_ShouldUpdateAllFieldsAndReturnUser() {
-        UserRequest updateRequest = new UserRequest(
-                "updateduser", "Updated User Name", testBirthDate.plusYears(1), Collections.singletonList(bookId));
-
-        User initialUser = User.builder()
-                .id(userId)
-                .userName("olduser")
-                .name("Old Name")
-                .birthDate(testBirthDate)
-                .books(new ArrayList<>())
-                .build();
-
-        Book bookToUpdate = Book.builder()
-                .id(bookId)
-                .title("Updated Book Title")
-                .author("Author B")
-                .isbn("9876543210")
-                .build();
-
-        User updatedUser = User.builder()
-                .id(userId)
-                .userName(updateRequest.userName())
-                .name(updateRequest.name())
-                .birthDate(updateRequest.birthDate())
-                .books(new ArrayList<>(Collections.singletonList(bookToUpdate)))
-                .build();
-
-        UserResponse expectedResponse = new UserResponse(
-                userId, updateRequest.userName(), updateRequest.name(), updateRequest.birthDate(),
-                Collections.singletonList(bookId));
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(initialUser));
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(bookToUpdate));
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
-        when(userMapper.toResponse(any(User.class))).thenReturn(expectedResponse);
-
-        UserResponse result = userService.update(userId, updateRequest);
-
-        assertNotNull(result, "The updated user should not be null");
-        assertEquals(updateRequest.userName(), result.userName(), "The username should be updated");
-        assertEquals(updateRequest.name(), result.name(), "The name should be updated");
-        assertEquals(updateRequest.birthDate(), result.birthDate(), "The birth date should be updated");
-        assertTrue(result.bookIds().contains(bookId), "The book should be added to the collection");
-        assertEquals(1, result.bookIds().size(), "There should be one book in the collection");
-
-        verify(userRepository, times(1)).findById(userId);
-        verify(bookRepository, times(1)).findById(bookId);
+        assertEquals("updateduser", testUser.getUserName(), "The entity should carry the new username");
+        assertEquals(updateRequest.birthDate(), testUser.getBirthDate(), "The entity should carry the new birth date");
         verify(userRepository, times(1)).save(any(User.class));
-        verify(userMapper, times(1)).toResponse(any(User.class));
     }
 
     @Test
-    @DisplayName("Should update only provided fields when others are null or empty")
+    @DisplayName("Should only update the fields that are provided")
     void update_WhenSomeFieldsAreNullOrEmpty_ShouldUpdateOnlyProvidedFields() {
-        UserRequest updateRequest = new UserRequest(
-                "newUsername", null, null, Collections.singletonList(bookId));
-
-        User initialUser = User.builder()
-                .id(userId)
-                .userName("oldUsername")
-                .name("Old Name")
-                .birthDate(LocalDate.of(2000, 1, 1))
-                .books(new ArrayList<>())
-                .build();
+        UserRequest updateRequest = new UserRequest("newUsername", " ", null, null);
 
-        Book bookToAdd = Book.builder().id(bookId).title("Test Book").author("Test Author").isbn("123").build();
-
-        UserResponse expectedResponse = new UserResponse(
-                userId, "newUsername", "Old Name", LocalDate.of(2000, 1, 1), Collections.singletonList(bookId));
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(initialUser));
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(bookToAdd));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
             User userToSave = invocation.getArgument(0);
             assertEquals("newUsername", userToSave.getUserName(), "Username should be updated");
-            assertEquals("Old Name", userToSave.getName(), "Name should remain unchanged");
-            assertEquals(LocalDate.of(2000, 1, 1), userToSave.getBirthDate(), "BirthDate should remain unchanged");
-            assertTrue(userToSave.getBooks().contains(bookToAdd), "Book should be added");
+            assertEquals("Test User", userToSave.getName(), "Name should remain unchanged");
+            assertEquals(testBirthDate, userToSave.getBirthDate(), "BirthDate should remain unchanged");
             return userToSave;
         });
-        when(userMapper.toResponse(any(User.class))).thenReturn(expectedResponse);
 
-        UserResponse result = userService.update(userId, updateRequest);
+        userService.update(userId, updateRequest);
 
-        assertNotNull(result);
-        assertEquals("newUsername", result.userName());
-        assertEquals("Old Name", result.name());
-        assertEquals(LocalDate.of(2000, 1, 1), result.birthDate());
-        assertTrue(result.bookIds().contains(bookId));
-        assertEquals(1, result.bookIds().size());
-
-        verify(userRepository, times(1)).findById(userId);
-        verify(bookRepository, times(1)).findById(bookId);
         verify(userRepository, times(1)).save(any(User.class));
-        verify(userMapper, times(1)).toResponse(any(User.class));
     }
 
     @Test
-    @DisplayName("Should clear existing books and add new ones when bookIds is provided")
-    void update_WhenBookIdsProvided_ShouldClearAndAddBooks() {
-        UUID initialBookId = UUID.randomUUID();
-        Book initialBook = Book.builder().id(initialBookId).title("Initial Book").build();
-
-        User existingUserWithBooks = User.builder()
-                .id(userId)
-                .userName("userWithBooks")
-                .name("User With Books")
-                .birthDate(testBirthDate)
-                .books(new ArrayList<>(Collections.singletonList(initialBook)))
-                .build();
-
-        UUID newBookId = UUID.randomUUID();
-        Book newBook = Book.builder().id(newBookId).title("New Book").build();
-
+    @DisplayName("Should only delete and insert the difference between the current and the requested books")
+    void update_WhenBookIdsProvided_ShouldApplySetDifference() {
+        UUID keptBookId = UUID.randomUUID();
+        UUID removedBookId = UUID.randomUUID();
+        UUID addedBookId = UUID.randomUUID();
         UserRequest updateRequest = new UserRequest(
-                "userWithBooks", "User With Books", testBirthDate, Collections.singletonList(newBookId));
-
-        UserResponse expectedResponse = new UserResponse(
-                userId, "userWithBooks", "User With Books", testBirthDate, Collections.singletonList(newBookId));
+                null, null, null, List.of(keptBookId, addedBookId, keptBookId));
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUserWithBooks));
-        when(bookRepository.findById(newBookId)).thenReturn(Optional.of(newBook));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
-            User userToSave = invocation.getArgument(0);
-            assertFalse(userToSave.getBooks().contains(initialBook), "Initial book should be removed");
-            assertTrue(userToSave.getBooks().contains(newBook), "New book should be added");
-            return userToSave;
-        });
-        when(userMapper.toResponse(any(User.class))).thenReturn(expectedResponse);
-
-        UserResponse result = userService.update(userId, updateRequest);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(bookRepository.findExistingIds(Set.of(keptBookId, addedBookId))).thenReturn(List.of(addedBookId, keptBookId));
+        when(userRepository.findBookIdsByUserId(userId)).thenReturn(List.of(keptBookId, removedBookId));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
 
-        assertNotNull(result);
-        assertTrue(result.bookIds().contains(newBookId), "The new book ID should be in the response");
-        assertFalse(result.bookIds().contains(initialBookId), "The old book ID should not be in the response");
-        assertEquals(1, result.bookIds().size());
+        userService.update(userId, updateRequest);
 
-        verify(userRepository, times(1)).findById(userId);
-        verify(bookRepository, times(1)).findById(newBookId);
-        verify(userRepository, times(1)).save(any(User.class));
-        verify(userMapper, times(1)).toResponse(any(User.class));
+        verify(userRepository, times(1)).removeBooks(userId, List.of(removedBookId));
+        verify(userRepository, times(1)).addBooks(userId, List.of(addedBookId));
+        verify(eventPublisher, times(1)).publishEvent(any(BookCollectionChangedEvent.class));
+        verify(userMapper, times(1)).toResponse(testUser, 2L);
+        verify(bookRepository, never()).findById(any(UUID.class));
     }
 
     @Test
-    @DisplayName("Should not add books if bookRepository.findById returns empty for an ID")
-    void update_WhenSomeBookIdsNotFoundInRepository_ShouldOnlyAddExistingBooks() {
+    @DisplayName("Should report unknown book ids instead of silently dropping them")
+    void update_WhenSomeBookIdsNotFoundInRepository_ShouldThrowException() {
         UUID bookId1 = UUID.randomUUID();
         UUID bookId2 = UUID.randomUUID();
-        Book book1 = Book.builder().id(bookId1).title("Book 1").build();
-
-        User existingUser = User.builder()
-                .id(userId)
-                .userName("userTest")
-                .name("Test User")
-                .birthDate(testBirthDate)
-                .books(new ArrayList<>())
-                .build();
-
         UserRequest updateRequest = new UserRequest(
                 "userTest", "Test User", testBirthDate, Arrays.asList(bookId1, bookId2));
 
-        UserResponse expectedResponse = new UserResponse(
-                userId, "userTest", "Test User", testBirthDate, Collections.singletonList(bookId1));
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(bookRepository.findById(bookId1)).thenReturn(Optional.of(book1));
-        when(bookRepository.findById(bookId2)).thenReturn(Optional.empty());
-
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
-            User userToSave = invocation.getArgument(0);
-            assertTrue(userToSave.getBooks().contains(book1), "Book 1 should be added");
-            assertEquals(1, userToSave.getBooks().size(), "Only Book 1 should be added");
-            return userToSave;
-        });
-        when(userMapper.toResponse(any(User.class))).thenReturn(expectedResponse);
-
-        UserResponse result = userService.update(userId, updateRequest);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(bookRepository.findExistingIds(Set.of(bookId1, bookId2))).thenReturn(List.of(bookId1));
 
-        assertNotNull(result);
-        assertTrue(result.bookIds().contains(bookId1));
-        assertFalse(result.bookIds().contains(bookId2));
-        assertEquals(1, result.bookIds().size());
+        BookNotFoundException exception = assertThrows(BookNotFoundException.class,
+                () -> userService.update(userId, updateRequest),
+                "Should throw BookNotFoundException");
 
-        verify(userRepository, times(1)).findById(userId);
-        verify(bookRepository, times(1)).findById(bookId1);
-        verify(bookRepository, times(1)).findById(bookId2);
-        verify(userRepository, times(1)).save(any(User.class));
-        verify(userMapper, times(1)).toResponse(any(User.class));
+        assertTrue(exception.getMessage().contains(bookId2.toString()), "The message should name the unknown id");
+        assertFalse(exception.getMessage().contains(bookId1.toString()), "The message should not name known ids");
+        verify(userRepository, never()).addBooks(any(), any());
+        verify(userRepository, never()).removeBooks(any(), any());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
-    @DisplayName("Should not modify books when bookIds list is empty (current logic)")
-    void update_WhenBookIdsIsEmpty_ShouldNotClearBooksGivenCurrentLogic() {
-        UUID initialBookId = UUID.randomUUID();
-        Book initialBook = Book.builder().id(initialBookId).title("Initial Book").build();
-        User existingUserWithBooks = User.builder()
-                .id(userId)
-                .userName("userWithBooks")
-                .name("User With Books")
-                .birthDate(testBirthDate)
-                .books(new ArrayList<>(Collections.singletonList(initialBook)))
-                .build();
-
-        UserRequest updateRequest = new UserRequest(
-                "userWithBooks", "User With Books", testBirthDate, Collections.emptyList());
-
-        UserResponse expectedResponse = new UserResponse(
-                userId, "userWithBooks", "User With Books", testBirthDate, Collections.singletonList(initialBookId));
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUserWithBooks));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
-            User userToSave = invocation.getArgument(0);
-            assertTrue(userToSave.getBooks().contains(initialBook), "Initial book should still be present");
-            assertEquals(1, userToSave.getBooks().size());
-            return userToSave;
-        });
-        when(userMapper.toResponse(any(User.class))).thenReturn(expectedResponse);
-
-        UserResponse result = userService.update(userId, updateRequest);
+    @DisplayName("Should leave the collection untouched when the book ids are empty or absent")
+    void update_WhenBookIdsIsEmptyOrNull_ShouldNotModifyBooks() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.countBooksByUserId(userId)).thenReturn(1L);
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
 
-        assertNotNull(result);
-        assertFalse(result.bookIds().isEmpty(), "Response bookIds should not be empty");
-        assertTrue(result.bookIds().contains(initialBookId), "Response should still contain initial book ID");
-        assertEquals(1, result.bookIds().size());
+        userService.update(userId, new UserRequest("userWithBooks", null, null, Collections.emptyList()));
+        userService.update(userId, new UserRequest("userWithBooks", null, null, null));
 
-        verify(userRepository, times(1)).findById(userId);
-        verify(bookRepository, never()).findById(any(UUID.class));
-        verify(userRepository, times(1)).save(any(User.class));
-        verify(userMapper, times(1)).toResponse(any(User.class));
+        verify(userMapper, times(2)).toResponse(testUser, 1L);
+        verify(bookRepository, never()).findExistingIds(any());
+        verify(userRepository, never()).addBooks(any(), any());
+        verify(userRepository, never()).removeBooks(any(), any());
     }
 
     @Test
-    @DisplayName("Should not modify books when bookIds is null")
-    void update_WhenBookIdsIsNull_ShouldNotModifyBooks() {
-        UUID initialBookId = UUID.randomUUID();
-        Book initialBook = Book.builder().id(initialBookId).title("Initial Book").build();
-        User existingUserWithBooks = User.builder()
-                .id(userId)
-                .userName("userWithBooks")
-                .name("User With Books")
-                .birthDate(testBirthDate)
-                .books(new ArrayList<>(Collections.singletonList(initialBook)))
-                .build();
-
-        UserRequest updateRequest = new UserRequest(
-                "userWithBooks", "User With Books", testBirthDate, null);
-
-        UserResponse expectedResponse = new UserResponse(
-                userId, "userWithBooks", "User With Books", testBirthDate, Collections.singletonList(initialBookId));
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUserWithBooks));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
-            User userToSave = invocation.getArgument(0);
-            assertTrue(userToSave.getBooks().contains(initialBook), "Initial book should still be present");
-            assertEquals(1, userToSave.getBooks().size());
-            return userToSave;
-        });
-        when(userMapper.toResponse(any(User.class))).thenReturn(expectedResponse);
-
-        UserResponse result = userService.update(userId, updateRequest);
-
-        assertNotNull(result);
-        assertTrue(result.bookIds().contains(initialBookId), "Response should still contain initial book ID");
-        assertEquals(1, result.bookIds().size());
+    @DisplayName("Should throw UserNotFoundException when updating a user that does not exist")
+    void update_WhenUserNotExists_ShouldThrowException() {
+        UUID nonExistentId = UUID.randomUUID();
+        when(userRepository.findById(nonExistentId)).thenReturn(Optional.empty());
 
-        verify(userRepository, times(1)).findById(userId);
-        verify(bookRepository, never()).findById(any(UUID.class));
-        verify(userRepository, times(1)).save(any(User.class));
-        verify(userMapper, times(1)).toResponse(any(User.class));
+        assertThrows(UserNotFoundException.class,
+                () -> userService.update(nonExistentId, new UserRequest("x", null, null, List.of(bookId))),
+                "Should throw UserNotFoundException");
+        verify(bookRepository, never()).findExistingIds(any());
     }
 
     @Test
     @DisplayName("Should delete an existing user successfully?")
     void delete_WhenUserExists_ShouldDeleteUser() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.findBookIdsByUserId(userId)).thenReturn(List.of(bookId));
         doNothing().when(userRepository).delete(testUser);
 
         assertDoesNotThrow(() -> userService.delete(userId),
                 "Should not throw any exceptions");
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).delete(testUser);
+        verify(eventPublisher, times(1)).publishEvent(BookCollectionChangedEvent.deleted(userId, List.of(bookId)));
     }
 
     @Test
-    @DisplayName("Should add a book to the user's collection")
+    @DisplayName("Should add a book to the user's collection with a single insert")
     void addBookToUser_WithValidIds_ShouldAddBookToUser() {
         UUID newBookId = UUID.randomUUID();
-        Book newBook = Book.builder()
-                .id(newBookId)
-                .title("Clean Architecture")
-                .author("Robert C. Martin")
-                .isbn("9780134494166")
-                .build();
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
-        when(bookRepository.findById(newBookId)).thenReturn(Optional.of(newBook));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(userMapper.toResponse(any(User.class))).thenReturn(
-                new UserResponse(userId, "testuser", "Test User", testBirthDate, 
-                        Arrays.asList(bookId, newBookId)));
+        when(bookRepository.existsById(newBookId)).thenReturn(true);
+        when(userRepository.addBook(userId, newBookId)).thenReturn(true);
+        when(userRepository.countBooksByUserId(userId)).thenReturn(2L);
+        when(userMapper.toResponse(testUser, 2L)).thenReturn(
+                new UserResponse(userId, "testuser", "Test User", testBirthDate, null, 2L, UserResponse.booksLink(userId)));
 
         var result = userService.addBookToUser(userId, newBookId);
 
         assertNotNull(result, "The answer should not be null");
-        assertEquals(2, result.bookIds().size(), "Should have two books in the collection");
-        assertTrue(result.bookIds().contains(newBookId), "The new book should be in the collection");
-        verify(userRepository, times(1)).findById(userId);
-        verify(bookRepository, times(1)).findById(newBookId);
-        verify(userRepository, times(1)).save(any(User.class));
+        assertEquals(2L, result.bookCount(), "Should have two books in the collection");
+        verify(userRepository, times(1)).addBook(userId, newBookId);
+        verify(userRepository, never()).save(any(User.class));
+        verify(eventPublisher, times(1)).publishEvent(
+                BookCollectionChangedEvent.of(userId, List.of(newBookId), List.of()));
     }
 
     @Test
-    @DisplayName("Should throw BookAlreadyInCollectionException when adding a duplicate book")
+    @DisplayName("Should throw BookAlreadyInCollectionException when the insert reports a duplicate")
     void addBookToUser_WithDuplicateBook_ShouldThrowException() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(testBook));
+        when(bookRepository.existsById(bookId)).thenReturn(true);
+        when(userRepository.addBook(userId, bookId)).thenReturn(false);
 
         assertThrows(BookAlreadyInCollectionException.class,
                 () -> userService.addBookToUser(userId, bookId),
                 "Should throw BookAlreadyInCollectionException");
-        verify(userRepository, times(1)).findById(userId);
-        verify(bookRepository, times(1)).findById(bookId);
-        verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(eventPublisher);
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    @DisplayName("Should throw BookNotFoundException when adding a book that does not exist")
+    void addBookToUser_WhenBookNotExists_ShouldThrowBookNotFoundException() {
+        UUID nonExistentBookId = UUID.randomUUID();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(bookRepository.existsById(nonExistentBookId)).thenReturn(false);
+
+        assertThrows(BookNotFoundException.class,
+                () -> userService.addBookToUser(userId, nonExistentBookId),
+                "Should throw BookNotFoundException");
+        verify(userRepository, never()).addBook(any(), any());
     }
 
     @Test
-    @DisplayName("Should remove a book from the user's collection")
+    @DisplayName("Should remove a book from the user's collection with a single delete")
     void removeBookFromUser_WithValidIds_ShouldRemoveBookFromUser() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
         when(bookRepository.existsById(bookId)).thenReturn(true);
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(userMapper.toResponse(any(User.class))).thenReturn(
-                new UserResponse(userId, "testuser", "Test User", testBirthDate, Collections.emptyList()));
+        when(userRepository.removeBook(userId, bookId)).thenReturn(true);
+        when(userRepository.countBooksByUserId(userId)).thenReturn(0L);
+        when(userMapper.toResponse(testUser, 0L)).thenReturn(
+                new UserResponse(userId, "testuser", "Test User", testBirthDate, null, 0L, UserResponse.booksLink(userId)));
 
         var result = userService.removeBookFromUser(userId, bookId);
 
         assertNotNull(result, "The answer should not be null");
-        assertTrue(result.bookIds().isEmpty(), "The book collection should be empty");
-        verify(userRepository, times(1)).findById(userId);
-        verify(bookRepository, times(1)).existsById(bookId);
-        verify(userRepository, times(1)).save(any(User.class));
+        assertEquals(0L, result.bookCount(), "The book collection should be empty");
+        verify(userRepository, times(1)).removeBook(userId, bookId);
+        verify(userRepository, never()).save(any(User.class));
+        verify(eventPublisher, times(1)).publishEvent(
+                BookCollectionChangedEvent.of(userId, List.of(), List.of(bookId)));
     }
 
     @Test
-    @DisplayName("Should throw BookNotInCollectionException when deleting a book that is not in the collection")
+    @DisplayName("Should throw BookNotInCollectionException when the delete matches no row")
     void removeBookFromUser_WithBookNotInCollection_ShouldThrowException() {
-        UUID nonExistentBookId = UUID.randomUUID();
+        UUID otherBookId = UUID.randomUUID();
         when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
-        when(bookRepository.existsById(nonExistentBookId)).thenReturn(true);
+        when(bookRepository.existsById(otherBookId)).thenReturn(true);
+        when(userRepository.removeBook(userId, otherBookId)).thenReturn(false);
 
         assertThrows(BookNotInCollectionException.class,
-                () -> userService.removeBookFromUser(userId, nonExistentBookId),
+                () -> userService.removeBookFromUser(userId, otherBookId),
                 "Should throw BookNotInCollectionException");
-        verify(userRepository, times(1)).findById(userId);
-        verify(bookRepository, times(1)).existsById(nonExistentBookId);
-        verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(userMapper);
     }
 
     @Test
@@ -565,53 +488,170 @@ class UserServiceImplTest {
                 () -> userService.removeBookFromUser(nonExistentUserId, bookId),
                 "Should throw UserNotFoundException when user does not exist");
 
-
-        verify(userRepository, times(1)).findById(nonExistentUserId);
         verify(bookRepository, never()).existsById(any(UUID.class));
-        verify(userRepository, never()).save(any(User.class));
-        verify(userMapper, never()).toResponse(any(User.class));
+        verify(userRepository, never()).removeBook(any(), any());
     }
 
     @Test
     @DisplayName("Should throw BookNotFoundException when book to remove does not exist in repository")
     void removeBookFromUser_WhenBookNotExistsInRepository_ShouldThrowBookNotFoundException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
-
         UUID nonExistentBookId = UUID.randomUUID();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
         when(bookRepository.existsById(nonExistentBookId)).thenReturn(false);
 
         assertThrows(BookNotFoundException.class,
                 () -> userService.removeBookFromUser(userId, nonExistentBookId),
                 "Should throw BookNotFoundException when book does not exist in repository");
 
-        verify(userRepository, times(1)).findById(userId);
-        verify(bookRepository, times(1)).existsById(nonExistentBookId);
-        verify(userRepository, never()).save(any(User.class));
-        verify(userMapper, never()).toResponse(any(User.class));
+        verify(userRepository, never()).removeBook(any(), any());
     }
 
     @Test
-    @DisplayName("Should throw BookNotInCollectionException when user's book collection is empty")
-    void removeBookFromUser_WhenUserBookCollectionIsEmpty_ShouldThrowBookNotInCollectionException() {
-        User userWithEmptyBooks = User.builder()
-                .id(userId)
-                .userName(testUser.getUserName())
-                .name(testUser.getName())
-                .birthDate(testUser.getBirthDate())
-                .books(new ArrayList<>())
-                .build();
+    @DisplayName("Should report the outcome of every book of a batch instead of failing on the first one")
+    void updateBooks_WithMixedBooks_ShouldReportEveryOutcome() {
+        UUID presentBookId = UUID.randomUUID();
+        UUID absentBookId = UUID.randomUUID();
+        UUID unknownBookId = UUID.randomUUID();
+        UserBooksBatchRequest request = new UserBooksBatchRequest(
+                List.of(bookId, presentBookId, unknownBookId, bookId), List.of(absentBookId));
+
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(bookRepository.findExistingIds(Set.of(bookId, presentBookId, unknownBookId, absentBookId)))
+                .thenReturn(List.of(bookId, presentBookId, absentBookId));
+        when(userRepository.removeBooks(userId, List.of(absentBookId))).thenReturn(List.of());
+        when(userRepository.addBooks(userId, List.of(bookId, presentBookId))).thenReturn(List.of(bookId));
+        when(userRepository.countBooksByUserId(userId)).thenReturn(2L);
+
+        UserBooksBatchResponse result = userService.updateBooks(userId, request);
+
+        assertEquals(List.of(
+                new UserBookResult(absentBookId, UserBookStatus.NOT_PRESENT),
+                new UserBookResult(bookId, UserBookStatus.ADDED),
+                new UserBookResult(presentBookId, UserBookStatus.ALREADY_PRESENT),
+                new UserBookResult(unknownBookId, UserBookStatus.NOT_FOUND)), result.results(),
+                "Every distinct book should be reported once, removals first");
+        assertEquals(1, result.added());
+        assertEquals(1, result.alreadyPresent());
+        assertEquals(0, result.removed());
+        assertEquals(1, result.notPresent());
+        assertEquals(1, result.notFound());
+        assertEquals(2L, result.bookCount());
+        verify(userRepository, never()).addBook(any(), any());
+        verify(eventPublisher, times(1)).publishEvent(BookCollectionChangedEvent.of(userId, List.of(bookId), List.of()));
+    }
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(userWithEmptyBooks));
-        when(bookRepository.existsById(bookId)).thenReturn(true);
+    @Test
+    @DisplayName("Should not touch the collection when the batch is empty")
+    void updateBooks_WithEmptyBatch_ShouldNotQueryBooks() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.countBooksByUserId(userId)).thenReturn(1L);
 
-        assertThrows(BookNotInCollectionException.class,
-                () -> userService.removeBookFromUser(userId, bookId),
-                "Should throw BookNotInCollectionException when user's book collection is empty");
+        UserBooksBatchResponse result = userService.updateBooks(userId, new UserBooksBatchRequest(null, List.of()));
 
-        verify(userRepository, times(1)).findById(userId);
-        verify(bookRepository, times(1)).existsById(bookId);
-        verify(userRepository, never()).save(any(User.class));
-        verify(userMapper, never()).toResponse(any(User.class));
+        assertTrue(result.results().isEmpty(), "There should be no outcomes");
+        assertEquals(1L, result.bookCount());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw UserNotFoundException when updating the books of a user that does not exist")
+    void updateBooks_WhenUserNotExists_ShouldThrowException() {
+        when(userRepository.existsById(userId)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class,
+                () -> userService.updateBooks(userId, new UserBooksBatchRequest(List.of(bookId), null)));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("Should answer membership checks from the index without touching the repositories")
+    void checkBooks_ShouldAnswerFromIndex() {
+        UUID otherBookId = UUID.randomUUID();
+        when(membershipIndex.booksOf(userId)).thenReturn(PackedUuidSet.copyOf(List.of(bookId)));
+
+        var result = userService.checkBooks(userId, List.of(otherBookId, bookId, otherBookId));
+
+        assertEquals(List.of(otherBookId, bookId), List.copyOf(result.owned().keySet()),
+                "Every distinct book should be answered once, in request order");
+        assertTrue(result.owned().get(bookId), "The owned book should be reported as owned");
+        assertFalse(result.owned().get(otherBookId), "The other book should not be reported as owned");
+        verifyNoInteractions(userRepository, bookRepository);
+    }
+
+    @Test
+    @DisplayName("Should list a page of the collection from the join table alone when not expanded")
+    void findBooks_WithoutExpand_ShouldNotReadBooks() {
+        CursorCodec.TimedKey after = new CursorCodec.TimedKey(Instant.parse("2025-08-05T10:00:00Z"), UUID.randomUUID());
+        Slice<UserBookResponse> page = new SliceImpl<>(
+                List.of(new UserBookResponse(bookId, Instant.parse("2025-08-04T10:00:00Z"), null)), PageRequest.of(0, 1), true);
+
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.findBooksByUserId(userId, after, Sort.Direction.DESC, 1)).thenReturn(page);
+
+        Slice<UserBookResponse> result = userService.findBooks(userId, after, 1, Sort.Direction.DESC, false);
+
+        assertSame(page, result, "The page should be returned as read");
+        assertTrue(result.hasNext(), "The slice should report that more books follow");
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("Should attach the full books in the order of the page when expanded")
+    void findBooks_WithExpand_ShouldAttachBooksInPageOrder() {
+        UUID otherBookId = UUID.randomUUID();
+        Instant addedAt = Instant.parse("2025-08-05T10:00:00Z");
+        Slice<UserBookResponse> page = new SliceImpl<>(List.of(
+                new UserBookResponse(bookId, addedAt, null),
+                new UserBookResponse(otherBookId, addedAt.minusSeconds(60), null)), PageRequest.of(0, 2), false);
+        BookResponse book = new BookResponse(bookId, null, "Robert C. Martin", null, "Clean Code",
+                null, null, null, null, "9780132350884", 0L);
+        BookResponse otherBook = new BookResponse(otherBookId, null, "Kent Beck", null, "Extreme Programming",
+                null, null, null, null, null, 0L);
+
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.findBooksByUserId(userId, null, Sort.Direction.DESC, 2)).thenReturn(page);
+        when(bookRepository.findResponsesByIdIn(List.of(bookId, otherBookId))).thenReturn(List.of(otherBook, book));
+
+        Slice<UserBookResponse> result = userService.findBooks(userId, null, 2, Sort.Direction.DESC, true);
+
+        assertEquals(List.of(book, otherBook), result.map(UserBookResponse::book).getContent(),
+                "The books should follow the order of the page");
+        assertEquals(addedAt, result.getContent().get(0).addedAt(), "The added time should be kept");
+    }
+
+    @Test
+    @DisplayName("Should reject page sizes below 1 or above the maximum before reading anything")
+    void findBooks_WithSizeOutOfBounds_ShouldThrowException() {
+        for (int size : new int[]{-1, 0, UserServiceImpl.MAX_BOOKS_PAGE_SIZE + 1, Integer.MAX_VALUE}) {
+            assertThrows(InvalidPageSizeException.class,
+                    () -> userService.findBooks(userId, null, size, Sort.Direction.DESC, false),
+                    "A page size of " + size + " should be rejected");
+        }
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should accept the smallest and the largest page sizes")
+    void findBooks_WithSizeAtBounds_ShouldReadPage() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.findBooksByUserId(eq(userId), isNull(), eq(Sort.Direction.DESC), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        userService.findBooks(userId, null, 1, Sort.Direction.DESC, false);
+        userService.findBooks(userId, null, UserServiceImpl.MAX_BOOKS_PAGE_SIZE, Sort.Direction.DESC, false);
+
+        verify(userRepository).findBooksByUserId(userId, null, Sort.Direction.DESC, 1);
+        verify(userRepository).findBooksByUserId(userId, null, Sort.Direction.DESC, UserServiceImpl.MAX_BOOKS_PAGE_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should throw UserNotFoundException when listing the books of a user that does not exist")
+    void findBooks_WhenUserNotExists_ShouldThrowException() {
+        when(userRepository.existsById(userId)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class,
+                () -> userService.findBooks(userId, null, 20, Sort.Direction.DESC, false));
+        verify(userRepository, never()).findBooksByUserId(any(), any(), any(), anyInt());
     }
 
     @Test
@@ -631,14 +671,15 @@ class UserServiceImplTest {
         SecurityContextHolder.setContext(securityContext);
 
         when(userRepository.findUserByUserName(username)).thenReturn(Optional.of(testUser));
-        when(userMapper.toResponse(testUser)).thenReturn(expectedResponse);
+        when(userRepository.countBooksByUserId(userId)).thenReturn(1L);
+        when(userMapper.toResponse(testUser, 1L)).thenReturn(expectedResponse);
 
         UserResponse result = userService.getCurrentUser();
 
         assertNotNull(result, "La respuesta no debe ser nula");
         assertEquals(expectedResponse, result, "La respuesta debe coincidir con el usuario esperado");
         verify(userRepository, times(1)).findUserByUserName(username);
-        verify(userMapper, times(1)).toResponse(testUser);
+        verify(userMapper, times(1)).toResponse(testUser, 1L);
     }
 
     @Test
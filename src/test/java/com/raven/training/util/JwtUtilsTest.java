@@ -5,18 +5,21 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.raven.training.config.CacheConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.cache.CacheManager;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,9 +28,10 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class JwtUtilsTest {
 
-    @InjectMocks
     private JwtUtils jwtUtils;
 
+    private CacheManager cacheManager;
+
     @Mock
     private Authentication authentication;
 
@@ -39,15 +43,16 @@ class JwtUtilsTest {
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(jwtUtils, "privateKey", PRIVATE_KEY);
-        ReflectionTestUtils.setField(jwtUtils, "userGenerator", ISSUER);
-        
-        when(authentication.getPrincipal()).thenReturn(USERNAME);
+        Duration ttl = Duration.ofMinutes(1);
+        cacheManager = new CacheConfig().cacheManager(ttl, 10, ttl, 10, ttl, 10, ttl, 10, 10, ttl, 10);
+        jwtUtils = new JwtUtils(ISSUER, PRIVATE_KEY, cacheManager);
+
+        lenient().when(authentication.getPrincipal()).thenReturn(USERNAME);
         Collection<GrantedAuthority> authorities = Arrays.asList(
             new SimpleGrantedAuthority(ROLE_USER),
             new SimpleGrantedAuthority(ROLE_ADMIN)
         );
-        when(authentication.getAuthorities()).thenAnswer(i -> authorities);
+        lenient().when(authentication.getAuthorities()).thenAnswer(i -> authorities);
     }
 
     @Test
@@ -124,4 +129,53 @@ class JwtUtilsTest {
         assertTrue(claims.containsKey("jti"));
         assertTrue(claims.containsKey("nbf"));
     }
+
+    private long verifiedTokenCount() {
+        return CacheConfig.nativeCache(cacheManager, CacheConfig.VERIFIED_TOKENS).estimatedSize();
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and serve later validations from the cache")
+    void validationToken_WhenCalledTwice_ShouldReuseVerifiedToken() {
+        String token = jwtUtils.createToken(authentication);
+
+        DecodedJWT first = jwtUtils.validationToken(token);
+        DecodedJWT second = jwtUtils.validationToken(token);
+
+        assertSame(first, second, "The second validation should return the cached token");
+        assertEquals(1, verifiedTokenCount());
+        Cache<Object, Object> cache = CacheConfig.nativeCache(cacheManager, CacheConfig.VERIFIED_TOKENS);
+        Duration left = cache.policy().expireVariably().orElseThrow()
+                .getExpiresAfter(cache.asMap().keySet().iterator().next()).orElseThrow();
+        assertTrue(left.compareTo(Duration.ofMinutes(30)) <= 0 && left.compareTo(Duration.ofMinutes(29)) > 0,
+                "The cached token should expire with the token, not later");
+    }
+
+    @Test
+    @DisplayName("Should not cache a token that fails verification")
+    void validationToken_WhenSignatureInvalid_ShouldNotCache() {
+        String forged = JWT.create()
+                .withIssuer(ISSUER)
+                .withSubject(USERNAME)
+                .withExpiresAt(Instant.now().plusSeconds(60))
+                .sign(Algorithm.HMAC256("anotherKey12345678901234567890123456789012"));
+
+        assertThrows(JWTVerificationException.class, () -> jwtUtils.validationToken(forged));
+        assertThrows(JWTVerificationException.class, () -> jwtUtils.validationToken(forged),
+                "A rejected token should be verified again, not served from the cache");
+        assertEquals(0, verifiedTokenCount(), "A rejected token should never be cached");
+    }
+
+    @Test
+    @DisplayName("Should reject an expired token")
+    void validationToken_WhenExpired_ShouldThrowException() {
+        String expired = JWT.create()
+                .withIssuer(ISSUER)
+                .withSubject(USERNAME)
+                .withExpiresAt(Instant.now().minusSeconds(60))
+                .sign(Algorithm.HMAC256(PRIVATE_KEY));
+
+        assertThrows(JWTVerificationException.class, () -> jwtUtils.validationToken(expired));
+        assertEquals(0, verifiedTokenCount());
+    }
 }
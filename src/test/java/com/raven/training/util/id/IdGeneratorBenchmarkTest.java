@@ -0,0 +1,83 @@
+package com.raven.training.util.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares insert throughput and primary key index size of random (v4) and
+ * time-ordered (v7) UUIDs on the configured Postgres database.
+ * Run it with {@code mvn test -Pbenchmark} and the {@code db_url}, {@code db_username}
+ * and {@code db_password} environment variables set; it uses temporary tables only.
+ */
+@Tag("benchmark")
+@EnabledIfEnvironmentVariable(named = "db_url", matches = ".+")
+@DisplayName("Benchmark of UUID versions as primary keys")
+class IdGeneratorBenchmarkTest {
+
+    private static final int ROWS = 500_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    private record Result(String name, long millis, long indexBytes) {
+
+        @Override
+        public String toString() {
+            return String.format("%s: %,d rows in %,d ms (%,d rows/s), primary key index %,d kB",
+                    name, ROWS, millis, ROWS * 1000L / Math.max(millis, 1), indexBytes / 1024);
+        }
+    }
+
+    private static Result insert(Connection connection, String name, IdGenerator generator) throws SQLException {
+        String table = "id_benchmark_" + name;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMPORARY TABLE " + table + " (id uuid PRIMARY KEY, payload text)");
+        }
+
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + " VALUES (?, ?)")) {
+            for (int i = 1; i <= ROWS; i++) {
+                insert.setObject(1, generator.next());
+                insert.setString(2, "book " + i);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet size = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey')")) {
+            size.next();
+            return new Result(name, millis, size.getLong(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Time-ordered ids should insert at least as fast and keep a denser index than random ids")
+    void compareRandomAndTimeOrderedIds() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                System.getenv("db_url"), System.getenv("db_username"), System.getenv("db_password"))) {
+            connection.setAutoCommit(false);
+
+            Result v4 = insert(connection, "v4", new RandomUuidGenerator());
+            Result v7 = insert(connection, "v7", new UuidV7Generator());
+
+            System.out.println(v4);
+            System.out.println(v7);
+            assertTrue(v7.indexBytes() < v4.indexBytes(),
+                    "Appending to the right edge of the index should leave fewer half-empty pages");
+        }
+    }
+}
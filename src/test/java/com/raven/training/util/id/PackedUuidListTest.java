@@ -0,0 +1,41 @@
+package com.raven.training.util.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedUuidListTest {
+
+    @Test
+    @DisplayName("Should keep the identifiers in insertion order and compare equal to any list with them")
+    void build_ShouldKeepIdentifiersInOrder() {
+        List<UUID> expected = new ArrayList<>();
+        PackedUuidList.Builder builder = PackedUuidList.builder();
+        for (int i = 0; i < 100; i++) {
+            UUID id = UUID.randomUUID();
+            expected.add(id);
+            builder.add(id);
+        }
+
+        PackedUuidList list = builder.build();
+
+        assertEquals(100, list.size());
+        assertEquals(expected, list, "Should equal a regular list with the same identifiers");
+        assertEquals(expected.hashCode(), list.hashCode());
+    }
+
+    @Test
+    @DisplayName("Should be empty and reject reads and writes out of range")
+    void emptyList_ShouldRejectAccessAndModification() {
+        PackedUuidList list = PackedUuidList.builder().build();
+
+        assertTrue(list.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> list.add(UUID.randomUUID()));
+    }
+}
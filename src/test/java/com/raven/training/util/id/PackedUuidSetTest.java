@@ -0,0 +1,72 @@
+package com.raven.training.util.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedUuidSetTest {
+
+    @Test
+    @DisplayName("Should contain exactly the given identifiers, once each, and equal any set with them")
+    void copyOf_ShouldContainGivenIdentifiers() {
+        Set<UUID> expected = new HashSet<>();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            UUID id = new UUID(i % 7 - 3, i);
+            expected.add(id);
+            ids.add(id);
+            ids.add(id);
+        }
+
+        PackedUuidSet set = PackedUuidSet.copyOf(ids);
+
+        assertEquals(1000, set.size(), "Duplicates should be kept once");
+        assertEquals(expected, set, "Should equal a regular set with the same identifiers");
+        assertEquals(expected.hashCode(), set.hashCode());
+        expected.forEach(id -> assertTrue(set.contains(id), "Should contain " + id));
+        assertFalse(set.contains(UUID.randomUUID()), "Should not contain an unknown identifier");
+        assertFalse(set.contains("not a uuid"), "Should not contain other types");
+    }
+
+    @Test
+    @DisplayName("Should apply additions and removals to a copy, removals first")
+    void with_ShouldReturnChangedCopy() {
+        Random random = new Random(42);
+        Set<UUID> expected = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            expected.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        PackedUuidSet original = PackedUuidSet.copyOf(expected);
+        List<UUID> current = new ArrayList<>(expected);
+        UUID kept = current.get(0);
+        List<UUID> removed = List.of(kept, current.get(1), current.get(2), UUID.randomUUID());
+        List<UUID> added = List.of(kept, new UUID(Long.MIN_VALUE, 0), new UUID(Long.MAX_VALUE, -1));
+
+        PackedUuidSet changed = original.with(added, removed);
+
+        expected.removeAll(removed);
+        expected.addAll(added);
+        assertEquals(expected, changed, "Removals should be applied before additions");
+        assertTrue(changed.contains(kept), "A book removed and added again should stay");
+        assertEquals(500, original.size(), "The original set should not change");
+        assertSame(original, original.with(List.of(), List.of()), "An empty change should return the same set");
+    }
+
+    @Test
+    @DisplayName("Should be empty and reject modification")
+    void emptySet_ShouldRejectModification() {
+        PackedUuidSet set = PackedUuidSet.copyOf(List.of());
+
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(UUID.randomUUID()));
+        assertThrows(UnsupportedOperationException.class, () -> set.add(UUID.randomUUID()));
+    }
+}
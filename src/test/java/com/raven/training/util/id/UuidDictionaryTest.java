@@ -0,0 +1,92 @@
+package com.raven.training.util.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidDictionaryTest {
+
+    @Test
+    @DisplayName("Should assign dense indexes in the order identifiers are first seen")
+    void intern_ShouldAssignDenseIndexes() {
+        UuidDictionary dictionary = new UuidDictionary();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(i % 2 == 0 ? UUID.randomUUID() : new UUID(i, 0));
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i, dictionary.intern(ids.get(i)), "Should assign the next index");
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i, dictionary.intern(ids.get(i)), "Should keep the index of a known identifier");
+            assertEquals(i, dictionary.find(ids.get(i)));
+            assertEquals(ids.get(i), dictionary.get(i), "Should map the index back to the identifier");
+        }
+        assertEquals(ids.size(), dictionary.size());
+    }
+
+    @Test
+    @DisplayName("Should not find or add an identifier that was never interned")
+    void find_WhenUnknown_ShouldReturnMinusOne() {
+        UuidDictionary dictionary = new UuidDictionary();
+        dictionary.intern(new UUID(1, 2));
+
+        assertEquals(-1, dictionary.find(new UUID(2, 1)));
+        assertEquals(1, dictionary.size(), "Finding should not add the identifier");
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.get(1));
+    }
+
+    @Test
+    @DisplayName("Should release the index of a removed identifier for the next one added")
+    void remove_ShouldReleaseIndex() {
+        UuidDictionary dictionary = new UuidDictionary();
+        UUID first = new UUID(1, 1);
+        UUID second = new UUID(2, 2);
+        dictionary.intern(first);
+        dictionary.intern(second);
+
+        assertEquals(0, dictionary.remove(first));
+        assertEquals(-1, dictionary.remove(first), "Removing an identifier not held should change nothing");
+        assertEquals(-1, dictionary.find(first));
+        assertEquals(1, dictionary.size());
+
+        UUID third = new UUID(3, 3);
+        assertEquals(0, dictionary.intern(third), "Should reuse the released index");
+        assertEquals(third, dictionary.get(0));
+        assertEquals(2, dictionary.intern(first), "Should assign a new index once none is released");
+    }
+
+    @Test
+    @DisplayName("Should keep finding the other identifiers after removals and stay bounded under churn")
+    void remove_UnderChurn_ShouldKeepOtherIdentifiers() {
+        UuidDictionary dictionary = new UuidDictionary();
+        List<UUID> held = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            UUID id = new UUID(i, 0);
+            dictionary.intern(id);
+            held.add(id);
+        }
+
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < held.size(); i += 3) {
+                dictionary.remove(held.get(i));
+                UUID replacement = UUID.randomUUID();
+                held.set(i, replacement);
+                dictionary.intern(replacement);
+            }
+        }
+
+        assertEquals(held.size(), dictionary.size());
+        for (UUID id : held) {
+            int index = dictionary.find(id);
+            assertTrue(index >= 0 && index < held.size(), "Indexes should stay below the most identifiers held");
+            assertEquals(id, dictionary.get(index));
+        }
+    }
+}
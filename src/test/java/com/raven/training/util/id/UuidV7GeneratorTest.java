@@ -0,0 +1,112 @@
+package com.raven.training.util.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for UuidV7Generator")
+class UuidV7GeneratorTest {
+
+    private static final long NOW = 1_754_352_000_000L;
+
+    /**
+     * Compares UUIDs the way Postgres does: as unsigned bytes.
+     */
+    private static int compareUnsigned(UUID first, UUID second) {
+        int most = Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+        return most != 0 ? most : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+    }
+
+    @Test
+    @DisplayName("Should generate version 7 UUIDs of the RFC variant carrying the current time")
+    void next_ShouldSetVersionVariantAndTimestamp() {
+        UUID id = new UuidV7Generator(() -> NOW).next();
+
+        assertEquals(7, id.version(), "The version should be 7");
+        assertEquals(2, id.variant(), "The variant should be the RFC 9562 one");
+        assertEquals(NOW, id.getMostSignificantBits() >>> 16, "The 48 leading bits should hold the time in milliseconds");
+    }
+
+    @Test
+    @DisplayName("Should keep increasing within the same millisecond, carrying into the timestamp on overflow")
+    void next_WithinSameMillisecond_ShouldBeMonotonic() {
+        UuidV7Generator generator = new UuidV7Generator(() -> NOW);
+
+        UUID previous = generator.next();
+        for (int i = 0; i < 10_000; i++) {
+            UUID current = generator.next();
+            assertTrue(compareUnsigned(previous, current) < 0, "Every id should be greater than the previous one");
+            assertEquals(7, current.version());
+            previous = current;
+        }
+        assertTrue(previous.getMostSignificantBits() >>> 16 > NOW,
+                "More than 4096 ids in one millisecond should borrow from the next one");
+    }
+
+    @Test
+    @DisplayName("Should not go back when the clock does")
+    void next_WhenClockGoesBack_ShouldStayMonotonic() {
+        long[] clock = {NOW};
+        UuidV7Generator generator = new UuidV7Generator(() -> clock[0]);
+
+        UUID before = generator.next();
+        clock[0] = NOW - 1_000;
+        UUID after = generator.next();
+
+        assertTrue(compareUnsigned(before, after) < 0);
+    }
+
+    @Test
+    @DisplayName("Should generate distinct, per-thread ordered ids under concurrency")
+    void next_Concurrently_ShouldBeUniqueAndOrdered() throws Exception {
+        UuidV7Generator generator = new UuidV7Generator();
+        Set<UUID> all = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    UUID previous = generator.next();
+                    all.add(previous);
+                    boolean ordered = true;
+                    for (int i = 0; i < 20_000; i++) {
+                        UUID current = generator.next();
+                        ordered &= compareUnsigned(previous, current) < 0;
+                        all.add(current);
+                        previous = current;
+                    }
+                    return ordered;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(), "Each thread should see increasing ids");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(8 * 20_001, all.size(), "Every id should be unique");
+    }
+
+    @Test
+    @DisplayName("Should use the installed generator for entity ids")
+    void entityIds_ShouldDelegateToInstalledGenerator() {
+        UUID fixed = UUID.randomUUID();
+        try {
+            EntityIds.use(() -> fixed);
+            assertEquals(fixed, EntityIds.next());
+        } finally {
+            EntityIds.use(new UuidV7Generator());
+        }
+        assertEquals(7, EntityIds.next().version());
+    }
+}
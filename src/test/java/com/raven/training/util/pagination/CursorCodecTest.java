@@ -0,0 +1,63 @@
+package com.raven.training.util.pagination;
+
+import com.raven.training.exception.error.InvalidCursorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for CursorCodec")
+class CursorCodecTest {
+
+    @Test
+    @DisplayName("Should decode a cursor back into the identifier it was built from")
+    void encode_ThenDecode_ShouldReturnSameIdentifier() {
+        UUID id = UUID.randomUUID();
+
+        String cursor = CursorCodec.encode(id);
+
+        assertEquals(id, CursorCodec.decode(cursor), "The decoded identifier should match the original one");
+    }
+
+    @Test
+    @DisplayName("Should produce URL-safe cursors without padding")
+    void encode_ShouldProduceUrlSafeToken() {
+        String cursor = CursorCodec.encode(new UUID(-1L, -1L));
+
+        assertEquals(22, cursor.length(), "A 16 byte key should encode to 22 characters");
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), "The cursor should only contain URL-safe characters");
+    }
+
+    @Test
+    @DisplayName("Should decode a timed cursor back into its timestamp and identifier")
+    void encodeTimed_ThenDecode_ShouldReturnSameKey() {
+        CursorCodec.TimedKey key = new CursorCodec.TimedKey(Instant.parse("2025-08-05T10:15:30.123456Z"), UUID.randomUUID());
+
+        CursorCodec.TimedKey decoded = CursorCodec.decodeTimed(CursorCodec.encode(key));
+
+        assertEquals(key, decoded, "The decoded key should match the original one");
+    }
+
+    @Test
+    @DisplayName("Should not accept an identifier cursor where a timed cursor is expected")
+    void decodeTimed_WhenIdentifierCursor_ShouldThrowInvalidCursorException() {
+        String cursor = CursorCodec.encode(UUID.randomUUID());
+
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decodeTimed(cursor));
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that is not Base64")
+    void decode_WhenNotBase64_ShouldThrowInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("not a cursor!"));
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor with the wrong length")
+    void decode_WhenWrongLength_ShouldThrowInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("AAAA"));
+    }
+}
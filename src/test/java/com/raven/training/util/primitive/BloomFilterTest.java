@@ -0,0 +1,58 @@
+package com.raven.training.util.primitive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should never miss a value that was added")
+    void mightContain_ShouldHaveNoFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"), "Added values must be found");
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep false positives near the configured rate")
+    void mightContain_ShouldKeepFalsePositiveRate() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i);
+        }
+
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("other" + i)).count();
+
+        assertTrue(falsePositives < 1_500, "Expected about 1% false positives, got " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+        assertEquals(7, filter.hashCount());
+        assertEquals(0, filter.bitSize() % 64);
+    }
+
+    @Test
+    @DisplayName("Should keep every value added from several threads")
+    void put_FromSeveralThreads_ShouldKeepEveryValue() {
+        BloomFilter filter = BloomFilter.create(200_000, 0.01);
+
+        IntStream.range(0, 200_000).parallel().forEach(i -> filter.put("name" + i));
+
+        assertTrue(IntStream.range(0, 200_000).allMatch(i -> filter.mightContain("name" + i)));
+    }
+
+    @Test
+    @DisplayName("Should reject a false positive rate outside (0, 1)")
+    void create_WithInvalidRate_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(10, 1));
+    }
+}
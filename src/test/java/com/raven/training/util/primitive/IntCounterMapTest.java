@@ -0,0 +1,76 @@
+package com.raven.training.util.primitive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntCounterMapTest {
+
+    @Test
+    @DisplayName("Should keep the same counts as a boxed map through random increments and decrements")
+    void add_ShouldMatchBoxedMap() {
+        IntCounterMap counts = new IntCounterMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2_000);
+            int delta = random.nextInt(5) - 2;
+            int previous = expected.getOrDefault(key, 0);
+            int next = previous == 0 && delta <= 0 ? 0 : Math.max(previous + delta, 0);
+            if (next == 0) {
+                expected.remove(key);
+            } else {
+                expected.put(key, next);
+            }
+
+            assertEquals(next, counts.add(key, delta), "Should return the new count of " + key);
+        }
+
+        assertEquals(expected.size(), counts.size(), "Keys dropping to zero should be removed");
+        expected.forEach((key, count) -> assertEquals(count, counts.get(key), "Count of " + key));
+        Map<Integer, Integer> visited = new HashMap<>();
+        counts.forEach(visited::put);
+        assertEquals(expected, visited, "Should visit every entry once");
+    }
+
+    @Test
+    @DisplayName("Should not create an entry for a negative delta on an absent key")
+    void add_WhenKeyAbsentAndDeltaNegative_ShouldDoNothing() {
+        IntCounterMap counts = new IntCounterMap();
+
+        assertEquals(0, counts.add(7, -1));
+        assertFalse(counts.containsKey(7));
+        assertEquals(0, counts.size());
+    }
+
+    @Test
+    @DisplayName("Should return the keys with the highest counts, ties by ascending key")
+    void topKeys_ShouldReturnHighestCountsFirst() {
+        IntCounterMap counts = new IntCounterMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int key = 0; key < 1_000; key++) {
+            int count = 1 + random.nextInt(50);
+            counts.add(key, count);
+            expected.put(key, count);
+        }
+
+        int[] expectedTop = expected.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(25)
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+
+        assertArrayEquals(expectedTop, counts.topKeys(25));
+        assertEquals(1_000, counts.topKeys(5_000).length, "Should return every key when the limit is larger");
+        assertEquals(0, counts.topKeys(0).length);
+    }
+}